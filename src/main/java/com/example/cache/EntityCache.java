@@ -0,0 +1,116 @@
+package com.example.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.BeanUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting read-through cache for active entities keyed by id.
+ *
+ * Entities are mutable and the services modify what {@code findById} returns before
+ * saving it, so the cache only ever hands out and stores copies.
+ *
+ * A read-through load must not cache a copy that a write has replaced or deleted while the
+ * load was reading it: loaders take a {@link #writeStamp} before reading and store the result
+ * with {@link #putLoaded}, which drops it when a put or evict for the id happened in between.
+ *
+ * As a bean it publishes the Caffeine size, hit, miss and eviction meters under {@code cache.*}.
+ */
+public class EntityCache<T> implements MeterBinder {
+
+    private static final int WRITE_STRIPES = 64;
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final Cache<String, T> cache;
+
+    /** write counters, striped by id; a collision only costs a skipped cache fill */
+    private final AtomicLongArray writes = new AtomicLongArray(WRITE_STRIPES);
+
+    public EntityCache(String name, Supplier<T> factory, long maximumSize, Duration ttl) {
+        this.name = name;
+        this.factory = factory;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public T get(String id) {
+        T cached = cache.getIfPresent(id);
+        return cached == null ? null : copy(cached);
+    }
+
+    /**
+     * Stores a copy written to the database; it replaces whatever a concurrent load reads.
+     */
+    public void put(String id, T entity) {
+        if (id != null && entity != null) {
+            writes.incrementAndGet(stripe(id));
+            cache.put(id, copy(entity));
+        }
+    }
+
+    public void evict(String id) {
+        if (id != null) {
+            writes.incrementAndGet(stripe(id));
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Taken before reading the entity from the database, to be passed to {@link #putLoaded}.
+     */
+    public long writeStamp(String id) {
+        return writes.get(stripe(id));
+    }
+
+    /**
+     * Caches a copy read from the database, unless the id was written or evicted since
+     * {@code stamp} was taken; the read may then predate that write.
+     */
+    public void putLoaded(String id, T entity, long stamp) {
+        if (id == null || entity == null) {
+            return;
+        }
+        int stripe = stripe(id);
+        // checked inside the map operation, so a later put or evict of the id still wins
+        cache.asMap().compute(id, (key, current) -> writes.get(stripe) == stamp ? copy(entity) : current);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static int stripe(String id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % WRITE_STRIPES;
+    }
+
+    private T copy(T source) {
+        T target = factory.get();
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+}
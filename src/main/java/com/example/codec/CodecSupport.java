@@ -0,0 +1,105 @@
+package com.example.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * Field readers and writers shared by the entity codecs. They store values the way
+ * MappingMongoConverter does: null properties are left out, ids that look like an ObjectId
+ * are stored as one, and instants become BSON dates (millisecond precision).
+ */
+final class CodecSupport {
+
+    static final String ID = "_id";
+
+    static final String TYPE_KEY = "_class";
+
+    private CodecSupport() {}
+
+    static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case NULL -> {
+                reader.readNull();
+                yield null;
+            }
+            default -> reader.readString();
+        };
+    }
+
+    static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return reader.readString();
+    }
+
+    static Instant readInstant(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return Instant.ofEpochMilli(reader.readDateTime());
+    }
+
+    static Integer readInteger(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> (int) reader.readInt64();
+            case DOUBLE -> (int) reader.readDouble();
+            case NULL -> {
+                reader.readNull();
+                yield null;
+            }
+            default -> throw new IllegalStateException("Expected a number but found " + reader.getCurrentBsonType());
+        };
+    }
+
+    static Boolean readBoolean(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return reader.readBoolean();
+    }
+
+    static void writeId(BsonWriter writer, String id) {
+        if (id == null) {
+            return;
+        }
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(ID, new ObjectId(id));
+        } else {
+            writer.writeString(ID, id);
+        }
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static void writeInstant(BsonWriter writer, String name, Instant value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toEpochMilli());
+        }
+    }
+
+    static void writeInteger(BsonWriter writer, String name, Integer value) {
+        if (value != null) {
+            writer.writeInt32(name, value);
+        }
+    }
+
+    static void writeBoolean(BsonWriter writer, String name, Boolean value) {
+        if (value != null) {
+            writer.writeBoolean(name, value);
+        }
+    }
+}
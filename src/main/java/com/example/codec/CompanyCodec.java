@@ -0,0 +1,81 @@
+package com.example.codec;
+
+import com.example.model.Company;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Reads and writes {@link Company} documents field by field, producing the same BSON as
+ * MappingMongoConverter without the reflective mapping or an intermediate Document.
+ */
+public class CompanyCodec implements Codec<Company> {
+
+    @Override
+    public Company decode(BsonReader reader, DecoderContext decoderContext) {
+        Company company = new Company();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case CodecSupport.ID -> company.setId(CodecSupport.readId(reader));
+                case "companyName" -> company.setCompanyName(CodecSupport.readString(reader));
+                case "establishedOn" -> company.setEstablishedOn(CodecSupport.readString(reader));
+                case "registrationNumber" -> company.setRegistrationNumber(CodecSupport.readString(reader));
+                case "website" -> company.setWebsite(CodecSupport.readString(reader));
+                case "address1" -> company.setAddress1(CodecSupport.readString(reader));
+                case "address2" -> company.setAddress2(CodecSupport.readString(reader));
+                case "city" -> company.setCity(CodecSupport.readString(reader));
+                case "state" -> company.setState(CodecSupport.readString(reader));
+                case "zipCode" -> company.setZipCode(CodecSupport.readString(reader));
+                case "primaryContactFirstName" -> company.setPrimaryContactFirstName(CodecSupport.readString(reader));
+                case "primaryContactLastName" -> company.setPrimaryContactLastName(CodecSupport.readString(reader));
+                case "primaryContactEmail" -> company.setPrimaryContactEmail(CodecSupport.readString(reader));
+                case "primaryContactMobile" -> company.setPrimaryContactMobile(CodecSupport.readString(reader));
+                case "createdOn" -> company.setCreatedOn(CodecSupport.readInstant(reader));
+                case "modifiedOn" -> company.setModifiedOn(CodecSupport.readInstant(reader));
+                case "isActive" -> company.setIsActive(CodecSupport.readBoolean(reader));
+                case "companyNameKey" -> company.setCompanyNameKey(CodecSupport.readString(reader));
+                case "registrationNumberKey" -> company.setRegistrationNumberKey(CodecSupport.readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return company;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Company company, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        CodecSupport.writeId(writer, company.getId());
+        CodecSupport.writeString(writer, "companyName", company.getCompanyName());
+        CodecSupport.writeString(writer, "establishedOn", company.getEstablishedOn());
+        CodecSupport.writeString(writer, "registrationNumber", company.getRegistrationNumber());
+        CodecSupport.writeString(writer, "website", company.getWebsite());
+        CodecSupport.writeString(writer, "address1", company.getAddress1());
+        CodecSupport.writeString(writer, "address2", company.getAddress2());
+        CodecSupport.writeString(writer, "city", company.getCity());
+        CodecSupport.writeString(writer, "state", company.getState());
+        CodecSupport.writeString(writer, "zipCode", company.getZipCode());
+        CodecSupport.writeString(writer, "primaryContactFirstName", company.getPrimaryContactFirstName());
+        CodecSupport.writeString(writer, "primaryContactLastName", company.getPrimaryContactLastName());
+        CodecSupport.writeString(writer, "primaryContactEmail", company.getPrimaryContactEmail());
+        CodecSupport.writeString(writer, "primaryContactMobile", company.getPrimaryContactMobile());
+        CodecSupport.writeInstant(writer, "createdOn", company.getCreatedOn());
+        CodecSupport.writeInstant(writer, "modifiedOn", company.getModifiedOn());
+        CodecSupport.writeBoolean(writer, "isActive", company.getIsActive());
+        CodecSupport.writeString(writer, "companyNameKey", company.getCompanyNameKey());
+        CodecSupport.writeString(writer, "registrationNumberKey", company.getRegistrationNumberKey());
+        writer.writeString(CodecSupport.TYPE_KEY, Company.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Company> getEncoderClass() {
+        return Company.class;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.codec;
+
+import com.example.model.Driver;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Reads and writes {@link Driver} documents field by field, producing the same BSON as
+ * MappingMongoConverter without the reflective mapping or an intermediate Document.
+ */
+public class DriverCodec implements Codec<Driver> {
+
+    @Override
+    public Driver decode(BsonReader reader, DecoderContext decoderContext) {
+        Driver driver = new Driver();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case CodecSupport.ID -> driver.setId(CodecSupport.readId(reader));
+                case "firstName" -> driver.setFirstName(CodecSupport.readString(reader));
+                case "lastName" -> driver.setLastName(CodecSupport.readString(reader));
+                case "email" -> driver.setEmail(CodecSupport.readString(reader));
+                case "mobile" -> driver.setMobile(CodecSupport.readString(reader));
+                case "dateOfBirth" -> driver.setDateOfBirth(CodecSupport.readString(reader));
+                case "licenseNumber" -> driver.setLicenseNumber(CodecSupport.readString(reader));
+                case "experienceYears" -> driver.setExperienceYears(CodecSupport.readInteger(reader));
+                case "address1" -> driver.setAddress1(CodecSupport.readString(reader));
+                case "address2" -> driver.setAddress2(CodecSupport.readString(reader));
+                case "city" -> driver.setCity(CodecSupport.readString(reader));
+                case "state" -> driver.setState(CodecSupport.readString(reader));
+                case "zipCode" -> driver.setZipCode(CodecSupport.readString(reader));
+                case "createdOn" -> driver.setCreatedOn(CodecSupport.readInstant(reader));
+                case "modifiedOn" -> driver.setModifiedOn(CodecSupport.readInstant(reader));
+                case "isActive" -> driver.setIsActive(CodecSupport.readBoolean(reader));
+                case "firstNameKey" -> driver.setFirstNameKey(CodecSupport.readString(reader));
+                case "lastNameKey" -> driver.setLastNameKey(CodecSupport.readString(reader));
+                case "licenseNumberKey" -> driver.setLicenseNumberKey(CodecSupport.readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return driver;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Driver driver, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        CodecSupport.writeId(writer, driver.getId());
+        CodecSupport.writeString(writer, "firstName", driver.getFirstName());
+        CodecSupport.writeString(writer, "lastName", driver.getLastName());
+        CodecSupport.writeString(writer, "email", driver.getEmail());
+        CodecSupport.writeString(writer, "mobile", driver.getMobile());
+        CodecSupport.writeString(writer, "dateOfBirth", driver.getDateOfBirth());
+        CodecSupport.writeString(writer, "licenseNumber", driver.getLicenseNumber());
+        CodecSupport.writeInteger(writer, "experienceYears", driver.getExperienceYears());
+        CodecSupport.writeString(writer, "address1", driver.getAddress1());
+        CodecSupport.writeString(writer, "address2", driver.getAddress2());
+        CodecSupport.writeString(writer, "city", driver.getCity());
+        CodecSupport.writeString(writer, "state", driver.getState());
+        CodecSupport.writeString(writer, "zipCode", driver.getZipCode());
+        CodecSupport.writeInstant(writer, "createdOn", driver.getCreatedOn());
+        CodecSupport.writeInstant(writer, "modifiedOn", driver.getModifiedOn());
+        CodecSupport.writeBoolean(writer, "isActive", driver.getIsActive());
+        CodecSupport.writeString(writer, "firstNameKey", driver.getFirstNameKey());
+        CodecSupport.writeString(writer, "lastNameKey", driver.getLastNameKey());
+        CodecSupport.writeString(writer, "licenseNumberKey", driver.getLicenseNumberKey());
+        writer.writeString(CodecSupport.TYPE_KEY, Driver.class.getName());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Driver> getEncoderClass() {
+        return Driver.class;
+    }
+}
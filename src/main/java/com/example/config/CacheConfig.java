@@ -0,0 +1,28 @@
+package com.example.config;
+
+import com.example.cache.EntityCache;
+import com.example.model.Company;
+import com.example.model.Driver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public EntityCache<Company> companyCache(
+            @Value("${app.cache.companies.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.companies.ttl:5m}") Duration ttl) {
+        return new EntityCache<>("companies", Company::new, maximumSize, ttl);
+    }
+
+    @Bean
+    public EntityCache<Driver> driverCache(
+            @Value("${app.cache.drivers.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.drivers.ttl:5m}") Duration ttl) {
+        return new EntityCache<>("drivers", Driver::new, maximumSize, ttl);
+    }
+}
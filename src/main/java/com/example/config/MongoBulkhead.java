@@ -0,0 +1,144 @@
+package com.example.config;
+
+import com.example.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of blocking Mongo calls in flight, by default to the Mongo connection pool
+ * size. A call that cannot get a permit within {@code max-wait} fails with a 503 instead of
+ * queueing for a connection. This matters on virtual threads, where the request thread
+ * count no longer limits how many callers reach the pool at once.
+ *
+ * The permit is taken around the {@link MongoTemplate} methods that talk to the database and
+ * around {@link BulkOperations#execute()}, so work that never reaches Mongo (a cache hit, a
+ * rejected precondition) cannot be turned away. A stream holds its permit only while opening
+ * the cursor. The reactive template is not limited here: waiting for a permit would block an
+ * event loop thread, so reactive calls queue on the pool's wait time instead.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.mongo.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoBulkhead implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoBulkhead.class);
+
+    private final Semaphore permits;
+
+    private final int maxConcurrent;
+
+    private final long maxWaitNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public MongoBulkhead(
+            @Value("${app.mongo.bulkhead.max-concurrent:${app.mongo.client.pool.max-size:100}}") int maxConcurrent,
+            @Value("${app.mongo.bulkhead.max-wait:100ms}") Duration maxWait) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+
+        log.info("Mongo bulkhead enabled. maxConcurrent={}, maxWait={}", maxConcurrent, maxWait);
+    }
+
+    @Pointcut("execution(public * org.springframework.data.mongodb.core.MongoTemplate.find*(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.count(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.estimatedCount(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.exactCount(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.exists(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.insert*(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.save(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.update*(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.upsert(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.remove(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.aggregate*(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.stream(..))"
+            + " || execution(public * org.springframework.data.mongodb.core.MongoTemplate.execute*(..))")
+    void databaseCall() {
+    }
+
+    @Around("databaseCall()")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        return withPermit(joinPoint.getSignature().toShortString(), joinPoint::proceed);
+    }
+
+    /**
+     * Bulk operations are collected on the returned object and sent by its {@code execute()},
+     * which the template proxy does not see; wrap it so the send takes a permit too.
+     */
+    @Around("execution(public org.springframework.data.mongodb.core.BulkOperations org.springframework.data.mongodb.core.MongoTemplate.bulkOps(..))")
+    public Object limitBulk(ProceedingJoinPoint joinPoint) throws Throwable {
+        ProxyFactory proxyFactory = new ProxyFactory(joinPoint.proceed());
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> "execute".equals(invocation.getMethod().getName())
+                ? withPermit("BulkOperations.execute()", invocation::proceed)
+                : invocation.proceed());
+        return proxyFactory.getProxy();
+    }
+
+    private Object withPermit(String call, Invocation invocation) throws Throwable {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Request interrupted while waiting for the database");
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Mongo bulkhead full, rejecting {}", call);
+            throw new ServiceUnavailableException("Too many concurrent database requests. Please retry shortly.");
+        }
+
+        try {
+            return invocation.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object proceed() throws Throwable;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.mongo.bulkhead.in.flight", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Mongo calls holding a bulkhead permit")
+                .register(registry);
+        Gauge.builder("app.mongo.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Mongo calls waiting for a bulkhead permit")
+                .register(registry);
+        FunctionCounter.builder("app.mongo.bulkhead.rejected", rejected, LongAdder::sum)
+                .description("Mongo calls rejected with 503 after max-wait")
+                .register(registry);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(maxConcurrent, maxConcurrent - permits.availablePermits(), permits.getQueueLength(), rejected.sum());
+    }
+
+    public record Snapshot(int maxConcurrent, int inFlight, int waiting, long rejected) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the MongoClient built in {@link MongoConfig} ({@code app.mongo.client.*}).
+ * Values set here win over the same options given in the connection string.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.mongo.client")
+public class MongoClientProperties {
+
+    private String uri = "mongodb://localhost:27017/i11LabsAssignmentDB";
+
+    // used when the uri names no database
+    private String database = "i11LabsAssignmentDB";
+
+    private String applicationName;
+
+    // in order of preference; the server picks the first one it also supports
+    private List<String> compressors = new ArrayList<>();
+
+    private Pool pool = new Pool();
+
+    private SearchReads searchReads = new SearchReads();
+
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    private Duration readTimeout = Duration.ZERO;
+
+    private Duration serverSelectionTimeout = Duration.ofSeconds(30);
+
+    @Data
+    public static class Pool {
+
+        private int maxSize = 100;
+
+        private int minSize = 0;
+
+        // how long a request waits for a free connection before failing
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+
+        private int maxConnecting = 2;
+
+        private Duration maxConnectionIdleTime = Duration.ZERO;
+
+        private Duration maxConnectionLifeTime = Duration.ZERO;
+    }
+
+    /**
+     * Read preference for search, export and count queries. Everything else reads the primary.
+     */
+    @Data
+    public static class SearchReads {
+
+        private boolean enabled = false;
+
+        private String readPreference = "secondaryPreferred";
+
+        // how far behind the primary a secondary may be and still serve searches; at least 90s
+        private Duration maxStaleness = Duration.ofSeconds(90);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many documents each Mongo command returned or wrote, per collection and command
+ * ({@code mongodb.driver.commands.documents}). Command latency per collection and command
+ * comes from Micrometer's {@code mongodb.driver.commands} timer; together they show whether
+ * a slow find is slow because it returns a lot.
+ */
+@Component
+public class MongoCommandMetrics implements CommandListener {
+
+    // commands whose first key names the collection they run against
+    private static final Set<String> COLLECTION_COMMANDS = Set.of(
+            "aggregate", "count", "countDocuments", "delete", "distinct", "find", "findAndModify",
+            "insert", "update", "createIndexes", "listIndexes");
+
+    private final MeterRegistry registry;
+
+    // the succeeded event carries no command, so the collection is remembered per request id
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    // one summary per command and collection, registered once instead of on every command
+    private final Map<MeterKey, DistributionSummary> documentSummaries = new ConcurrentHashMap<>();
+
+    public MongoCommandMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String collection = collection(event.getCommandName(), event.getCommand());
+        if (collection != null) {
+            collections.put(event.getRequestId(), collection);
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        if (collection == null) {
+            return;
+        }
+
+        long documents = documents(event.getResponse());
+        if (documents < 0) {
+            return;
+        }
+
+        documentSummaries.computeIfAbsent(new MeterKey(event.getCommandName(), collection), this::documentSummary)
+                .record(documents);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        collections.remove(event.getRequestId());
+    }
+
+    private DistributionSummary documentSummary(MeterKey key) {
+        return DistributionSummary.builder("mongodb.driver.commands.documents")
+                .description("Documents returned or written by a Mongo command")
+                .baseUnit("documents")
+                .tag("command", key.command())
+                .tag("collection", key.collection())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String collection(String commandName, BsonDocument command) {
+        if (COLLECTION_COMMANDS.contains(commandName)) {
+            BsonValue value = command.get(commandName);
+            return value != null && value.isString() ? value.asString().getValue() : null;
+        }
+        if ("getMore".equals(commandName)) {
+            BsonValue value = command.get("collection");
+            return value != null && value.isString() ? value.asString().getValue() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Batch size for cursor replies, {@code n} for writes and counts; -1 when the reply says neither.
+     */
+    private static long documents(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            BsonArray batch = cursor.containsKey("firstBatch")
+                    ? cursor.getArray("firstBatch")
+                    : cursor.getArray("nextBatch", null);
+            return batch == null ? -1 : batch.size();
+        }
+
+        BsonDocument lastError = response.getDocument("lastErrorObject", null);
+        if (lastError != null) {
+            // findAndModify
+            return lastError.getNumber("n", null) == null ? -1 : lastError.getNumber("n").longValue();
+        }
+
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : -1;
+    }
+
+    private record MeterKey(String command, String collection) {
+    }
+}
@@ -1,14 +1,113 @@
 package com.example.config;
+import com.example.codec.CompanyCodec;
+import com.example.codec.DriverCodec;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
 public class MongoConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(MongoConfig.class);
+
+    @Bean
+    public MongoClient mongoClient(MongoClientProperties properties,
+                                   ObjectProvider<ConnectionPoolListener> poolListeners,
+                                   ObjectProvider<CommandListener> commandListeners) {
+        return MongoClients.create(clientSettings(properties, poolListeners.orderedStream().toList(),
+                commandListeners.orderedStream().toList()));
+    }
+
     @Bean
-    public MongoTemplate mongoTemplate() {
-        return new MongoTemplate(MongoClients.create("mongodb://localhost:27017"), "i11LabsAssignmentDB");
+    public MongoTemplate mongoTemplate(MongoClient mongoClient, MongoClientProperties properties) {
+        String database = new ConnectionString(properties.getUri()).getDatabase();
+        return new MongoTemplate(mongoClient, database != null ? database : properties.getDatabase());
+    }
+
+    /**
+     * Client settings shared by the blocking and the reactive client. The listeners are the
+     * pool and command listener beans: {@link MongoPoolStats}, {@link MongoCommandMetrics} and
+     * Micrometer's pool and command timers, which Boot would otherwise only attach to a
+     * client it builds itself.
+     */
+    static MongoClientSettings clientSettings(MongoClientProperties properties,
+                                              List<ConnectionPoolListener> poolListeners,
+                                              List<CommandListener> commandListeners) {
+        MongoClientProperties.Pool pool = properties.getPool();
+
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(properties.getUri()))
+                .applyToConnectionPoolSettings(settings -> settings
+                        .maxSize(pool.getMaxSize())
+                        .minSize(pool.getMinSize())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnecting(pool.getMaxConnecting())
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .connectionPoolListenerList(poolListeners))
+                .commandListenerList(commandListeners)
+                .applyToSocketSettings(settings -> settings
+                        .connectTimeout((int) properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(settings -> settings
+                        .serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                // entity codecs for the direct read path (app.mongo.codecs.enabled); Documents still use the defaults
+                .codecRegistry(CodecRegistries.fromRegistries(
+                        CodecRegistries.fromCodecs(new CompanyCodec(), new DriverCodec()),
+                        MongoClientSettings.getDefaultCodecRegistry()));
+
+        if (properties.getApplicationName() != null) {
+            builder.applicationName(properties.getApplicationName());
+        }
+
+        if (!properties.getCompressors().isEmpty()) {
+            builder.compressorList(compressors(properties.getCompressors()));
+        }
+
+        MongoClientSettings settings = builder.build();
+
+        log.info("Mongo client configured | pool maxSize={}, minSize={}, maxWaitTime={} | connectTimeout={}, readTimeout={}, serverSelectionTimeout={} | compressors={}",
+                pool.getMaxSize(), pool.getMinSize(), pool.getMaxWaitTime(),
+                properties.getConnectTimeout(), properties.getReadTimeout(), properties.getServerSelectionTimeout(),
+                properties.getCompressors());
+
+        return settings;
+    }
+
+    private static List<MongoCompressor> compressors(List<String> names) {
+        return names.stream()
+                .map(name -> switch (name.trim().toLowerCase(Locale.ROOT)) {
+                    case "zstd" -> requireLibrary(MongoCompressor.createZstdCompressor(), "com.github.luben.zstd.Zstd", "zstd-jni");
+                    case "snappy" -> requireLibrary(MongoCompressor.createSnappyCompressor(), "org.xerial.snappy.Snappy", "snappy-java");
+                    case "zlib" -> MongoCompressor.createZlibCompressor();
+                    default -> throw new IllegalArgumentException("Unknown Mongo compressor '" + name + "'. Allowed values are zstd, snappy, zlib");
+                })
+                .toList();
+    }
+
+    // the driver only loads the codec library when the server agrees on the compressor, so fail at startup instead
+    private static MongoCompressor requireLibrary(MongoCompressor compressor, String className, String artifact) {
+        if (!ClassUtils.isPresent(className, MongoConfig.class.getClassLoader())) {
+            throw new IllegalStateException("Mongo compressor " + compressor.getName() + " needs " + artifact + " on the classpath");
+        }
+        return compressor;
     }
 }
@@ -0,0 +1,233 @@
+package com.example.config;
+
+import com.example.model.Company;
+import com.example.model.Driver;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single place where the indexes behind the repository query shapes are declared.
+ * Creates them idempotently at startup and reports drift between what is declared
+ * and what exists in the database.
+ * <p>
+ * Creates rely on the unique indexes instead of an existence check, so those are also
+ * verified: until an entity's unique indexes are confirmed to exist as declared, the
+ * repositories keep checking for duplicates first and {@link UniqueIndexHealthIndicator}
+ * reports DOWN.
+ */
+@Component
+public class MongoIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexManager.class);
+
+    private static final PartialIndexFilter ACTIVE_ONLY = PartialIndexFilter.of(Criteria.where("isActive").is(true));
+
+    private final Map<Class<?>, List<Index>> declaredIndexes = new LinkedHashMap<>();
+
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.mongo.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    /** entities whose declared unique indexes were found in the database */
+    private final Set<Class<?>> confirmedUniqueIndexes = ConcurrentHashMap.newKeySet();
+
+    public MongoIndexManager() {
+        declaredIndexes.put(Company.class, List.of(
+                // unfiltered search sorted by modifiedOn, and the cursor seek on (modifiedOn, _id)
+                activeIndex("active_modifiedOn_id").on("modifiedOn", Sort.Direction.DESC).on("_id", Sort.Direction.DESC),
+                // key searches
+                activeIndex("active_companyNameKey_modifiedOn").on("companyNameKey", Sort.Direction.ASC).on("modifiedOn", Sort.Direction.DESC),
+                activeIndex("active_registrationNumberKey_modifiedOn").on("registrationNumberKey", Sort.Direction.ASC).on("modifiedOn", Sort.Direction.DESC),
+                // one active company per registration number; creates rely on it instead of a pre-check
+                activeIndex("uk_active_registrationNumber").on("registrationNumber", Sort.Direction.ASC).unique()
+        ));
+
+        declaredIndexes.put(Driver.class, List.of(
+                // unfiltered search sorted by createdOn, and the cursor seek on (createdOn, _id)
+                activeIndex("active_createdOn_id").on("createdOn", Sort.Direction.ASC).on("_id", Sort.Direction.ASC),
+                // key searches
+                activeIndex("active_firstNameKey_createdOn").on("firstNameKey", Sort.Direction.ASC).on("createdOn", Sort.Direction.ASC),
+                activeIndex("active_lastNameKey_createdOn").on("lastNameKey", Sort.Direction.ASC).on("createdOn", Sort.Direction.ASC),
+                activeIndex("active_licenseNumberKey_createdOn").on("licenseNumberKey", Sort.Direction.ASC).on("createdOn", Sort.Direction.ASC),
+                // one active driver per license number; creates rely on it instead of a pre-check
+                activeIndex("uk_active_licenseNumber").on("licenseNumber", Sort.Direction.ASC).unique()
+        ));
+    }
+
+    @Autowired
+    public void setMongoTemplate(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!createOnStartup) {
+            log.info("Index creation on startup is disabled; unique indexes are verified by the health check");
+            return;
+        }
+
+        try {
+            createIndexes();
+
+            for (IndexDrift drift : checkDrift()) {
+                if (drift.hasDrift()) {
+                    log.warn("Index drift on collection {} | missing={} | unexpected={} | mismatched={}",
+                            drift.collection(), drift.missing(), drift.unexpected(), drift.mismatched());
+                }
+            }
+
+            List<String> unconfirmed = verifyUniqueIndexes();
+            if (!unconfirmed.isEmpty()) {
+                // e.g. the build failed on existing duplicates; creates keep checking for duplicates first
+                log.error("Unique indexes missing or not as declared: {}. Duplicates are checked before every "
+                        + "create until they exist, and the uniqueIndexes health check is DOWN", unconfirmed);
+            }
+        } catch (Exception ex) {
+            log.error("Index provisioning failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Whether the unique indexes declared for {@code type} were confirmed by the last
+     * {@link #verifyUniqueIndexes()}. Does not touch the database.
+     */
+    public boolean isUniqueIndexConfirmed(Class<?> type) {
+        return confirmedUniqueIndexes.contains(type);
+    }
+
+    /**
+     * Checks that every declared unique index exists with the declared keys and options, and
+     * records the result for {@link #isUniqueIndexConfirmed(Class)}. Returns the unique indexes
+     * that are missing or differ, as collection.name; empty when all are confirmed.
+     */
+    public List<String> verifyUniqueIndexes() {
+        List<String> unconfirmed = new ArrayList<>();
+
+        declaredIndexes.forEach((type, indexes) -> {
+            Map<String, IndexInfo> existing = new LinkedHashMap<>();
+            for (IndexInfo info : mongoTemplate.indexOps(type).getIndexInfo()) {
+                existing.put(info.getName(), info);
+            }
+
+            boolean confirmed = true;
+            for (Index index : indexes) {
+                if (!index.getIndexOptions().getBoolean("unique", false)) {
+                    continue;
+                }
+                String name = (String) index.getIndexOptions().get("name");
+                IndexInfo info = existing.get(name);
+                if (info == null || !matches(index, info)) {
+                    unconfirmed.add(mongoTemplate.getCollectionName(type) + "." + name);
+                    confirmed = false;
+                }
+            }
+
+            if (confirmed) {
+                confirmedUniqueIndexes.add(type);
+            } else {
+                confirmedUniqueIndexes.remove(type);
+            }
+        });
+
+        return unconfirmed;
+    }
+
+    public void createIndexes() {
+        declaredIndexes.forEach((type, indexes) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            for (Index index : indexes) {
+                String name = (String) index.getIndexOptions().get("name");
+                try {
+                    // no-op when an identical index already exists
+                    indexOps.createIndex(index);
+                    log.debug("Index {} ensured on {}", name, mongoTemplate.getCollectionName(type));
+                } catch (Exception ex) {
+                    // typically an existing index with the same name but different keys or options
+                    log.error("Could not create index {} on {}: {}", name, mongoTemplate.getCollectionName(type), ex.getMessage());
+                }
+            }
+        });
+    }
+
+    public List<IndexDrift> checkDrift() {
+        List<IndexDrift> report = new ArrayList<>();
+
+        declaredIndexes.forEach((type, indexes) -> {
+            Map<String, IndexInfo> existing = new LinkedHashMap<>();
+            for (IndexInfo info : mongoTemplate.indexOps(type).getIndexInfo()) {
+                existing.put(info.getName(), info);
+            }
+            existing.remove("_id_");
+
+            List<String> missing = new ArrayList<>();
+            List<String> mismatched = new ArrayList<>();
+
+            for (Index index : indexes) {
+                String name = (String) index.getIndexOptions().get("name");
+                IndexInfo info = existing.remove(name);
+
+                if (info == null) {
+                    missing.add(name);
+                } else if (!matches(index, info)) {
+                    mismatched.add(name);
+                }
+            }
+
+            report.add(new IndexDrift(mongoTemplate.getCollectionName(type), missing,
+                    new ArrayList<>(existing.keySet()), mismatched));
+        });
+
+        return report;
+    }
+
+    private boolean matches(Index declared, IndexInfo info) {
+        Document keys = new Document();
+        for (IndexField field : info.getIndexFields()) {
+            keys.append(field.getKey(), field.getDirection() == Sort.Direction.DESC ? -1 : 1);
+        }
+
+        Document options = declared.getIndexOptions();
+        Object declaredFilter = options.get("partialFilterExpression");
+        Document existingFilter = info.getPartialFilterExpression() == null
+                ? null
+                : Document.parse(info.getPartialFilterExpression());
+
+        return keys.equals(declared.getIndexKeys())
+                && Objects.equals(declaredFilter, existingFilter)
+                && options.getBoolean("unique", false) == info.isUnique();
+    }
+
+    private static Index activeIndex(String name) {
+        return new Index().named(name).partial(ACTIVE_ONLY);
+    }
+
+    public record IndexDrift(String collection, List<String> missing, List<String> unexpected, List<String> mismatched) {
+
+        public boolean hasDrift() {
+            return !missing.isEmpty() || !unexpected.isEmpty() || !mismatched.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClearedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool counters collected from driver events, summed over all servers.
+ * Check-out wait time is the time a request spent waiting for a pooled connection, so a
+ * growing wait or timeout count means the pool is too small for the load.
+ */
+@Component
+public class MongoPoolStats implements ConnectionPoolListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoPoolStats.class);
+
+    private final AtomicLong open = new AtomicLong();
+    private final AtomicLong checkedOut = new AtomicLong();
+    private final AtomicLong waiting = new AtomicLong();
+
+    private final LongAdder checkOuts = new LongAdder();
+    private final LongAdder checkOutTimeouts = new LongAdder();
+    private final LongAdder checkOutFailures = new LongAdder();
+    private final LongAdder poolClears = new LongAdder();
+
+    private final LongAdder totalWaitMicros = new LongAdder();
+    private final LongAccumulator maxWaitMicros = new LongAccumulator(Long::max, 0);
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        open.incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        open.decrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        checkedOut.incrementAndGet();
+        checkOuts.increment();
+        recordWait(event.getElapsedTime(TimeUnit.MICROSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        recordWait(event.getElapsedTime(TimeUnit.MICROSECONDS));
+
+        if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+            checkOutTimeouts.increment();
+            log.warn("Timed out waiting for a Mongo connection from the pool of {}", event.getServerId().getAddress());
+        } else {
+            checkOutFailures.increment();
+        }
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        checkedOut.decrementAndGet();
+    }
+
+    @Override
+    public void connectionPoolCleared(ConnectionPoolClearedEvent event) {
+        poolClears.increment();
+    }
+
+    private void recordWait(long micros) {
+        totalWaitMicros.add(micros);
+        maxWaitMicros.accumulate(micros);
+    }
+
+    public Snapshot snapshot() {
+        long count = checkOuts.sum() + checkOutTimeouts.sum() + checkOutFailures.sum();
+        long totalWait = totalWaitMicros.sum();
+
+        return new Snapshot(
+                open.get(),
+                checkedOut.get(),
+                waiting.get(),
+                checkOuts.sum(),
+                checkOutTimeouts.sum(),
+                checkOutFailures.sum(),
+                poolClears.sum(),
+                count == 0 ? 0 : totalWait / count / 1000.0,
+                maxWaitMicros.get() / 1000.0);
+    }
+
+    public record Snapshot(
+            long open,
+            long checkedOut,
+            long waiting,
+            long checkOuts,
+            long checkOutTimeouts,
+            long checkOutFailures,
+            long poolClears,
+            double averageWaitMillis,
+            double maxWaitMillis) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+/**
+ * Reactive Streams client for the WebFlux variant ({@code spring.main.web-application-type=reactive}).
+ * It is built from the same {@code app.mongo.client.*} settings as the blocking client, which
+ * stays in place for index provisioning, migrations and the stats endpoints. Both clients
+ * report into the same pool and command listeners.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMongoConfig {
+
+    @Bean
+    public MongoClient reactiveMongoClient(MongoClientProperties properties,
+                                           ObjectProvider<ConnectionPoolListener> poolListeners,
+                                           ObjectProvider<CommandListener> commandListeners) {
+        return MongoClients.create(MongoConfig.clientSettings(properties, poolListeners.orderedStream().toList(),
+                commandListeners.orderedStream().toList()));
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoClientProperties properties,
+                                                       MongoTemplate mongoTemplate) {
+        String database = new ConnectionString(properties.getUri()).getDatabase();
+        SimpleReactiveMongoDatabaseFactory factory = new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient,
+                database != null ? database : properties.getDatabase());
+
+        // share the mapping metadata and conversions of the blocking template
+        return new ReactiveMongoTemplate(factory, mongoTemplate.getConverter());
+    }
+}
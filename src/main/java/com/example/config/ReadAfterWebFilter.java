@@ -0,0 +1,27 @@
+package com.example.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Carries a reactive request's {@value ReadRouting#READ_AFTER_HEADER} into the Reactor
+ * context, where {@link ReadRouting} looks for it. Servlet requests need no filter; the
+ * header is read from the current request.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReadAfterWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String readAfter = exchange.getRequest().getHeaders().getFirst(ReadRouting.READ_AFTER_HEADER);
+        if (readAfter == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).contextWrite(context -> context.put(ReadRouting.READ_AFTER, readAfter));
+    }
+}
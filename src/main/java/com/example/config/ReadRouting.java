@@ -0,0 +1,122 @@
+package com.example.config;
+
+import com.example.exception.BadRequestException;
+import com.mongodb.ReadPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides where reads go. Search, export and count queries are tagged with the configured
+ * secondary read preference ({@code app.mongo.client.search-reads.*}); lookups that back an
+ * update or delete, duplicate checks and writes are left on the primary.
+ *
+ * A client that needs a search to see its own write sends the write's modifiedOn (or the
+ * Last-Modified it returned) as {@value #READ_AFTER_HEADER}. While that write is recent
+ * enough for a secondary within maxStaleness to have missed it, the request's searches read
+ * the primary. Servlet requests are read through {@link RequestContextHolder}; reactive ones
+ * carry the header in the Reactor context under {@link #READ_AFTER}.
+ */
+@Component
+public class ReadRouting {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadRouting.class);
+
+    public static final String READ_AFTER_HEADER = "X-Read-After";
+
+    /** Reactor context key for the raw {@value #READ_AFTER_HEADER} value of a reactive request */
+    public static final String READ_AFTER = ReadRouting.class.getName() + ".readAfter";
+
+    // the driver's staleness estimate can be off by up to one heartbeat (10s by default)
+    private static final Duration STALENESS_ESTIMATE_ERROR = Duration.ofSeconds(10);
+
+    private ReadPreference searchReadPreference;
+
+    private Duration primaryWindow = Duration.ZERO;
+
+    @Autowired
+    public void setProperties(MongoClientProperties properties) {
+        MongoClientProperties.SearchReads searchReads = properties.getSearchReads();
+
+        if (searchReads.isEnabled()) {
+            ReadPreference readPreference = ReadPreference.valueOf(searchReads.getReadPreference());
+            if (readPreference.equals(ReadPreference.primary())) {
+                // maxStaleness is not allowed with primary, and there is nothing to route
+                log.info("Search reads use the primary");
+                return;
+            }
+            this.searchReadPreference = ReadPreference.valueOf(searchReads.getReadPreference(), List.of(),
+                    searchReads.getMaxStaleness().toMillis(), TimeUnit.MILLISECONDS);
+            this.primaryWindow = searchReads.getMaxStaleness().plus(STALENESS_ESTIMATE_ERROR);
+            log.info("Search reads routed with read preference {}", searchReadPreference);
+        }
+    }
+
+    /**
+     * Read preference for search, export and count queries of the current servlet request, or
+     * null to use the client default.
+     */
+    public ReadPreference searchReadPreference() {
+        return searchReadPreference(currentRequestReadAfter());
+    }
+
+    /**
+     * Read preference for search, export and count queries of a reactive request.
+     */
+    public ReadPreference searchReadPreference(ContextView context) {
+        return searchReadPreference(context.<String>getOrEmpty(READ_AFTER).orElse(null));
+    }
+
+    public Query forSearch(Query query) {
+        return withReadPreference(query, searchReadPreference());
+    }
+
+    public Query forSearch(Query query, ContextView context) {
+        return withReadPreference(query, searchReadPreference(context));
+    }
+
+    private ReadPreference searchReadPreference(String readAfter) {
+        if (searchReadPreference == null || readAfter == null) {
+            return searchReadPreference;
+        }
+        return parseReadAfter(readAfter).isAfter(Instant.now().minus(primaryWindow)) ? ReadPreference.primary() : searchReadPreference;
+    }
+
+    private static Query withReadPreference(Query query, ReadPreference readPreference) {
+        return readPreference == null ? query : query.withReadPreference(readPreference);
+    }
+
+    private static String currentRequestReadAfter() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getHeader(READ_AFTER_HEADER) : null;
+    }
+
+    /**
+     * An ISO-8601 instant (modifiedOn) or an HTTP date (Last-Modified).
+     */
+    static Instant parseReadAfter(String value) {
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            try {
+                return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            } catch (DateTimeParseException httpDate) {
+                throw new BadRequestException("Invalid " + READ_AFTER_HEADER + ". Expected an ISO-8601 instant or an HTTP date");
+            }
+        }
+    }
+}
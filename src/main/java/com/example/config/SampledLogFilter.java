@@ -0,0 +1,59 @@
+package com.example.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps only a fraction ({@code app.logging.sample-rate}) of the
+ * events marked {@link #SAMPLED}, the routine per-request success lines. On the servlet stack
+ * the decision is made once per request, so a kept request keeps all of its lines; elsewhere
+ * (reactive handlers, background threads) each event is sampled on its own. Unmarked events
+ * and anything at WARN or above always pass.
+ *
+ * Registered in logback-spring.xml; the default rate of 1.0 keeps everything.
+ */
+public class SampledLogFilter extends TurboFilter {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private static final String KEEP_ATTRIBUTE = SampledLogFilter.class.getName() + ".KEEP";
+
+    private double rate = 1.0;
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || rate >= 1.0 || !marker.contains(SAMPLED)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level != null && level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return keep() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean keep() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return ThreadLocalRandom.current().nextDouble() < rate;
+        }
+
+        Boolean keep = (Boolean) request.getAttribute(KEEP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (keep == null) {
+            keep = ThreadLocalRandom.current().nextDouble() < rate;
+            request.setAttribute(KEEP_ATTRIBUTE, keep, RequestAttributes.SCOPE_REQUEST);
+        }
+        return keep;
+    }
+}
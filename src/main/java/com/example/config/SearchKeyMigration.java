@@ -0,0 +1,49 @@
+package com.example.config;
+
+import com.example.repository.CompanyRepository;
+import com.example.repository.DriverRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the normalized search keys on documents written before they existed.
+ * The indexes on the keys are declared in {@link MongoIndexManager}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mongo.search-keys.migrate-on-startup", havingValue = "true", matchIfMissing = true)
+public class SearchKeyMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchKeyMigration.class);
+
+    private CompanyRepository companyRepository;
+
+    private DriverRepository driverRepository;
+
+    @Autowired
+    public void setCompanyRepository(CompanyRepository companyRepository) {
+        this.companyRepository = companyRepository;
+    }
+
+    @Autowired
+    public void setDriverRepository(DriverRepository driverRepository) {
+        this.driverRepository = driverRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            long companies = companyRepository.backfillSearchKeys();
+            long drivers = driverRepository.backfillSearchKeys();
+
+            log.info("Search key migration completed. companies={}, drivers={}", companies, drivers);
+        } catch (Exception ex) {
+            // searches on documents without keys will miss until the migration succeeds
+            log.error("Search key migration failed: {}", ex.getMessage(), ex);
+        }
+    }
+}
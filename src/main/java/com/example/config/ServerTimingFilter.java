@@ -0,0 +1,132 @@
+package com.example.config;
+
+import com.example.utils.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Times each request with {@link RequestTimings} and returns the spans in a
+ * {@code Server-Timing} header. Headers cannot change once the body starts, so the header
+ * covers the work done before the first byte (validation, queries, mapping); requests slower
+ * than {@code app.server-timing.log-threshold} are logged with the full time including the
+ * response write.
+ *
+ * Only registered with {@code app.server-timing.enabled=true}; otherwise the spans in the
+ * code are no-ops.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final long logThresholdNanos;
+
+    public ServerTimingFilter(@Value("${app.server-timing.log-threshold:0}") Duration logThreshold) {
+        this.logThresholdNanos = logThreshold.toNanos();
+
+        log.info("Server-Timing enabled. logThreshold={}", logThreshold);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RequestTimings timings = RequestTimings.begin();
+        TimingResponse timedResponse = new TimingResponse(response, timings);
+
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            RequestTimings.end();
+            // no body was written (e.g. an empty 200), so the header has not been added yet
+            timedResponse.addServerTiming();
+
+            long elapsed = timings.elapsedNanos();
+            if (logThresholdNanos > 0 && elapsed >= logThresholdNanos) {
+                log.warn("Slow request {} {} | status={} | total={}ms | {}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        elapsed / 1_000_000, timings.summary());
+            }
+        }
+    }
+
+    /**
+     * Adds the Server-Timing header just before the response commits.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+
+        private boolean added;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                added = true;
+                setHeader(SERVER_TIMING, timings.toHeader());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.health.contributor.AbstractHealthIndicator;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * "uniqueIndexes" health: DOWN while a declared unique index (one active company per
+ * registration number, one active driver per license number) is missing or differs, for
+ * example because existing duplicates made its build fail. Verifies on every check, so
+ * creating the index later clears it without a restart and dropping one is noticed.
+ */
+@Component("uniqueIndexes")
+public class UniqueIndexHealthIndicator extends AbstractHealthIndicator {
+
+    private MongoIndexManager indexManager;
+
+    @Autowired
+    public void setIndexManager(MongoIndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        List<String> unconfirmed = indexManager.verifyUniqueIndexes();
+        if (unconfirmed.isEmpty()) {
+            builder.up();
+        } else {
+            builder.down().withDetail("unconfirmed", unconfirmed);
+        }
+    }
+}
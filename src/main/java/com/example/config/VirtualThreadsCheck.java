@@ -0,0 +1,40 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether {@code spring.threads.virtual.enabled=true} took effect. Boot only switches
+ * the web server and task executors to virtual threads on a Java 21+ runtime and silently keeps
+ * platform threads otherwise, so without this a load test can be labelled with a mode it never ran.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+
+    private Environment environment;
+
+    @Autowired
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Requests are served on virtual threads");
+        } else {
+            log.warn("spring.threads.virtual.enabled=true is ignored on Java {}: requests are served on platform threads."
+                    + " Virtual threads need a Java 21+ runtime", Runtime.version().feature());
+        }
+    }
+}
@@ -1,29 +1,62 @@
 package com.example.controller;
 
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkCreateResponse;
+import com.example.dto.BulkItemResult;
+import com.example.dto.CompanyCursorResponse;
+import com.example.dto.CompanySearchResponse;
+import com.example.dto.CursorPage;
+import com.example.dto.EntityResponse;
+import com.example.dto.ImportSummary;
+import com.example.dto.SearchPage;
+import com.example.exception.ConflictException;
+import com.example.exception.PreconditionFailedException;
 import com.example.service.CompanyService;
+import com.example.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.model.Company;
+import com.example.utils.EntityTags;
+import com.example.utils.NdjsonWriter;
+import com.example.utils.RequestTimings;
+import com.example.utils.i11Utils;
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/companies")
 @CrossOrigin
 public class CompanyController {
 
     private static final Logger log = LoggerFactory.getLogger(CompanyController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private CompanyService companyService;
 
+    private ImportService importService;
+
     private ObjectMapper objectMapper;
 
     @Autowired
@@ -36,11 +69,17 @@ public class CompanyController {
         this.companyService = companyService;
     }
 
+    @Autowired
+    public void setImportService(ImportService importService) {
+        this.importService = importService;
+    }
+
     // Data Entry Screen
     @PostMapping("/create-company")
     public ResponseEntity<ObjectNode> createCompany(@RequestBody Company company) {
 
-        log.info("Create Company API called with companyName={}", company.getCompanyName());
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Create Company API called")
+                .addKeyValue("companyName", company.getCompanyName()).log();
 
         Company saved = companyService.createCompany(company);
 
@@ -49,84 +88,230 @@ public class CompanyController {
         response.put("id", saved.getId());
         response.put("companyName", saved.getCompanyName());
 
-        log.info("Company created successfully with id={}", saved.getId());
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company created successfully")
+                .addKeyValue("id", saved.getId()).log();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Bulk Data Entry
+    @PostMapping("/create-companies")
+    public ResponseEntity<BulkCreateResponse> createCompanies(@RequestBody List<Company> companies) {
+
+        log.atInfo().setMessage("Bulk Create Companies API called").addKeyValue("companies", companies.size()).log();
+
+        List<BulkItemResult> results = companyService.createCompanies(companies);
+
+        BulkCreateResponse response = BulkCreateResponse.of("Bulk company creation completed", results);
+
+        log.atInfo().setMessage("Bulk company creation completed")
+                .addKeyValue("created", response.created()).addKeyValue("failed", response.failed()).log();
+
+        return ResponseEntity.ok(response);
+    }
+
     // Update Company
     @PutMapping("/update-company/{id}")
-    public ResponseEntity<ObjectNode> updateCompany(@PathVariable String id, @RequestBody Company company) {
-
-        log.info("Request received to update company with id: {}", id);
+    public ResponseEntity<EntityResponse<Company>> updateCompany(@PathVariable String id, @RequestBody Company company,
+                                                    @RequestParam(required = false) String expectedModifiedOn,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Company updated = companyService.updateCompany(id, company);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to update company")
+                .addKeyValue("id", id).log();
 
-        log.info("Company updated successfully with id: {}", id);
+        Company updated;
+        try {
+            updated = companyService.updateCompany(id, company, expectedVersion(id, ifMatch, expectedModifiedOn));
+        } catch (ConflictException ex) {
+            throw ifMatch == null ? ex : staleIfMatch();
+        }
 
-        ObjectNode node = objectMapper.valueToTree(updated);
-        node.put("message", "Company updated successfully");
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company updated successfully").addKeyValue("id", id).log();
 
-        return ResponseEntity.ok(node);
+        return EntityTags.ok(id, updated.getModifiedOn(), null).body(EntityResponse.withMessage(updated, "Company updated successfully"));
     }
 
     //Get Company by ID
     @GetMapping("/get-company/{id}")
-    public ResponseEntity<ObjectNode> getCompanyById(@PathVariable String id) {
+    public ResponseEntity<?> getCompanyById(@PathVariable String id,
+                                            @RequestParam(required = false) String fields,
+                                            WebRequest request) {
 
-        log.info("Get Company API called with id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Get Company API called")
+                .addKeyValue("id", id).addKeyValue("fields", fields).log();
 
-        Company company = companyService.getCompanyById(id);
+        Set<String> selected = CompanyService.FIELDS.parse(fields);
 
-        ObjectNode node = objectMapper.valueToTree(company);
-        node.put("status", "SUCCESS");
+        Company company = companyService.getCompanyById(id, selected);
 
-        log.info("Company fetched successfully for id={}", id);
+        // revalidation: compare the version just loaded, so a 304 and a 200 always describe the same copy,
+        // and skip mapping and serializing when the client's copy is current
+        Instant version = company.getModifiedOn();
+        if ((request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null)
+                && version != null && request.checkNotModified(EntityTags.of(id, version, selected), version.toEpochMilli())) {
+            return null;
+        }
 
-        return ResponseEntity.ok(node);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company fetched successfully").addKeyValue("id", id).log();
+
+        if (selected != null) {
+            Map<String, Object> response;
+            try (RequestTimings.Span span = RequestTimings.span("map")) {
+                response = CompanyService.FIELDS.apply(company, selected);
+            }
+            response.put("status", "SUCCESS");
+            return EntityTags.ok(id, version, selected).body(response);
+        }
+
+        return EntityTags.ok(id, version, null).body(EntityResponse.withStatus(company, "SUCCESS"));
     }
 
     @GetMapping("/get-companies")
-    public ResponseEntity<ObjectNode> getCompanies(
+    public ResponseEntity<?> getCompanies(
             @RequestParam(required = false) String companyName,
             @RequestParam(required = false) String registrationNumber,
             @RequestParam(defaultValue = "0") Integer pageIndex,
-            @RequestParam(defaultValue = "10") Integer itemsPerPage) {
+            @RequestParam(defaultValue = "10") Integer itemsPerPage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String totalMode,
+            @RequestParam(defaultValue = "10000") Integer countLimit,
+            @RequestParam(required = false) String fields) {
 
-        log.info("Search Companies API called | companyName={}, registrationNumber={}, pageIndex={}, itemsPerPage={}",
-                companyName, registrationNumber, pageIndex, itemsPerPage);
+        Set<String> selected = CompanyService.FIELDS.parse(fields);
 
-        Page<Company> page = companyService.getAllCompanyBySearch(
-                companyName, registrationNumber, pageIndex, itemsPerPage);
+        // cursor mode: "cursor=" (empty) asks for the first page, later pages pass back nextCursor
+        if (cursor != null) {
+            return getCompaniesByCursor(companyName, registrationNumber, cursor, itemsPerPage, selected);
+        }
 
-        ArrayNode companiesArray = objectMapper.createArrayNode();
-        page.getContent().forEach(company ->
-                companiesArray.add(objectMapper.valueToTree(company))
-        );
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Search Companies API called")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("pageIndex", pageIndex).addKeyValue("itemsPerPage", itemsPerPage).log();
 
-        ObjectNode response = objectMapper.createObjectNode();
-        response.put("pageIndex", page.getNumber());
-        response.put("itemsPerPage", page.getSize());
-        response.put("totalRecords", page.getTotalElements());
-        response.set("companies", companiesArray);
+        SearchPage<Company> page = companyService.getAllCompanyBySearch(
+                companyName, registrationNumber, pageIndex, itemsPerPage, totalMode, countLimit, selected);
 
-        log.info("Search completed. Total records={}", page.getTotalElements());
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Search completed")
+                .addKeyValue("totalRecords", page.totalRecords()).addKeyValue("totalAccuracy", page.totalAccuracy()).log();
 
-        return ResponseEntity.ok(response);
+        if (selected != null) {
+            try (RequestTimings.Span span = RequestTimings.span("map")) {
+                return ResponseEntity.ok(CompanySearchResponse.from(page, CompanyService.FIELDS.apply(page.content(), selected)));
+            }
+        }
+
+        return ResponseEntity.ok(CompanySearchResponse.from(page));
+    }
+
+    private ResponseEntity<CompanyCursorResponse> getCompaniesByCursor(
+            String companyName, String registrationNumber, String cursor, Integer itemsPerPage, Set<String> selected) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Search Companies API called in cursor mode")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        CursorPage<Company> page = companyService.getCompaniesByCursor(
+                companyName, registrationNumber, cursor, itemsPerPage, selected);
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Cursor search completed")
+                .addKeyValue("records", page.content().size()).log();
+
+        if (selected != null) {
+            try (RequestTimings.Span span = RequestTimings.span("map")) {
+                return ResponseEntity.ok(CompanyCursorResponse.from(page, CompanyService.FIELDS.apply(page.content(), selected)));
+            }
+        }
+
+        return ResponseEntity.ok(CompanyCursorResponse.from(page));
+    }
+
+    // Export as newline-delimited JSON, streamed from a Mongo cursor
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportCompanies(
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String registrationNumber,
+            @RequestParam(required = false) String modifiedFrom,
+            @RequestParam(required = false) String modifiedTo) {
+
+        log.atInfo().setMessage("Export Companies API called")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("modifiedFrom", modifiedFrom).addKeyValue("modifiedTo", modifiedTo).log();
+
+        // opened here so bad parameters and connection errors still produce a normal error response
+        Stream<Company> companies = companyService.exportCompanies(companyName, registrationNumber,
+                i11Utils.parseInstant(modifiedFrom, "modifiedFrom"),
+                i11Utils.parseInstant(modifiedTo, "modifiedTo"));
+
+        StreamingResponseBody body = out -> {
+            long count = 0;
+            try (companies; NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                Iterator<Company> iterator = companies.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    count++;
+                }
+            }
+            log.atInfo().setMessage("Company export completed").addKeyValue("records", count).log();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    // Import from an NDJSON or CSV upload; reports one result line per record as batches complete
+    @PostMapping(value = "/import", consumes = {NDJSON, "text/csv"}, produces = NDJSON)
+    public void importCompanies(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        log.atInfo().setMessage("Import Companies API called").addKeyValue("contentType", request.getContentType()).log();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+
+        // read, write and report on the request thread so a slow database slows down reading the upload
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            ImportSummary summary = importService.importCompanies(request.getInputStream(), request.getContentType(), writer);
+            log.atInfo().setMessage("Company import completed")
+                    .addKeyValue("records", summary.records()).addKeyValue("created", summary.created())
+                    .addKeyValue("failed", summary.failed()).log();
+        }
     }
 
     @DeleteMapping("/delete-company/{id}")
-    public ResponseEntity<ObjectNode> deleteCompany(@PathVariable String id) {
+    public ResponseEntity<ObjectNode> deleteCompany(@PathVariable String id,
+                                                    @RequestParam(required = false) String expectedModifiedOn,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        log.info("Delete Company API called for id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Delete Company API called").addKeyValue("id", id).log();
 
-        companyService.deleteCompany(id);
+        try {
+            companyService.deleteCompany(id, expectedVersion(id, ifMatch, expectedModifiedOn));
+        } catch (ConflictException ex) {
+            throw ifMatch == null ? ex : staleIfMatch();
+        }
 
         ObjectNode response = objectMapper.createObjectNode();
         response.put("message", "Company deleted successfully");
 
-        log.info("Company soft-deleted successfully for id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company soft-deleted successfully")
+                .addKeyValue("id", id).log();
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * The version an update or delete is conditional on: the If-Match header when present
+     * (it takes precedence), otherwise the expectedModifiedOn parameter.
+     */
+    private Instant expectedVersion(String id, String ifMatch, String expectedModifiedOn) {
+        if (ifMatch != null) {
+            return EntityTags.requiredVersion(ifMatch, id, () -> companyService.getCompanyVersion(id));
+        }
+        return i11Utils.parseInstant(expectedModifiedOn, "expectedModifiedOn");
+    }
+
+    // a stale If-Match is a failed precondition (412) rather than the 409 of expectedModifiedOn
+    private static PreconditionFailedException staleIfMatch() {
+        return new PreconditionFailedException("Company has changed since the ETag in If-Match. Reload it and try again.");
+    }
+}
@@ -1,39 +1,74 @@
 package com.example.controller;
 
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkCreateResponse;
+import com.example.dto.BulkItemResult;
+import com.example.dto.CursorPage;
+import com.example.dto.DriverCursorResponse;
+import com.example.dto.DriverSearchResponse;
+import com.example.dto.EntityResponse;
+import com.example.dto.ImportSummary;
+import com.example.dto.SearchPage;
+import com.example.exception.ConflictException;
+import com.example.exception.PreconditionFailedException;
 import com.example.model.Driver;
 import com.example.service.DriverService;
+import com.example.service.ImportService;
+import com.example.utils.EntityTags;
+import com.example.utils.NdjsonWriter;
+import com.example.utils.RequestTimings;
+import com.example.utils.i11Utils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/drivers")
 @CrossOrigin
 public class DriverController {
 
     private static final Logger log = LoggerFactory.getLogger(DriverController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private DriverService driverService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ImportService importService;
+
 
     // CREATE DRIVER
     @PostMapping("/create-driver")
     public ResponseEntity<ObjectNode> createDriver(@RequestBody Driver driver) {
 
-        log.info("Request received to create driver. Email={}", driver.getEmail());
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to create driver")
+                .addKeyValue("email", driver.getEmail()).log();
 
         Driver saved = driverService.createDriver(driver);
 
-        log.info("Driver created successfully with id={}", saved.getId());
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver created successfully")
+                .addKeyValue("id", saved.getId()).log();
 
         ObjectNode response = objectMapper.createObjectNode();
         response.put("message", "Driver created successfully");
@@ -42,76 +77,222 @@ public class DriverController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
-    // UPDATE DRIVER
-    @PutMapping("/update-driver/{id}")
-    public ResponseEntity<ObjectNode> updateDriver(@PathVariable String id, @RequestBody Driver driver) {
+    // BULK CREATE DRIVERS
+    @PostMapping("/create-drivers")
+    public ResponseEntity<BulkCreateResponse> createDrivers(@RequestBody List<Driver> drivers) {
 
-        log.info("Request received to update driver with id={}", id);
+        log.atInfo().setMessage("Request received to bulk create drivers").addKeyValue("drivers", drivers.size()).log();
 
-        Driver updated = driverService.updateDriver(id, driver);
+        List<BulkItemResult> results = driverService.createDrivers(drivers);
 
-        log.info("Driver updated successfully with id={}", id);
+        BulkCreateResponse response = BulkCreateResponse.of("Bulk driver creation completed", results);
 
-        ObjectNode response = objectMapper.valueToTree(updated);
-        response.put("message", "Driver updated successfully");
+        log.atInfo().setMessage("Bulk driver creation completed")
+                .addKeyValue("created", response.created()).addKeyValue("failed", response.failed()).log();
 
         return ResponseEntity.ok(response);
     }
 
-    // GET BY ID
-    @GetMapping("/get-driver/{id}")
-    public ResponseEntity<ObjectNode> getDriverById(@PathVariable String id) {
+    // UPDATE DRIVER
+    @PutMapping("/update-driver/{id}")
+    public ResponseEntity<EntityResponse<Driver>> updateDriver(@PathVariable String id, @RequestBody Driver driver,
+                                                   @RequestParam(required = false) String expectedModifiedOn,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        log.info("Fetching driver details for id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to update driver")
+                .addKeyValue("id", id).log();
 
-        Driver driver = driverService.getDriverById(id);
+        Driver updated;
+        try {
+            updated = driverService.updateDriver(id, driver, expectedVersion(id, ifMatch, expectedModifiedOn));
+        } catch (ConflictException ex) {
+            throw ifMatch == null ? ex : staleIfMatch();
+        }
 
-        ObjectNode response = objectMapper.valueToTree(driver);
-        response.put("status", "SUCCESS");
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver updated successfully").addKeyValue("id", id).log();
 
-        return ResponseEntity.ok(response);
+        return EntityTags.ok(id, updated.getModifiedOn(), null).body(EntityResponse.withMessage(updated, "Driver updated successfully"));
+    }
+
+    // GET BY ID
+    @GetMapping("/get-driver/{id}")
+    public ResponseEntity<?> getDriverById(@PathVariable String id,
+                                           @RequestParam(required = false) String fields,
+                                           WebRequest request) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Fetching driver details")
+                .addKeyValue("id", id).addKeyValue("fields", fields).log();
+
+        Set<String> selected = DriverService.FIELDS.parse(fields);
+
+        Driver driver = driverService.getDriverById(id, selected);
+
+        // revalidation: compare the version just loaded, so a 304 and a 200 always describe the same copy,
+        // and skip mapping and serializing when the client's copy is current
+        Instant version = driver.getModifiedOn();
+        if ((request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null)
+                && version != null && request.checkNotModified(EntityTags.of(id, version, selected), version.toEpochMilli())) {
+            return null;
+        }
+
+        if (selected != null) {
+            Map<String, Object> response;
+            try (RequestTimings.Span span = RequestTimings.span("map")) {
+                response = DriverService.FIELDS.apply(driver, selected);
+            }
+            response.put("status", "SUCCESS");
+            return EntityTags.ok(id, version, selected).body(response);
+        }
+
+        return EntityTags.ok(id, version, null).body(EntityResponse.withStatus(driver, "SUCCESS"));
     }
 
     // SEARCH + PAGINATION
     @GetMapping("/get-drivers")
-    public ResponseEntity<ObjectNode> getDrivers(
+    public ResponseEntity<?> getDrivers(
             @RequestParam(required = false) String firstName,
             @RequestParam(required = false) String lastName,
             @RequestParam(required = false) String licenseNumber,
             @RequestParam(defaultValue = "0") Integer pageIndex,
-            @RequestParam(defaultValue = "10") Integer itemsPerPage) {
+            @RequestParam(defaultValue = "10") Integer itemsPerPage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String totalMode,
+            @RequestParam(defaultValue = "10000") Integer countLimit,
+            @RequestParam(required = false) String fields) {
+
+        Set<String> selected = DriverService.FIELDS.parse(fields);
+
+        // cursor mode: "cursor=" (empty) asks for the first page, later pages pass back nextCursor
+        if (cursor != null) {
+            return getDriversByCursor(firstName, lastName, licenseNumber, cursor, itemsPerPage, selected);
+        }
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Searching drivers")
+                .addKeyValue("firstName", firstName).addKeyValue("lastName", lastName)
+                .addKeyValue("licenseNumber", licenseNumber).addKeyValue("pageIndex", pageIndex)
+                .addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        SearchPage<Driver> page = driverService.searchDrivers(
+                firstName, lastName, licenseNumber, pageIndex, itemsPerPage, totalMode, countLimit, selected);
+
+        if (selected != null) {
+            try (RequestTimings.Span span = RequestTimings.span("map")) {
+                return ResponseEntity.ok(DriverSearchResponse.from(page, DriverService.FIELDS.apply(page.content(), selected)));
+            }
+        }
+
+        return ResponseEntity.ok(DriverSearchResponse.from(page));
+    }
 
-        log.info("Searching drivers. firstName={}, lastName={}, licenseNumber={}, pageIndex={}, itemsPerPage={}",
-                firstName, lastName, licenseNumber, pageIndex, itemsPerPage);
+    private ResponseEntity<DriverCursorResponse> getDriversByCursor(
+            String firstName, String lastName, String licenseNumber, String cursor, Integer itemsPerPage, Set<String> selected) {
 
-        Page<Driver> page = driverService.searchDrivers(
-                firstName, lastName, licenseNumber, pageIndex, itemsPerPage);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Searching drivers by cursor")
+                .addKeyValue("firstName", firstName).addKeyValue("lastName", lastName)
+                .addKeyValue("licenseNumber", licenseNumber).addKeyValue("itemsPerPage", itemsPerPage).log();
 
-        ArrayNode arrayNode = objectMapper.createArrayNode();
-        page.getContent().forEach(d -> arrayNode.add(objectMapper.valueToTree(d)));
+        CursorPage<Driver> page = driverService.searchDriversByCursor(
+                firstName, lastName, licenseNumber, cursor, itemsPerPage, selected);
 
-        ObjectNode response = objectMapper.createObjectNode();
-        response.put("pageIndex", page.getNumber());
-        response.put("itemsPerPage", page.getSize());
-        response.put("totalRecords", page.getTotalElements());
-        response.set("drivers", arrayNode);
+        if (selected != null) {
+            try (RequestTimings.Span span = RequestTimings.span("map")) {
+                return ResponseEntity.ok(DriverCursorResponse.from(page, DriverService.FIELDS.apply(page.content(), selected)));
+            }
+        }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(DriverCursorResponse.from(page));
+    }
+
+    // EXPORT AS NEWLINE-DELIMITED JSON, STREAMED FROM A MONGO CURSOR
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportDrivers(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String licenseNumber,
+            @RequestParam(required = false) String modifiedFrom,
+            @RequestParam(required = false) String modifiedTo) {
+
+        log.atInfo().setMessage("Exporting drivers")
+                .addKeyValue("firstName", firstName).addKeyValue("lastName", lastName)
+                .addKeyValue("licenseNumber", licenseNumber).addKeyValue("modifiedFrom", modifiedFrom)
+                .addKeyValue("modifiedTo", modifiedTo).log();
+
+        // opened here so bad parameters and connection errors still produce a normal error response
+        Stream<Driver> drivers = driverService.exportDrivers(firstName, lastName, licenseNumber,
+                i11Utils.parseInstant(modifiedFrom, "modifiedFrom"),
+                i11Utils.parseInstant(modifiedTo, "modifiedTo"));
+
+        StreamingResponseBody body = out -> {
+            long count = 0;
+            try (drivers; NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                Iterator<Driver> iterator = drivers.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    count++;
+                }
+            }
+            log.atInfo().setMessage("Driver export completed").addKeyValue("records", count).log();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     // DELETE DRIVER
+    // Import from an NDJSON or CSV upload; reports one result line per record as batches complete
+    @PostMapping(value = "/import", consumes = {NDJSON, "text/csv"}, produces = NDJSON)
+    public void importDrivers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        log.atInfo().setMessage("Import Drivers API called").addKeyValue("contentType", request.getContentType()).log();
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+
+        // read, write and report on the request thread so a slow database slows down reading the upload
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            ImportSummary summary = importService.importDrivers(request.getInputStream(), request.getContentType(), writer);
+            log.atInfo().setMessage("Driver import completed")
+                    .addKeyValue("records", summary.records()).addKeyValue("created", summary.created())
+                    .addKeyValue("failed", summary.failed()).log();
+        }
+    }
+
     @DeleteMapping("/delete-driver/{id}")
-    public ResponseEntity<ObjectNode> deleteDriver(@PathVariable String id) {
+    public ResponseEntity<ObjectNode> deleteDriver(@PathVariable String id,
+                                                   @RequestParam(required = false) String expectedModifiedOn,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        log.info("Request received to delete driver with id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to delete driver")
+                .addKeyValue("id", id).log();
 
-        driverService.deleteDriver(id);
+        try {
+            driverService.deleteDriver(id, expectedVersion(id, ifMatch, expectedModifiedOn));
+        } catch (ConflictException ex) {
+            throw ifMatch == null ? ex : staleIfMatch();
+        }
 
-        log.info("Driver deleted successfully with id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver deleted successfully").addKeyValue("id", id).log();
 
         ObjectNode response = objectMapper.createObjectNode();
         response.put("message", "Driver deleted successfully");
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * The version an update or delete is conditional on: the If-Match header when present
+     * (it takes precedence), otherwise the expectedModifiedOn parameter.
+     */
+    private Instant expectedVersion(String id, String ifMatch, String expectedModifiedOn) {
+        if (ifMatch != null) {
+            return EntityTags.requiredVersion(ifMatch, id, () -> driverService.getDriverVersion(id));
+        }
+        return i11Utils.parseInstant(expectedModifiedOn, "expectedModifiedOn");
+    }
+
+    // a stale If-Match is a failed precondition (412) rather than the 409 of expectedModifiedOn
+    private static PreconditionFailedException staleIfMatch() {
+        return new PreconditionFailedException("Driver has changed since the ETag in If-Match. Reload it and try again.");
+    }
 }
@@ -0,0 +1,202 @@
+package com.example.controller;
+
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkCreateResponse;
+import com.example.dto.CompanyCursorResponse;
+import com.example.dto.CompanySearchResponse;
+import com.example.dto.EntityResponse;
+import com.example.model.Company;
+import com.example.service.CompanyService;
+import com.example.service.ReactiveCompanyService;
+import com.example.utils.i11Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * WebFlux variant of {@link CompanyController} with the same paths and response bodies.
+ * The NDJSON import stays on the servlet stack.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/companies")
+@CrossOrigin
+public class ReactiveCompanyController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCompanyController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private ReactiveCompanyService companyService;
+
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setCompanyService(ReactiveCompanyService companyService) {
+        this.companyService = companyService;
+    }
+
+    @PostMapping("/create-company")
+    public Mono<ResponseEntity<ObjectNode>> createCompany(@RequestBody Company company) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Create Company API called")
+                .addKeyValue("companyName", company.getCompanyName()).log();
+
+        return companyService.createCompany(company).map(saved -> {
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("message", "Company created successfully");
+            response.put("id", saved.getId());
+            response.put("companyName", saved.getCompanyName());
+
+            log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company created successfully")
+                    .addKeyValue("id", saved.getId()).log();
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    @PostMapping("/create-companies")
+    public Mono<BulkCreateResponse> createCompanies(@RequestBody List<Company> companies) {
+
+        log.atInfo().setMessage("Bulk Create Companies API called").addKeyValue("companies", companies.size()).log();
+
+        return companyService.createCompanies(companies)
+                .map(results -> BulkCreateResponse.of("Bulk company creation completed", results))
+                .doOnNext(response -> log.atInfo().setMessage("Bulk company creation completed")
+                        .addKeyValue("created", response.created()).addKeyValue("failed", response.failed()).log());
+    }
+
+    @PutMapping("/update-company/{id}")
+    public Mono<EntityResponse<Company>> updateCompany(@PathVariable String id, @RequestBody Company company,
+                                                       @RequestParam(required = false) String expectedModifiedOn) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to update company")
+                .addKeyValue("id", id).log();
+
+        return companyService.updateCompany(id, company, i11Utils.parseInstant(expectedModifiedOn, "expectedModifiedOn"))
+                .map(updated -> EntityResponse.withMessage(updated, "Company updated successfully"));
+    }
+
+    @GetMapping("/get-company/{id}")
+    public Mono<?> getCompanyById(@PathVariable String id,
+                                  @RequestParam(required = false) String fields) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Get Company API called")
+                .addKeyValue("id", id).addKeyValue("fields", fields).log();
+
+        Set<String> selected = CompanyService.FIELDS.parse(fields);
+
+        return companyService.getCompanyById(id, selected).map(company -> {
+            if (selected != null) {
+                Map<String, Object> response = CompanyService.FIELDS.apply(company, selected);
+                response.put("status", "SUCCESS");
+                return response;
+            }
+            return EntityResponse.withStatus(company, "SUCCESS");
+        });
+    }
+
+    @GetMapping("/get-companies")
+    public Mono<?> getCompanies(
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String registrationNumber,
+            @RequestParam(defaultValue = "0") Integer pageIndex,
+            @RequestParam(defaultValue = "10") Integer itemsPerPage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String totalMode,
+            @RequestParam(defaultValue = "10000") Integer countLimit,
+            @RequestParam(required = false) String fields) {
+
+        Set<String> selected = CompanyService.FIELDS.parse(fields);
+
+        // cursor mode: "cursor=" (empty) asks for the first page, later pages pass back nextCursor
+        if (cursor != null) {
+            log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Search Companies API called in cursor mode")
+                    .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                    .addKeyValue("itemsPerPage", itemsPerPage).log();
+
+            return companyService.getCompaniesByCursor(companyName, registrationNumber, cursor, itemsPerPage, selected)
+                    .map(page -> selected != null
+                            ? CompanyCursorResponse.from(page, CompanyService.FIELDS.apply(page.content(), selected))
+                            : CompanyCursorResponse.from(page));
+        }
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Search Companies API called")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("pageIndex", pageIndex).addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        return companyService.getAllCompanyBySearch(companyName, registrationNumber, pageIndex, itemsPerPage, totalMode, countLimit, selected)
+                .map(page -> selected != null
+                        ? CompanySearchResponse.from(page, CompanyService.FIELDS.apply(page.content(), selected))
+                        : CompanySearchResponse.from(page));
+    }
+
+    // Accept: application/x-ndjson streams the page one company per line, without a total
+    @GetMapping(value = "/get-companies", produces = NDJSON)
+    public Flux<?> streamCompanies(
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String registrationNumber,
+            @RequestParam(defaultValue = "0") Integer pageIndex,
+            @RequestParam(defaultValue = "10") Integer itemsPerPage,
+            @RequestParam(required = false) String fields) {
+
+        Set<String> selected = CompanyService.FIELDS.parse(fields);
+
+        Flux<Company> companies = companyService.streamCompanySearch(companyName, registrationNumber, pageIndex, itemsPerPage, selected);
+
+        return selected != null ? companies.map(company -> CompanyService.FIELDS.apply(company, selected)) : companies;
+    }
+
+    // Export as newline-delimited JSON; the cursor is read as fast as the client consumes it
+    @GetMapping(value = "/export", produces = NDJSON)
+    public Flux<Company> exportCompanies(
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String registrationNumber,
+            @RequestParam(required = false) String modifiedFrom,
+            @RequestParam(required = false) String modifiedTo) {
+
+        log.atInfo().setMessage("Export Companies API called")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("modifiedFrom", modifiedFrom).addKeyValue("modifiedTo", modifiedTo).log();
+
+        return companyService.exportCompanies(companyName, registrationNumber,
+                        i11Utils.parseInstant(modifiedFrom, "modifiedFrom"),
+                        i11Utils.parseInstant(modifiedTo, "modifiedTo"))
+                .doOnComplete(() -> log.info("Company export completed"));
+    }
+
+    @DeleteMapping("/delete-company/{id}")
+    public Mono<ObjectNode> deleteCompany(@PathVariable String id,
+                                          @RequestParam(required = false) String expectedModifiedOn) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Delete Company API called").addKeyValue("id", id).log();
+
+        return companyService.deleteCompany(id, i11Utils.parseInstant(expectedModifiedOn, "expectedModifiedOn"))
+                .then(Mono.fromSupplier(() -> {
+                    ObjectNode response = objectMapper.createObjectNode();
+                    response.put("message", "Company deleted successfully");
+
+                    log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company soft-deleted successfully")
+                            .addKeyValue("id", id).log();
+
+                    return response;
+                }));
+    }
+}
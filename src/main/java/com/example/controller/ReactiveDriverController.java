@@ -0,0 +1,213 @@
+package com.example.controller;
+
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkCreateResponse;
+import com.example.dto.DriverCursorResponse;
+import com.example.dto.DriverSearchResponse;
+import com.example.dto.EntityResponse;
+import com.example.model.Driver;
+import com.example.service.DriverService;
+import com.example.service.ReactiveDriverService;
+import com.example.utils.i11Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * WebFlux variant of {@link DriverController} with the same paths and response bodies.
+ * The NDJSON import stays on the servlet stack.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/drivers")
+@CrossOrigin
+public class ReactiveDriverController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDriverController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private ReactiveDriverService driverService;
+
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setDriverService(ReactiveDriverService driverService) {
+        this.driverService = driverService;
+    }
+
+    // CREATE DRIVER
+    @PostMapping("/create-driver")
+    public Mono<ResponseEntity<ObjectNode>> createDriver(@RequestBody Driver driver) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to create driver")
+                .addKeyValue("email", driver.getEmail()).log();
+
+        return driverService.createDriver(driver).map(saved -> {
+            log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver created successfully")
+                    .addKeyValue("id", saved.getId()).log();
+
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("message", "Driver created successfully");
+            response.put("driverId", saved.getId());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
+    }
+
+    // BULK CREATE DRIVERS
+    @PostMapping("/create-drivers")
+    public Mono<BulkCreateResponse> createDrivers(@RequestBody List<Driver> drivers) {
+
+        log.atInfo().setMessage("Request received to bulk create drivers").addKeyValue("drivers", drivers.size()).log();
+
+        return driverService.createDrivers(drivers)
+                .map(results -> BulkCreateResponse.of("Bulk driver creation completed", results))
+                .doOnNext(response -> log.atInfo().setMessage("Bulk driver creation completed")
+                        .addKeyValue("created", response.created()).addKeyValue("failed", response.failed()).log());
+    }
+
+    // UPDATE DRIVER
+    @PutMapping("/update-driver/{id}")
+    public Mono<EntityResponse<Driver>> updateDriver(@PathVariable String id, @RequestBody Driver driver,
+                                                     @RequestParam(required = false) String expectedModifiedOn) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to update driver")
+                .addKeyValue("id", id).log();
+
+        return driverService.updateDriver(id, driver, i11Utils.parseInstant(expectedModifiedOn, "expectedModifiedOn"))
+                .map(updated -> EntityResponse.withMessage(updated, "Driver updated successfully"));
+    }
+
+    // GET BY ID
+    @GetMapping("/get-driver/{id}")
+    public Mono<?> getDriverById(@PathVariable String id,
+                                 @RequestParam(required = false) String fields) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Fetching driver details")
+                .addKeyValue("id", id).addKeyValue("fields", fields).log();
+
+        Set<String> selected = DriverService.FIELDS.parse(fields);
+
+        return driverService.getDriverById(id, selected).map(driver -> {
+            if (selected != null) {
+                Map<String, Object> response = DriverService.FIELDS.apply(driver, selected);
+                response.put("status", "SUCCESS");
+                return response;
+            }
+            return EntityResponse.withStatus(driver, "SUCCESS");
+        });
+    }
+
+    // SEARCH + PAGINATION
+    @GetMapping("/get-drivers")
+    public Mono<?> getDrivers(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String licenseNumber,
+            @RequestParam(defaultValue = "0") Integer pageIndex,
+            @RequestParam(defaultValue = "10") Integer itemsPerPage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String totalMode,
+            @RequestParam(defaultValue = "10000") Integer countLimit,
+            @RequestParam(required = false) String fields) {
+
+        Set<String> selected = DriverService.FIELDS.parse(fields);
+
+        // cursor mode: "cursor=" (empty) asks for the first page, later pages pass back nextCursor
+        if (cursor != null) {
+            log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Searching drivers by cursor")
+                    .addKeyValue("firstName", firstName).addKeyValue("lastName", lastName)
+                    .addKeyValue("licenseNumber", licenseNumber).addKeyValue("itemsPerPage", itemsPerPage).log();
+
+            return driverService.searchDriversByCursor(firstName, lastName, licenseNumber, cursor, itemsPerPage, selected)
+                    .map(page -> selected != null
+                            ? DriverCursorResponse.from(page, DriverService.FIELDS.apply(page.content(), selected))
+                            : DriverCursorResponse.from(page));
+        }
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Searching drivers")
+                .addKeyValue("firstName", firstName).addKeyValue("lastName", lastName)
+                .addKeyValue("licenseNumber", licenseNumber).addKeyValue("pageIndex", pageIndex)
+                .addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        return driverService.searchDrivers(firstName, lastName, licenseNumber, pageIndex, itemsPerPage, totalMode, countLimit, selected)
+                .map(page -> selected != null
+                        ? DriverSearchResponse.from(page, DriverService.FIELDS.apply(page.content(), selected))
+                        : DriverSearchResponse.from(page));
+    }
+
+    // Accept: application/x-ndjson streams the page one driver per line, without a total
+    @GetMapping(value = "/get-drivers", produces = NDJSON)
+    public Flux<?> streamDrivers(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String licenseNumber,
+            @RequestParam(defaultValue = "0") Integer pageIndex,
+            @RequestParam(defaultValue = "10") Integer itemsPerPage,
+            @RequestParam(required = false) String fields) {
+
+        Set<String> selected = DriverService.FIELDS.parse(fields);
+
+        Flux<Driver> drivers = driverService.streamDriverSearch(firstName, lastName, licenseNumber, pageIndex, itemsPerPage, selected);
+
+        return selected != null ? drivers.map(driver -> DriverService.FIELDS.apply(driver, selected)) : drivers;
+    }
+
+    // EXPORT AS NEWLINE-DELIMITED JSON; THE CURSOR IS READ AS FAST AS THE CLIENT CONSUMES IT
+    @GetMapping(value = "/export", produces = NDJSON)
+    public Flux<Driver> exportDrivers(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String licenseNumber,
+            @RequestParam(required = false) String modifiedFrom,
+            @RequestParam(required = false) String modifiedTo) {
+
+        log.atInfo().setMessage("Exporting drivers")
+                .addKeyValue("firstName", firstName).addKeyValue("lastName", lastName)
+                .addKeyValue("licenseNumber", licenseNumber).addKeyValue("modifiedFrom", modifiedFrom)
+                .addKeyValue("modifiedTo", modifiedTo).log();
+
+        return driverService.exportDrivers(firstName, lastName, licenseNumber,
+                        i11Utils.parseInstant(modifiedFrom, "modifiedFrom"),
+                        i11Utils.parseInstant(modifiedTo, "modifiedTo"))
+                .doOnComplete(() -> log.info("Driver export completed"));
+    }
+
+    // DELETE DRIVER
+    @DeleteMapping("/delete-driver/{id}")
+    public Mono<ObjectNode> deleteDriver(@PathVariable String id,
+                                         @RequestParam(required = false) String expectedModifiedOn) {
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Request received to delete driver")
+                .addKeyValue("id", id).log();
+
+        return driverService.deleteDriver(id, i11Utils.parseInstant(expectedModifiedOn, "expectedModifiedOn"))
+                .then(Mono.fromSupplier(() -> {
+                    log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver deleted successfully")
+                            .addKeyValue("id", id).log();
+
+                    ObjectNode response = objectMapper.createObjectNode();
+                    response.put("message", "Driver deleted successfully");
+
+                    return response;
+                }));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.controller;
+
+import com.example.cache.EntityCache;
+import com.example.config.MongoBulkhead;
+import com.example.config.MongoIndexManager;
+import com.example.config.MongoPoolStats;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/stats")
+@CrossOrigin
+public class StatsController {
+
+    private ObjectMapper objectMapper;
+
+    private List<EntityCache<?>> caches;
+
+    private MongoIndexManager mongoIndexManager;
+
+    private MongoPoolStats mongoPoolStats;
+
+    private ObjectProvider<MongoBulkhead> mongoBulkhead;
+
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Autowired
+    public void setCaches(List<EntityCache<?>> caches) {
+        this.caches = caches;
+    }
+
+    @Autowired
+    public void setMongoIndexManager(MongoIndexManager mongoIndexManager) {
+        this.mongoIndexManager = mongoIndexManager;
+    }
+
+    @Autowired
+    public void setMongoPoolStats(MongoPoolStats mongoPoolStats) {
+        this.mongoPoolStats = mongoPoolStats;
+    }
+
+    @Autowired
+    public void setMongoBulkhead(ObjectProvider<MongoBulkhead> mongoBulkhead) {
+        this.mongoBulkhead = mongoBulkhead;
+    }
+
+    // Entity cache hit/miss/eviction counters
+    @GetMapping("/cache")
+    public ResponseEntity<ObjectNode> getCacheStats() {
+
+        ObjectNode response = objectMapper.createObjectNode();
+
+        for (EntityCache<?> cache : caches) {
+            CacheStats stats = cache.stats();
+
+            ObjectNode node = response.putObject(cache.getName());
+            node.put("size", cache.size());
+            node.put("hits", stats.hitCount());
+            node.put("misses", stats.missCount());
+            node.put("hitRate", stats.hitRate());
+            node.put("evictions", stats.evictionCount());
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Drift between declared and existing indexes
+    @GetMapping("/indexes")
+    public ResponseEntity<List<MongoIndexManager.IndexDrift>> getIndexDrift() {
+        return ResponseEntity.ok(mongoIndexManager.checkDrift());
+    }
+
+    // Mongo connection pool usage, check-out waits and timeouts
+    @GetMapping("/mongo-pool")
+    public ResponseEntity<MongoPoolStats.Snapshot> getMongoPoolStats() {
+        return ResponseEntity.ok(mongoPoolStats.snapshot());
+    }
+
+    // Mongo calls in flight and rejected by the bulkhead; 404 when the bulkhead is disabled
+    @GetMapping("/bulkhead")
+    public ResponseEntity<MongoBulkhead.Snapshot> getBulkheadStats() {
+        MongoBulkhead bulkhead = mongoBulkhead.getIfAvailable();
+        return bulkhead == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(bulkhead.snapshot());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Response of the bulk create endpoints.
+ */
+@JsonPropertyOrder({"message", "created", "failed", "results"})
+public record BulkCreateResponse(String message, long created, long failed, List<BulkItemResult> results) {
+
+    public static BulkCreateResponse of(String message, List<BulkItemResult> results) {
+        long created = results.stream().filter(r -> r.status() == BulkItemResult.Status.CREATED).count();
+        return new BulkCreateResponse(message, created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk create, {@code index} being its position in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(int index, Status status, String id, String message) {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public static BulkItemResult created(int index, String id) {
+        return new BulkItemResult(index, Status.CREATED, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String message) {
+        return new BulkItemResult(index, Status.FAILED, null, message);
+    }
+}
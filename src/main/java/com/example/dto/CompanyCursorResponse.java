@@ -0,0 +1,24 @@
+package com.example.dto;
+
+import com.example.model.Company;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Response of a cursor company search. {@code nextCursor} is null on the last page.
+ */
+@JsonPropertyOrder({"itemsPerPage", "nextCursor", "companies"})
+public record CompanyCursorResponse(int itemsPerPage, String nextCursor, List<?> companies) {
+
+    public static CompanyCursorResponse from(CursorPage<Company> page) {
+        return from(page, page.content());
+    }
+
+    /**
+     * Response for the page with its content replaced, e.g. by the selected fields only.
+     */
+    public static CompanyCursorResponse from(CursorPage<Company> page, List<?> companies) {
+        return new CompanyCursorResponse(page.itemsPerPage(), page.nextCursor(), companies);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.dto;
+
+import com.example.model.Company;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Response of an offset company search. {@code totalRecordsAccuracy} is only present when the total is not exact.
+ */
+@JsonPropertyOrder({"pageIndex", "itemsPerPage", "totalRecords", "totalRecordsAccuracy", "companies"})
+public record CompanySearchResponse(
+        int pageIndex,
+        int itemsPerPage,
+        Long totalRecords,
+        @JsonInclude(JsonInclude.Include.NON_NULL) SearchPage.TotalAccuracy totalRecordsAccuracy,
+        List<?> companies) {
+
+    public static CompanySearchResponse from(SearchPage<Company> page) {
+        return from(page, page.content());
+    }
+
+    /**
+     * Response for the page with its content replaced, e.g. by the selected fields only.
+     */
+    public static CompanySearchResponse from(SearchPage<Company> page, List<?> companies) {
+        return new CompanySearchResponse(
+                page.pageIndex(),
+                page.itemsPerPage(),
+                page.totalRecords(),
+                page.totalAccuracy() == SearchPage.TotalAccuracy.EXACT ? null : page.totalAccuracy(),
+                companies);
+    }
+}
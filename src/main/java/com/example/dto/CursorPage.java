@@ -0,0 +1,9 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) search. {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> content, int itemsPerPage, String nextCursor) {
+}
@@ -0,0 +1,24 @@
+package com.example.dto;
+
+import com.example.model.Driver;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Response of a cursor driver search. {@code nextCursor} is null on the last page.
+ */
+@JsonPropertyOrder({"itemsPerPage", "nextCursor", "drivers"})
+public record DriverCursorResponse(int itemsPerPage, String nextCursor, List<?> drivers) {
+
+    public static DriverCursorResponse from(CursorPage<Driver> page) {
+        return from(page, page.content());
+    }
+
+    /**
+     * Response for the page with its content replaced, e.g. by the selected fields only.
+     */
+    public static DriverCursorResponse from(CursorPage<Driver> page, List<?> drivers) {
+        return new DriverCursorResponse(page.itemsPerPage(), page.nextCursor(), drivers);
+    }
+}
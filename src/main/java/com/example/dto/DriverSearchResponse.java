@@ -0,0 +1,35 @@
+package com.example.dto;
+
+import com.example.model.Driver;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Response of an offset driver search. {@code totalRecordsAccuracy} is only present when the total is not exact.
+ */
+@JsonPropertyOrder({"pageIndex", "itemsPerPage", "totalRecords", "totalRecordsAccuracy", "drivers"})
+public record DriverSearchResponse(
+        int pageIndex,
+        int itemsPerPage,
+        Long totalRecords,
+        @JsonInclude(JsonInclude.Include.NON_NULL) SearchPage.TotalAccuracy totalRecordsAccuracy,
+        List<?> drivers) {
+
+    public static DriverSearchResponse from(SearchPage<Driver> page) {
+        return from(page, page.content());
+    }
+
+    /**
+     * Response for the page with its content replaced, e.g. by the selected fields only.
+     */
+    public static DriverSearchResponse from(SearchPage<Driver> page, List<?> drivers) {
+        return new DriverSearchResponse(
+                page.pageIndex(),
+                page.itemsPerPage(),
+                page.totalRecords(),
+                page.totalAccuracy() == SearchPage.TotalAccuracy.EXACT ? null : page.totalAccuracy(),
+                drivers);
+    }
+}
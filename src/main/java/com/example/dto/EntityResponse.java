@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * An entity with a {@code message} or {@code status} field appended after its own fields.
+ */
+@JsonPropertyOrder({"entity", "message", "status"})
+public record EntityResponse<T>(
+        @JsonUnwrapped T entity,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String message,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String status) {
+
+    public static <T> EntityResponse<T> withMessage(T entity, String message) {
+        return new EntityResponse<>(entity, message, null);
+    }
+
+    public static <T> EntityResponse<T> withStatus(T entity, String status) {
+        return new EntityResponse<>(entity, null, status);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one record of a streaming import, {@code line} being its 1-based line in the upload.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportLineResult(long line, BulkItemResult.Status status, String id, String message) {
+}
@@ -0,0 +1,11 @@
+package com.example.dto;
+
+/**
+ * Last line of a streaming import report.
+ */
+public record ImportSummary(boolean summary, long records, long created, long failed) {
+
+    public ImportSummary(long records, long created, long failed) {
+        this(true, records, created, failed);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * One page of an offset search. {@code totalRecords} is null when the total was skipped.
+ */
+public record SearchPage<T>(
+        List<T> content,
+        int pageIndex,
+        int itemsPerPage,
+        Long totalRecords,
+        TotalAccuracy totalAccuracy) {
+
+    public enum TotalAccuracy {
+        EXACT,
+        ESTIMATED,
+        AT_LEAST,
+        NONE
+    }
+}
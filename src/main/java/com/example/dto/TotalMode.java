@@ -0,0 +1,35 @@
+package com.example.dto;
+
+import com.example.exception.BadRequestException;
+
+/**
+ * How a paged search computes {@code totalRecords}.
+ */
+public enum TotalMode {
+
+    /** count() followed by find(), the original behaviour */
+    EXACT,
+
+    /** page and exact count fetched together in one $facet aggregation */
+    FACET,
+
+    /** exact up to the count limit, then a collection estimate that includes soft-deleted documents */
+    ESTIMATED,
+
+    /** stop counting at the count limit and report it as a lower bound */
+    CAPPED,
+
+    /** skip the count entirely */
+    NONE;
+
+    public static TotalMode from(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return EXACT;
+        }
+        try {
+            return TotalMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid totalMode. Allowed values are EXACT, FACET, ESTIMATED, CAPPED, NONE");
+        }
+    }
+}
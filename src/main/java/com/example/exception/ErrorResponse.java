@@ -1,9 +1,11 @@
 package com.example.exception;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @Builder
@@ -14,4 +16,8 @@ public class ErrorResponse {
     private String error;
     private String message;
     private String path;
+
+    // every validation error, when a request body failed validation
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> errors;
 }
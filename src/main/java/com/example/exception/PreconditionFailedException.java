@@ -0,0 +1,10 @@
+package com.example.exception;
+
+/**
+ * A conditional request (If-Match) named a version of the entity that is no longer current.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
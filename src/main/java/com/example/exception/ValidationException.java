@@ -0,0 +1,23 @@
+package com.example.exception;
+
+import java.util.List;
+
+/**
+ * A request body that failed validation, with every error found. The message joins them, so
+ * callers that only know {@link BadRequestException} still report all of them.
+ *
+ * Thrown for ordinary bad input, so no stack trace is captured.
+ */
+public class ValidationException extends BadRequestException {
+
+    private final List<String> errors;
+
+    public ValidationException(List<String> errors) {
+        super(String.join("; ", errors), false);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -40,4 +41,10 @@ public class Company {
     private Instant modifiedOn;
 
     private Boolean isActive;
+
+    // Normalized search keys, maintained by CompanyRepository
+    @JsonIgnore
+    private String companyNameKey;
+    @JsonIgnore
+    private String registrationNumberKey;
 }
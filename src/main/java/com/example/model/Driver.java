@@ -3,6 +3,7 @@ package com.example.model;
 import java.time.Instant;
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -39,4 +40,12 @@ public class Driver {
     private Instant modifiedOn;
 
     private Boolean isActive;
+
+    // Normalized search keys, maintained by DriverRepository
+    @JsonIgnore
+    private String firstNameKey;
+    @JsonIgnore
+    private String lastNameKey;
+    @JsonIgnore
+    private String licenseNumberKey;
 }
@@ -1,78 +1,313 @@
 package com.example.repository;
 
+import com.example.cache.EntityCache;
+import com.example.config.MongoIndexManager;
+import com.example.config.ReadRouting;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
 import com.example.model.Company;
+import com.example.utils.RequestTimings;
+import com.example.utils.SearchCursor;
+import com.example.utils.SearchKeys;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
 
 @Repository
+@Timed(value = "app.repository", histogram = true)
 public class CompanyRepository {
     private static final Logger log = LoggerFactory.getLogger(CompanyRepository.class);
     private MongoTemplate mongoTemplate;
+    private EntityCache<Company> companyCache;
+    private MongoIndexManager indexManager;
+    private EntityReader entityReader;
+    private ReadRouting readRouting;
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private static final int EXPORT_BATCH_SIZE = 1000;
 
     @Autowired
     public void setMongoTemplate(MongoTemplate mongoTemplate) {
         this.mongoTemplate = mongoTemplate;
     }
 
-    public Company saveOrUpdate(Company company) {
-        log.debug("Saving company to database. id: {}", company.getId());
+    @Autowired
+    public void setEntityReader(EntityReader entityReader) {
+        this.entityReader = entityReader;
+    }
 
-        Company saved = mongoTemplate.save(company);
+    @Autowired
+    public void setReadRouting(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
 
-        log.debug("Company saved successfully. id: {}", saved.getId());
+    @Autowired
+    public void setCompanyCache(EntityCache<Company> companyCache) {
+        this.companyCache = companyCache;
+    }
 
-        return saved;
+    @Autowired
+    public void setIndexManager(MongoIndexManager indexManager) {
+        this.indexManager = indexManager;
     }
 
-//    public Company findById(String id) {
-//        return mongoTemplate.findById(id, Company.class);
-//    }
+    /**
+     * Inserts a new company. Uniqueness of the active registration number is enforced by a
+     * partial unique index, so a duplicate surfaces as a {@link DuplicateKeyException}.
+     * Until that index is confirmed to exist, the registration number is also checked first.
+     */
+    public Company insert(Company company) {
+        log.debug("Inserting company into database");
+
+        if (!isUniqueIndexConfirmed() && registrationNumberTaken(company.getRegistrationNumber(), null)) {
+            throw new DuplicateKeyException("Active company with registrationNumber " + company.getRegistrationNumber() + " already exists");
+        }
+
+        applySearchKeys(company);
+
+        Company saved;
+        try (RequestTimings.Span span = RequestTimings.span("insert")) {
+            saved = mongoTemplate.insert(company);
+        }
+
+        companyCache.put(saved.getId(), saved);
+
+        log.debug("Company inserted successfully. id={}", saved.getId());
+
+        return saved;
+    }
 
     public Company findById(String id) {
+        Company cached = companyCache.get(id);
+        if (cached != null) {
+            log.debug("Company served from cache for id={}", id);
+            return cached;
+        }
+
         log.debug("Fetching company from DB for id={}", id);
 
+        long stamp = companyCache.writeStamp(id);
         Query query = new Query();
         query.addCriteria(Criteria.where("id").is(id).and("isActive").is(true));
-        return mongoTemplate.findOne(query, Company.class);
+        Company company = entityReader.findOne(query, Company.class);
+
+        companyCache.putLoaded(id, company, stamp);
+
+        return company;
     }
 
-    public Page<Company> getAllCompanyBySearch(
-            String companyName,
-            String registrationNumber,
-            Integer pageIndex,
-            Integer itemsPerPage) {
+    /**
+     * Like {@link #findById(String)}, but reads only the selected fields on a cache miss.
+     * A cached company is returned whole; partial companies are never cached.
+     */
+    public Company findById(String id, Set<String> fields) {
+        if (fields == null) {
+            return findById(id);
+        }
 
-        log.debug("Searching companies. companyName={}, registrationNumber={}, pageIndex={}, itemsPerPage={}",
-                companyName, registrationNumber, pageIndex, itemsPerPage);
+        Company cached = companyCache.get(id);
+        if (cached != null) {
+            log.debug("Company served from cache for id={}", id);
+            return cached;
+        }
 
-        Query query = new Query();
+        log.debug("Fetching company fields {} from DB for id={}", fields, id);
 
-        if (companyName != null && !companyName.trim().isEmpty()) {
-            String regex = "^" + Pattern.quote(companyName.trim()) + "$";
-            query.addCriteria(
-                    Criteria.where("companyName").regex(regex, "i")
-            );
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        // the response's ETag is built from modifiedOn, selected or not
+        query.fields().include("modifiedOn");
+        return entityReader.findOne(SearchSupport.project(query, fields), Company.class);
+    }
+
+    /**
+     * Reads only the modifiedOn of the active company (the cached copy when there is one), for
+     * conditional requests that may not need the document at all. Returns null when there is none.
+     */
+    public Company findVersion(String id) {
+        Company cached = companyCache.get(id);
+        if (cached != null) {
+            return cached;
         }
 
-        if (registrationNumber != null && !registrationNumber.trim().isEmpty()) {
-            String regex = "^" + Pattern.quote(registrationNumber.trim()) + "$";
-            query.addCriteria(
-                    Criteria.where("registrationNumber").regex(regex, "i")
-            );
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        query.fields().include("modifiedOn");
+        return entityReader.findOne(query, Company.class);
+    }
+
+    /**
+     * Inserts the companies with one unordered bulk write. Ids are assigned up front so the
+     * callers can report them. Returns the Mongo error code for every position in
+     * {@code companies} that failed to insert; an empty map means everything was written.
+     */
+    public Map<Integer, Integer> insertAll(List<Company> companies) {
+        if (companies.isEmpty()) {
+            return Map.of();
+        }
+
+        log.debug("Bulk inserting {} companies", companies.size());
+
+        for (Company company : companies) {
+            company.setId(new ObjectId().toHexString());
+            applySearchKeys(company);
+        }
+
+        try (RequestTimings.Span span = RequestTimings.span("insert")) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Company.class)
+                    .insert(companies)
+                    .execute();
+            return Map.of();
+        } catch (RuntimeException ex) {
+            MongoBulkWriteException bulkException = findBulkWriteException(ex);
+            if (bulkException == null) {
+                throw ex;
+            }
+
+            Map<Integer, Integer> failures = new HashMap<>();
+            for (BulkWriteError error : bulkException.getWriteErrors()) {
+                failures.put(error.getIndex(), error.getCode());
+            }
+
+            log.debug("Bulk insert of companies finished with {} failures", failures.size());
+
+            return failures;
+        }
+    }
+
+    /**
+     * Returns which of the given registrationNumbers already belong to an active company, using one $in query.
+     */
+    public Set<String> findExistingRegistrationNumbers(Collection<String> registrationNumbers) {
+        if (registrationNumbers.isEmpty()) {
+            return Set.of();
+        }
+
+        Query query = new Query(Criteria.where("registrationNumber").in(registrationNumbers).and("isActive").is(true));
+        query.fields().include("registrationNumber");
+
+        Set<String> existing = new HashSet<>();
+        try (RequestTimings.Span span = RequestTimings.span("find")) {
+            for (Company company : mongoTemplate.find(query, Company.class)) {
+                existing.add(company.getRegistrationNumber());
+            }
+        }
+
+        return existing;
+    }
+
+    static MongoBulkWriteException findBulkWriteException(Throwable ex) {
+        while (ex != null) {
+            if (ex instanceof MongoBulkWriteException bulkException) {
+                return bulkException;
+            }
+            ex = ex.getCause();
+        }
+        return null;
+    }
+
+    /**
+     * Sets the given fields (and modifiedOn) on the active company with one findAndModify and
+     * returns the updated document. When {@code expectedModifiedOn} is not null the update
+     * only applies if the stored modifiedOn still matches it. Returns null when nothing matched.
+     */
+    public Company updateFields(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        log.debug("Updating fields {} on company id={}", changes.keySet(), id);
+
+        Object registrationNumber = changes.get("registrationNumber");
+        if (registrationNumber != null && !isUniqueIndexConfirmed() && registrationNumberTaken((String) registrationNumber, id)) {
+            throw new DuplicateKeyException("Active company with registrationNumber " + registrationNumber + " already exists");
+        }
+
+        Query query = activeById(id, expectedModifiedOn);
+
+        Update update = fieldsUpdate(changes);
+
+        Company updated;
+        try (RequestTimings.Span span = RequestTimings.span("update")) {
+            updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Company.class);
+        }
+
+        if (updated != null) {
+            companyCache.put(id, updated);
+        } else {
+            // missing, deleted or changed underneath us: don't keep serving the old copy
+            companyCache.evict(id);
+        }
+
+        return updated;
+    }
+
+    /**
+     * Marks the active company as deleted in a single update. Returns false when nothing matched.
+     */
+    public boolean softDelete(String id, Instant expectedModifiedOn) {
+        log.debug("Soft deleting company id={}", id);
+
+        Query query = activeById(id, expectedModifiedOn);
+
+        Update update = new Update()
+                .set("isActive", false)
+                .set("modifiedOn", Instant.now());
+
+        boolean deleted;
+        try (RequestTimings.Span span = RequestTimings.span("update")) {
+            deleted = mongoTemplate.updateFirst(query, update, Company.class).getMatchedCount() > 0;
         }
 
-        query.addCriteria(Criteria.where("isActive").is(true));
+        companyCache.evict(id);
+
+        return deleted;
+    }
+
+    /**
+     * Checks the database (not the cache) for an active company with this id.
+     */
+    public boolean existsById(String id) {
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        try (RequestTimings.Span span = RequestTimings.span("exists")) {
+            return mongoTemplate.exists(query, Company.class);
+        }
+    }
+
+    public SearchPage<Company> getAllCompanyBySearch(
+            String companyName,
+            String registrationNumber,
+            Integer pageIndex,
+            Integer itemsPerPage,
+            TotalMode totalMode,
+            int countLimit,
+            Set<String> fields) {
 
-        long total = mongoTemplate.count(query, Company.class);
+        log.debug("Searching companies. companyName={}, registrationNumber={}, pageIndex={}, itemsPerPage={}, totalMode={}",
+                companyName, registrationNumber, pageIndex, itemsPerPage, totalMode);
 
         Pageable pageable = PageRequest.of(
                 pageIndex,
@@ -80,21 +315,214 @@ public class CompanyRepository {
                 Sort.by(Sort.Direction.DESC, "modifiedOn")
         );
 
-        query.with(pageable);
+        SearchPage<Company> page = SearchSupport.search(
+                mongoTemplate,
+                entityReader,
+                readRouting,
+                Company.class,
+                buildSearchCriteria(companyName, registrationNumber),
+                pageable,
+                totalMode,
+                countLimit,
+                StringUtils.hasText(companyName) || StringUtils.hasText(registrationNumber),
+                fields);
+
+        log.debug("Companies found: {} out of total {} ({})",
+                page.content().size(), page.totalRecords(), page.totalAccuracy());
+
+        return page;
+    }
+
+    /**
+     * Keyset variant of {@link #getAllCompanyBySearch}: seeks past the cursor on
+     * (modifiedOn desc, _id desc) instead of skipping, so deep pages cost the same as the first.
+     */
+    public CursorPage<Company> getCompaniesAfterCursor(
+            String companyName,
+            String registrationNumber,
+            SearchCursor cursor,
+            Integer itemsPerPage,
+            Set<String> fields) {
+
+        log.debug("Searching companies by cursor. companyName={}, registrationNumber={}, cursor={}, itemsPerPage={}",
+                companyName, registrationNumber, cursor, itemsPerPage);
+
+        Query query = cursorQuery(companyName, registrationNumber, cursor, itemsPerPage, fields);
 
-        List<Company> companies = mongoTemplate.find(query, Company.class);
+        List<Company> companies = entityReader.find(readRouting.forSearch(query), Company.class);
 
-        log.debug("Companies found: {} out of total {}", companies.size(), total);
+        CursorPage<Company> page = SearchSupport.cursorPage(companies, itemsPerPage, company -> new SearchCursor(company.getModifiedOn(), company.getId()));
 
-        return new PageImpl<>(companies, pageable, total);
+        log.debug("Companies found by cursor: {}", page.content().size());
+
+        return page;
     }
 
+    /**
+     * Opens a cursor over the active companies matching the search filters and an optional
+     * modifiedOn range (from inclusive, to exclusive), in _id order. The caller must close the stream.
+     */
+    public Stream<Company> streamCompanies(String companyName, String registrationNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.debug("Opening company export cursor. modifiedFrom={}, modifiedTo={}", modifiedFrom, modifiedTo);
 
-    public boolean checkCompanyExistByRegistractionNumber(String registrationNumber) {
-        log.debug("Checking existence of company with registrationNumber={}", registrationNumber);
-        Query query = new Query();
-        query.addCriteria(Criteria.where("registrationNumber").is(registrationNumber).and("isActive").is(true));
-        return mongoTemplate.exists(query, Company.class);
+        Query query = exportQuery(companyName, registrationNumber, modifiedFrom, modifiedTo);
+
+        return entityReader.stream(readRouting.forSearch(query), Company.class);
+    }
+
+    static Query activeById(String id, Instant expectedModifiedOn) {
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        if (expectedModifiedOn != null) {
+            query.addCriteria(Criteria.where("modifiedOn").is(expectedModifiedOn));
+        }
+        return query;
+    }
+
+    /**
+     * Sets the changed fields, their normalized search keys and modifiedOn.
+     */
+    static Update fieldsUpdate(Map<String, Object> changes) {
+        Update update = new Update();
+        changes.forEach(update::set);
+        if (changes.containsKey("companyName")) {
+            update.set("companyNameKey", SearchKeys.normalize((String) changes.get("companyName")));
+        }
+        if (changes.containsKey("registrationNumber")) {
+            update.set("registrationNumberKey", SearchKeys.normalize((String) changes.get("registrationNumber")));
+        }
+        update.set("modifiedOn", Instant.now());
+        return update;
+    }
+
+    /**
+     * Keyset page query: the filters, the seek past {@code cursor} and one row more than a page.
+     */
+    static Query cursorQuery(String companyName, String registrationNumber, SearchCursor cursor, int itemsPerPage, Set<String> fields) {
+        Query query = new Query(buildSearchCriteria(companyName, registrationNumber));
+
+        if (cursor != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("modifiedOn").lt(cursor.sortValue()),
+                    Criteria.where("modifiedOn").is(cursor.sortValue()).and("id").lt(cursor.id())
+            ));
+        }
+
+        query.with(Sort.by(Sort.Direction.DESC, "modifiedOn", "id"));
+        if (fields != null) {
+            // the next cursor is built from the last row's sort key
+            query.fields().include("modifiedOn");
+        }
+        SearchSupport.project(query, fields);
+        // one extra row tells us whether another page exists
+        query.limit(itemsPerPage + 1);
+
+        return query;
+    }
+
+    /**
+     * Export query: the filters plus the optional modifiedOn range, in _id order.
+     */
+    static Query exportQuery(String companyName, String registrationNumber, Instant modifiedFrom, Instant modifiedTo) {
+        Criteria criteria = buildSearchCriteria(companyName, registrationNumber);
+
+        if (modifiedFrom != null && modifiedTo != null) {
+            criteria = criteria.and("modifiedOn").gte(modifiedFrom).lt(modifiedTo);
+        } else if (modifiedFrom != null) {
+            criteria = criteria.and("modifiedOn").gte(modifiedFrom);
+        } else if (modifiedTo != null) {
+            criteria = criteria.and("modifiedOn").lt(modifiedTo);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        return query;
+    }
+
+    static Criteria buildSearchCriteria(String companyName, String registrationNumber) {
+        Criteria criteria = Criteria.where("isActive").is(true);
+
+        // exact, case-insensitive matches go through the normalized keys so they can use an index
+        if (companyName != null && !companyName.trim().isEmpty()) {
+            criteria = criteria.and("companyNameKey").is(SearchKeys.normalize(companyName));
+        }
+
+        if (registrationNumber != null && !registrationNumber.trim().isEmpty()) {
+            criteria = criteria.and("registrationNumberKey").is(SearchKeys.normalize(registrationNumber));
+        }
+
+        return criteria;
+    }
+
+    static void applySearchKeys(Company company) {
+        company.setCompanyNameKey(SearchKeys.normalize(company.getCompanyName()));
+        company.setRegistrationNumberKey(SearchKeys.normalize(company.getRegistrationNumber()));
+    }
 
+    /**
+     * Fills the normalized search keys on documents written before they existed.
+     * Returns the number of documents updated.
+     */
+    public long backfillSearchKeys() {
+        Query query = new Query(Criteria.where("companyNameKey").exists(false));
+        query.fields().include("companyName", "registrationNumber");
+        query.cursorBatchSize(BACKFILL_BATCH_SIZE);
+
+        long updated = 0;
+        List<Pair<Query, UpdateDefinition>> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+
+        try (Stream<Company> companies = mongoTemplate.stream(query, Company.class)) {
+            Iterator<Company> iterator = companies.iterator();
+            while (iterator.hasNext()) {
+                Company company = iterator.next();
+                batch.add(Pair.of(
+                        Query.query(Criteria.where("id").is(company.getId())),
+                        new Update()
+                                .set("companyNameKey", SearchKeys.normalize(company.getCompanyName()))
+                                .set("registrationNumberKey", SearchKeys.normalize(company.getRegistrationNumber()))));
+
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    updated += flushBackfill(batch);
+                }
+            }
+        }
+        updated += flushBackfill(batch);
+
+        log.debug("Backfilled search keys on {} companies", updated);
+
+        return updated;
+    }
+
+    private long flushBackfill(List<Pair<Query, UpdateDefinition>> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long modified = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Company.class)
+                .updateOne(batch)
+                .execute()
+                .getModifiedCount();
+        batch.clear();
+        return modified;
+    }
+
+
+    private boolean isUniqueIndexConfirmed() {
+        return indexManager != null && indexManager.isUniqueIndexConfirmed(Company.class);
+    }
+
+    /**
+     * Whether another active company (any but {@code exceptId}) has this registration number.
+     */
+    boolean registrationNumberTaken(String registrationNumber, String exceptId) {
+        return mongoTemplate.exists(registrationNumberQuery(registrationNumber, exceptId), Company.class);
+    }
+
+    static Query registrationNumberQuery(String registrationNumber, String exceptId) {
+        Criteria criteria = Criteria.where("registrationNumber").is(registrationNumber).and("isActive").is(true);
+        if (exceptId != null) {
+            criteria.and("id").ne(exceptId);
+        }
+        return new Query(criteria);
     }
 }
@@ -1,76 +1,308 @@
 package com.example.repository;
 
+import com.example.cache.EntityCache;
+import com.example.config.MongoIndexManager;
+import com.example.config.ReadRouting;
 import com.example.model.Company;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
 import com.example.model.Driver;
+import com.example.utils.RequestTimings;
+import com.example.utils.SearchCursor;
+import com.example.utils.SearchKeys;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
+@Timed(value = "app.repository", histogram = true)
 public class DriverRepository {
     private static final Logger log = LoggerFactory.getLogger(DriverRepository.class);
     private MongoTemplate mongoTemplate;
+    private EntityCache<Driver> driverCache;
+    private MongoIndexManager indexManager;
+    private EntityReader entityReader;
+    private ReadRouting readRouting;
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private static final int EXPORT_BATCH_SIZE = 1000;
 
     @Autowired
     public void setMongoTemplate(MongoTemplate mongoTemplate) {
         this.mongoTemplate = mongoTemplate;
     }
 
-    public Driver saveOrUpdate(Driver driver) {
-        log.debug("Saving driver to DB. id={}", driver.getId());
+    @Autowired
+    public void setEntityReader(EntityReader entityReader) {
+        this.entityReader = entityReader;
+    }
 
-        Driver saved = mongoTemplate.save(driver);
+    @Autowired
+    public void setReadRouting(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
 
-        log.debug("Driver saved successfully. id={}", saved.getId());
+    @Autowired
+    public void setDriverCache(EntityCache<Driver> driverCache) {
+        this.driverCache = driverCache;
+    }
 
-        return saved;
+    @Autowired
+    public void setIndexManager(MongoIndexManager indexManager) {
+        this.indexManager = indexManager;
     }
 
-//    public Driver findById(String id) {
-//        return mongoTemplate.findById(id, Driver.class);
-//    }
+    /**
+     * Inserts a new driver. Uniqueness of the active license number is enforced by a
+     * partial unique index, so a duplicate surfaces as a {@link DuplicateKeyException}.
+     * Until that index is confirmed to exist, the license number is also checked first.
+     */
+    public Driver insert(Driver driver) {
+        log.debug("Inserting driver into DB");
+
+        if (!isUniqueIndexConfirmed() && licenseNumberTaken(driver.getLicenseNumber(), null)) {
+            throw new DuplicateKeyException("Active driver with licenseNumber " + driver.getLicenseNumber() + " already exists");
+        }
+
+        applySearchKeys(driver);
+
+        Driver saved;
+        try (RequestTimings.Span span = RequestTimings.span("insert")) {
+            saved = mongoTemplate.insert(driver);
+        }
+
+        driverCache.put(saved.getId(), saved);
+
+        log.debug("Driver inserted successfully. id={}", saved.getId());
+
+        return saved;
+    }
 
 
     public Driver findById(String id) {
+        Driver cached = driverCache.get(id);
+        if (cached != null) {
+            log.debug("Driver served from cache for id={}", id);
+            return cached;
+        }
+
         log.debug("Finding driver by id={} and isActive=true", id);
 
+        long stamp = driverCache.writeStamp(id);
         Query query = new Query();
         query.addCriteria(Criteria.where("id").is(id).and("isActive").is(true));
 
-        return mongoTemplate.findOne(query, Driver.class);
+        Driver driver = entityReader.findOne(query, Driver.class);
+
+        driverCache.putLoaded(id, driver, stamp);
+
+        return driver;
     }
 
-    public Page<Driver> searchDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex, Integer itemsPerPage) {
+    /**
+     * Like {@link #findById(String)}, but reads only the selected fields on a cache miss.
+     * A cached driver is returned whole; partial drivers are never cached.
+     */
+    public Driver findById(String id, Set<String> fields) {
+        if (fields == null) {
+            return findById(id);
+        }
 
-        log.debug("Executing driver search query");
+        Driver cached = driverCache.get(id);
+        if (cached != null) {
+            log.debug("Driver served from cache for id={}", id);
+            return cached;
+        }
 
-        Query query = new Query();
+        log.debug("Finding driver fields {} by id={} and isActive=true", fields, id);
 
-        if (firstName != null && !firstName.trim().isEmpty()) {
-            String regex = "^" + Pattern.quote(firstName.trim()) + "$";
-            query.addCriteria(Criteria.where("firstName").regex(regex, "i"));
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        // the response's ETag is built from modifiedOn, selected or not
+        query.fields().include("modifiedOn");
+        return entityReader.findOne(SearchSupport.project(query, fields), Driver.class);
+    }
+
+    /**
+     * Reads only the modifiedOn of the active driver (the cached copy when there is one), for
+     * conditional requests that may not need the document at all. Returns null when there is none.
+     */
+    public Driver findVersion(String id) {
+        Driver cached = driverCache.get(id);
+        if (cached != null) {
+            return cached;
         }
 
-        if (lastName != null && !lastName.trim().isEmpty()) {
-            String regex = "^" + Pattern.quote(lastName.trim()) + "$";
-            query.addCriteria(Criteria.where("lastName").regex(regex, "i"));
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        query.fields().include("modifiedOn");
+        return entityReader.findOne(query, Driver.class);
+    }
+
+    /**
+     * Inserts the drivers with one unordered bulk write. Ids are assigned up front so the
+     * callers can report them. Returns the Mongo error code for every position in
+     * {@code drivers} that failed to insert; an empty map means everything was written.
+     */
+    public Map<Integer, Integer> insertAll(List<Driver> drivers) {
+        if (drivers.isEmpty()) {
+            return Map.of();
         }
 
-        if (licenseNumber != null && !licenseNumber.trim().isEmpty()) {
-            String regex = "^" + Pattern.quote(licenseNumber.trim()) + "$";
-            query.addCriteria(Criteria.where("licenseNumber").regex(regex, "i"));
+        log.debug("Bulk inserting {} drivers", drivers.size());
+
+        for (Driver driver : drivers) {
+            driver.setId(new ObjectId().toHexString());
+            applySearchKeys(driver);
+        }
+
+        try (RequestTimings.Span span = RequestTimings.span("insert")) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Driver.class)
+                    .insert(drivers)
+                    .execute();
+            return Map.of();
+        } catch (RuntimeException ex) {
+            MongoBulkWriteException bulkException = findBulkWriteException(ex);
+            if (bulkException == null) {
+                throw ex;
+            }
+
+            Map<Integer, Integer> failures = new HashMap<>();
+            for (BulkWriteError error : bulkException.getWriteErrors()) {
+                failures.put(error.getIndex(), error.getCode());
+            }
+
+            log.debug("Bulk insert of drivers finished with {} failures", failures.size());
+
+            return failures;
+        }
+    }
+
+    /**
+     * Returns which of the given licenseNumbers already belong to an active driver, using one $in query.
+     */
+    public Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers) {
+        if (licenseNumbers.isEmpty()) {
+            return Set.of();
+        }
+
+        Query query = new Query(Criteria.where("licenseNumber").in(licenseNumbers).and("isActive").is(true));
+        query.fields().include("licenseNumber");
+
+        Set<String> existing = new HashSet<>();
+        try (RequestTimings.Span span = RequestTimings.span("find")) {
+            for (Driver driver : mongoTemplate.find(query, Driver.class)) {
+                existing.add(driver.getLicenseNumber());
+            }
+        }
+
+        return existing;
+    }
+
+    static MongoBulkWriteException findBulkWriteException(Throwable ex) {
+        while (ex != null) {
+            if (ex instanceof MongoBulkWriteException bulkException) {
+                return bulkException;
+            }
+            ex = ex.getCause();
+        }
+        return null;
+    }
+
+    /**
+     * Sets the given fields (and modifiedOn) on the active driver with one findAndModify and
+     * returns the updated document. When {@code expectedModifiedOn} is not null the update
+     * only applies if the stored modifiedOn still matches it. Returns null when nothing matched.
+     */
+    public Driver updateFields(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        log.debug("Updating fields {} on driver id={}", changes.keySet(), id);
+
+        Object licenseNumber = changes.get("licenseNumber");
+        if (licenseNumber != null && !isUniqueIndexConfirmed() && licenseNumberTaken((String) licenseNumber, id)) {
+            throw new DuplicateKeyException("Active driver with licenseNumber " + licenseNumber + " already exists");
         }
 
-        query.addCriteria(Criteria.where("isActive").is(true));
+        Query query = activeById(id, expectedModifiedOn);
 
-        long total = mongoTemplate.count(query, Driver.class);
+        Update update = fieldsUpdate(changes);
+
+        Driver updated;
+        try (RequestTimings.Span span = RequestTimings.span("update")) {
+            updated = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Driver.class);
+        }
+
+        if (updated != null) {
+            driverCache.put(id, updated);
+        } else {
+            // missing, deleted or changed underneath us: don't keep serving the old copy
+            driverCache.evict(id);
+        }
+
+        return updated;
+    }
+
+    /**
+     * Marks the active driver as deleted in a single update. Returns false when nothing matched.
+     */
+    public boolean softDelete(String id, Instant expectedModifiedOn) {
+        log.debug("Soft deleting driver id={}", id);
+
+        Query query = activeById(id, expectedModifiedOn);
+
+        Update update = new Update()
+                .set("isActive", false)
+                .set("modifiedOn", Instant.now());
+
+        boolean deleted;
+        try (RequestTimings.Span span = RequestTimings.span("update")) {
+            deleted = mongoTemplate.updateFirst(query, update, Driver.class).getMatchedCount() > 0;
+        }
+
+        driverCache.evict(id);
+
+        return deleted;
+    }
+
+    /**
+     * Checks the database (not the cache) for an active driver with this id.
+     */
+    public boolean existsById(String id) {
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        try (RequestTimings.Span span = RequestTimings.span("exists")) {
+            return mongoTemplate.exists(query, Driver.class);
+        }
+    }
+
+    public SearchPage<Driver> searchDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex, Integer itemsPerPage,
+                                            TotalMode totalMode, int countLimit, Set<String> fields) {
+
+        log.debug("Executing driver search query. totalMode={}", totalMode);
 
         Pageable pageable = PageRequest.of(
                 pageIndex,
@@ -78,21 +310,217 @@ public class DriverRepository {
                 Sort.by(Sort.Direction.ASC, "createdOn")
         );
 
-        query.with(pageable);
+        SearchPage<Driver> page = SearchSupport.search(
+                mongoTemplate,
+                entityReader,
+                readRouting,
+                Driver.class,
+                buildSearchCriteria(firstName, lastName, licenseNumber),
+                pageable,
+                totalMode,
+                countLimit,
+                StringUtils.hasText(firstName) || StringUtils.hasText(lastName) || StringUtils.hasText(licenseNumber),
+                fields);
+
+        log.debug("Drivers found count={}", page.content().size());
+
+        return page;
+    }
+
+    /**
+     * Keyset variant of {@link #searchDrivers}: seeks past the cursor on
+     * (createdOn asc, _id asc) instead of skipping, so deep pages cost the same as the first.
+     */
+    public CursorPage<Driver> searchDriversAfterCursor(String firstName, String lastName, String licenseNumber,
+                                                       SearchCursor cursor, Integer itemsPerPage, Set<String> fields) {
 
-        List<Driver> drivers = mongoTemplate.find(query, Driver.class);
+        log.debug("Executing driver cursor search query");
 
-        log.debug("Drivers found count={}", drivers.size());
+        Query query = cursorQuery(firstName, lastName, licenseNumber, cursor, itemsPerPage, fields);
 
-        return new PageImpl<>(drivers, pageable, total);
+        List<Driver> drivers = entityReader.find(readRouting.forSearch(query), Driver.class);
+
+        CursorPage<Driver> page = SearchSupport.cursorPage(drivers, itemsPerPage, driver -> new SearchCursor(driver.getCreatedOn(), driver.getId()));
+
+        log.debug("Drivers found by cursor count={}", page.content().size());
+
+        return page;
     }
 
-    public boolean checkDriverExistByLicenseNumber(String licenseNumber) {
-        log.debug("Checking existence of Driver with licenseNumber={}", licenseNumber);
-        Query query = new Query();
-        query.addCriteria(Criteria.where("licenseNumber").is(licenseNumber).and("isActive").is(true));
-        return mongoTemplate.exists(query, Driver.class);
+    /**
+     * Opens a cursor over the active drivers matching the search filters and an optional
+     * modifiedOn range (from inclusive, to exclusive), in _id order. The caller must close the stream.
+     */
+    public Stream<Driver> streamDrivers(String firstName, String lastName, String licenseNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.debug("Opening driver export cursor. modifiedFrom={}, modifiedTo={}", modifiedFrom, modifiedTo);
+
+        Query query = exportQuery(firstName, lastName, licenseNumber, modifiedFrom, modifiedTo);
+
+        return entityReader.stream(readRouting.forSearch(query), Driver.class);
+    }
+
+    static Query activeById(String id, Instant expectedModifiedOn) {
+        Query query = new Query(Criteria.where("id").is(id).and("isActive").is(true));
+        if (expectedModifiedOn != null) {
+            query.addCriteria(Criteria.where("modifiedOn").is(expectedModifiedOn));
+        }
+        return query;
+    }
+
+    /**
+     * Sets the changed fields, their normalized search keys and modifiedOn.
+     */
+    static Update fieldsUpdate(Map<String, Object> changes) {
+        Update update = new Update();
+        changes.forEach(update::set);
+        if (changes.containsKey("firstName")) {
+            update.set("firstNameKey", SearchKeys.normalize((String) changes.get("firstName")));
+        }
+        if (changes.containsKey("lastName")) {
+            update.set("lastNameKey", SearchKeys.normalize((String) changes.get("lastName")));
+        }
+        if (changes.containsKey("licenseNumber")) {
+            update.set("licenseNumberKey", SearchKeys.normalize((String) changes.get("licenseNumber")));
+        }
+        update.set("modifiedOn", Instant.now());
+        return update;
+    }
+
+    /**
+     * Keyset page query: the filters, the seek past {@code cursor} and one row more than a page.
+     */
+    static Query cursorQuery(String firstName, String lastName, String licenseNumber, SearchCursor cursor, int itemsPerPage, Set<String> fields) {
+        Query query = new Query(buildSearchCriteria(firstName, lastName, licenseNumber));
+
+        if (cursor != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdOn").gt(cursor.sortValue()),
+                    Criteria.where("createdOn").is(cursor.sortValue()).and("id").gt(cursor.id())
+            ));
+        }
+
+        query.with(Sort.by(Sort.Direction.ASC, "createdOn", "id"));
+        if (fields != null) {
+            // the next cursor is built from the last row's sort key
+            query.fields().include("createdOn");
+        }
+        SearchSupport.project(query, fields);
+        // one extra row tells us whether another page exists
+        query.limit(itemsPerPage + 1);
+
+        return query;
+    }
+
+    /**
+     * Export query: the filters plus the optional modifiedOn range, in _id order.
+     */
+    static Query exportQuery(String firstName, String lastName, String licenseNumber, Instant modifiedFrom, Instant modifiedTo) {
+        Criteria criteria = buildSearchCriteria(firstName, lastName, licenseNumber);
+
+        if (modifiedFrom != null && modifiedTo != null) {
+            criteria = criteria.and("modifiedOn").gte(modifiedFrom).lt(modifiedTo);
+        } else if (modifiedFrom != null) {
+            criteria = criteria.and("modifiedOn").gte(modifiedFrom);
+        } else if (modifiedTo != null) {
+            criteria = criteria.and("modifiedOn").lt(modifiedTo);
+        }
 
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        return query;
+    }
+
+    static Criteria buildSearchCriteria(String firstName, String lastName, String licenseNumber) {
+        Criteria criteria = Criteria.where("isActive").is(true);
+
+        // exact, case-insensitive matches go through the normalized keys so they can use an index
+        if (firstName != null && !firstName.trim().isEmpty()) {
+            criteria = criteria.and("firstNameKey").is(SearchKeys.normalize(firstName));
+        }
+
+        if (lastName != null && !lastName.trim().isEmpty()) {
+            criteria = criteria.and("lastNameKey").is(SearchKeys.normalize(lastName));
+        }
+
+        if (licenseNumber != null && !licenseNumber.trim().isEmpty()) {
+            criteria = criteria.and("licenseNumberKey").is(SearchKeys.normalize(licenseNumber));
+        }
+
+        return criteria;
+    }
+
+    static void applySearchKeys(Driver driver) {
+        driver.setFirstNameKey(SearchKeys.normalize(driver.getFirstName()));
+        driver.setLastNameKey(SearchKeys.normalize(driver.getLastName()));
+        driver.setLicenseNumberKey(SearchKeys.normalize(driver.getLicenseNumber()));
+    }
+
+    /**
+     * Fills the normalized search keys on documents written before they existed.
+     * Returns the number of documents updated.
+     */
+    public long backfillSearchKeys() {
+        Query query = new Query(Criteria.where("licenseNumberKey").exists(false));
+        query.fields().include("firstName", "lastName", "licenseNumber");
+        query.cursorBatchSize(BACKFILL_BATCH_SIZE);
+
+        long updated = 0;
+        List<Pair<Query, UpdateDefinition>> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+
+        try (Stream<Driver> drivers = mongoTemplate.stream(query, Driver.class)) {
+            Iterator<Driver> iterator = drivers.iterator();
+            while (iterator.hasNext()) {
+                Driver driver = iterator.next();
+                batch.add(Pair.of(
+                        Query.query(Criteria.where("id").is(driver.getId())),
+                        new Update()
+                                .set("firstNameKey", SearchKeys.normalize(driver.getFirstName()))
+                                .set("lastNameKey", SearchKeys.normalize(driver.getLastName()))
+                                .set("licenseNumberKey", SearchKeys.normalize(driver.getLicenseNumber()))));
+
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    updated += flushBackfill(batch);
+                }
+            }
+        }
+        updated += flushBackfill(batch);
+
+        log.debug("Backfilled search keys on {} drivers", updated);
+
+        return updated;
+    }
+
+    private long flushBackfill(List<Pair<Query, UpdateDefinition>> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long modified = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Driver.class)
+                .updateOne(batch)
+                .execute()
+                .getModifiedCount();
+        batch.clear();
+        return modified;
+    }
+
+    private boolean isUniqueIndexConfirmed() {
+        return indexManager != null && indexManager.isUniqueIndexConfirmed(Driver.class);
+    }
+
+    /**
+     * Whether another active driver (any but {@code exceptId}) has this license number.
+     */
+    boolean licenseNumberTaken(String licenseNumber, String exceptId) {
+        return mongoTemplate.exists(licenseNumberQuery(licenseNumber, exceptId), Driver.class);
+    }
+
+    static Query licenseNumberQuery(String licenseNumber, String exceptId) {
+        Criteria criteria = Criteria.where("licenseNumber").is(licenseNumber).and("isActive").is(true);
+        if (exceptId != null) {
+            criteria.and("id").ne(exceptId);
+        }
+        return new Query(criteria);
     }
 
 }
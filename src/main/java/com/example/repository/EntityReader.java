@@ -0,0 +1,121 @@
+package com.example.repository;
+
+import com.example.utils.RequestTimings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs the repositories' find queries. By default they go through MongoTemplate and its
+ * reflective MappingMongoConverter. With {@code app.mongo.codecs.enabled=true} the query is
+ * still mapped by Spring Data, but the results are decoded straight into the entity by the
+ * codecs registered in MongoConfig.
+ */
+@Component
+public class EntityReader {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityReader.class);
+
+    private MongoTemplate mongoTemplate;
+
+    private QueryMapper queryMapper;
+
+    @Value("${app.mongo.codecs.enabled:false}")
+    private boolean codecsEnabled;
+
+    @Autowired
+    public void setMongoTemplate(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    public <T> List<T> find(Query query, Class<T> type) {
+        try (RequestTimings.Span span = RequestTimings.span("find")) {
+            if (!codecsEnabled) {
+                return mongoTemplate.find(query, type);
+            }
+            return mongoTemplate.execute(type, collection ->
+                    prepare(collection(collection, query, type).find(), query, type).into(new ArrayList<>()));
+        }
+    }
+
+    public <T> T findOne(Query query, Class<T> type) {
+        try (RequestTimings.Span span = RequestTimings.span("find")) {
+            if (!codecsEnabled) {
+                return mongoTemplate.findOne(query, type);
+            }
+            return mongoTemplate.execute(type, collection ->
+                    prepare(collection(collection, query, type).find(), query, type).limit(1).first());
+        }
+    }
+
+    /**
+     * Opens a cursor over the query results; the caller must close the stream.
+     */
+    public <T> Stream<T> stream(Query query, Class<T> type) {
+        if (!codecsEnabled) {
+            return mongoTemplate.stream(query, type);
+        }
+        MongoCursor<T> cursor = mongoTemplate.execute(type, collection ->
+                prepare(collection(collection, query, type).find(), query, type).cursor());
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+
+    private static <T> MongoCollection<T> collection(MongoCollection<Document> collection, Query query, Class<T> type) {
+        MongoCollection<T> typed = collection.withDocumentClass(type);
+        // MongoTemplate honours a read preference set on the query; do the same here
+        return query.hasReadPreference() ? typed.withReadPreference(query.getReadPreference()) : typed;
+    }
+
+    private <T> FindIterable<T> prepare(FindIterable<T> iterable, Query query, Class<T> type) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(type);
+
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        iterable.filter(filter);
+
+        Document fields = query.getFieldsObject();
+        if (!fields.isEmpty()) {
+            iterable.projection(queryMapper.getMappedFields(fields, entity));
+        }
+
+        Document sort = query.getSortObject();
+        if (!sort.isEmpty()) {
+            iterable.sort(queryMapper.getMappedSort(sort, entity));
+        }
+
+        if (query.getSkip() > 0) {
+            iterable.skip((int) query.getSkip());
+        }
+        if (query.isLimited()) {
+            iterable.limit(query.getLimit());
+        }
+
+        Integer batchSize = query.getMeta().getCursorBatchSize();
+        if (batchSize != null) {
+            iterable.batchSize(batchSize);
+        }
+
+        log.trace("Direct find on {} filter={} sort={}", type.getSimpleName(), filter, sort);
+
+        return iterable;
+    }
+}
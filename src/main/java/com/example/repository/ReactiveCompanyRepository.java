@@ -0,0 +1,297 @@
+package com.example.repository;
+
+import com.example.cache.EntityCache;
+import com.example.config.MongoIndexManager;
+import com.example.config.ReadRouting;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.model.Company;
+import com.example.utils.SearchCursor;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link CompanyRepository} for the WebFlux variant. Queries,
+ * updates and the cache are shared with the blocking repository; only the execution differs.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCompanyRepository.class);
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private EntityCache<Company> companyCache;
+    private MongoIndexManager indexManager;
+    private ReadRouting readRouting;
+
+    @Autowired
+    public void setMongoTemplate(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Autowired
+    public void setReadRouting(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
+
+    @Autowired
+    public void setCompanyCache(EntityCache<Company> companyCache) {
+        this.companyCache = companyCache;
+    }
+
+    @Autowired
+    public void setIndexManager(MongoIndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+
+    /**
+     * Inserts a new company; a duplicate active registration number fails with a {@link DuplicateKeyException}.
+     */
+    public Mono<Company> insert(Company company) {
+        log.debug("Inserting company into database");
+
+        CompanyRepository.applySearchKeys(company);
+
+        return rejectTaken(company.getRegistrationNumber(), null)
+                .then(mongoTemplate.insert(company))
+                .doOnNext(saved -> {
+                    companyCache.put(saved.getId(), saved);
+                    log.debug("Company inserted successfully. id={}", saved.getId());
+                });
+    }
+
+    public Mono<Company> findById(String id) {
+        Company cached = companyCache.get(id);
+        if (cached != null) {
+            log.debug("Company served from cache for id={}", id);
+            return Mono.just(cached);
+        }
+
+        log.debug("Fetching company from DB for id={}", id);
+
+        return Mono.defer(() -> {
+            // taken when the read starts, so a write that lands during it keeps the cache
+            long stamp = companyCache.writeStamp(id);
+            return mongoTemplate.findOne(CompanyRepository.activeById(id, null), Company.class)
+                    .doOnNext(company -> companyCache.putLoaded(id, company, stamp));
+        });
+    }
+
+    /**
+     * Like {@link #findById(String)}, but reads only the selected fields on a cache miss.
+     * A cached company is returned whole; partial companies are never cached.
+     */
+    public Mono<Company> findById(String id, Set<String> fields) {
+        if (fields == null) {
+            return findById(id);
+        }
+
+        Company cached = companyCache.get(id);
+        if (cached != null) {
+            log.debug("Company served from cache for id={}", id);
+            return Mono.just(cached);
+        }
+
+        log.debug("Fetching company fields {} from DB for id={}", fields, id);
+
+        return mongoTemplate.findOne(SearchSupport.project(CompanyRepository.activeById(id, null), fields), Company.class);
+    }
+
+    /**
+     * Inserts the companies with one unordered bulk write and emits the Mongo error code for
+     * every position that failed; an empty map means everything was written.
+     */
+    public Mono<Map<Integer, Integer>> insertAll(List<Company> companies) {
+        if (companies.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        log.debug("Bulk inserting {} companies", companies.size());
+
+        for (Company company : companies) {
+            company.setId(new ObjectId().toHexString());
+            CompanyRepository.applySearchKeys(company);
+        }
+
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Company.class)
+                .insert(companies)
+                .execute()
+                .<Map<Integer, Integer>>map(result -> Map.of())
+                .onErrorResume(ex -> CompanyRepository.findBulkWriteException(ex) != null, ex -> {
+                    MongoBulkWriteException bulkException = CompanyRepository.findBulkWriteException(ex);
+
+                    Map<Integer, Integer> failures = new HashMap<>();
+                    for (BulkWriteError error : bulkException.getWriteErrors()) {
+                        failures.put(error.getIndex(), error.getCode());
+                    }
+
+                    log.debug("Bulk insert of companies finished with {} failures", failures.size());
+
+                    return Mono.just(failures);
+                });
+    }
+
+    /**
+     * Emits the given registrationNumbers that already belong to an active company, using one $in query.
+     */
+    public Flux<String> findExistingRegistrationNumbers(Collection<String> registrationNumbers) {
+        if (registrationNumbers.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Query query = new Query(Criteria.where("registrationNumber").in(registrationNumbers).and("isActive").is(true));
+        query.fields().include("registrationNumber");
+
+        return mongoTemplate.find(query, Company.class).map(Company::getRegistrationNumber);
+    }
+
+    /**
+     * Sets the given fields (and modifiedOn) with one findAndModify; see
+     * {@link CompanyRepository#updateFields}. Completes empty when nothing matched.
+     */
+    public Mono<Company> updateFields(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        log.debug("Updating fields {} on company id={}", changes.keySet(), id);
+
+        Object registrationNumber = changes.get("registrationNumber");
+        Mono<Void> uniqueCheck = registrationNumber == null ? Mono.empty() : rejectTaken((String) registrationNumber, id);
+
+        return uniqueCheck.then(mongoTemplate.findAndModify(CompanyRepository.activeById(id, expectedModifiedOn),
+                        CompanyRepository.fieldsUpdate(changes), FindAndModifyOptions.options().returnNew(true), Company.class))
+                .doOnNext(updated -> companyCache.put(id, updated))
+                // missing, deleted or changed underneath us: don't keep serving the old copy
+                .switchIfEmpty(Mono.fromRunnable(() -> companyCache.evict(id)));
+    }
+
+    /**
+     * Marks the active company as deleted in a single update. Emits false when nothing matched.
+     */
+    public Mono<Boolean> softDelete(String id, Instant expectedModifiedOn) {
+        log.debug("Soft deleting company id={}", id);
+
+        Update update = new Update()
+                .set("isActive", false)
+                .set("modifiedOn", Instant.now());
+
+        return mongoTemplate.updateFirst(CompanyRepository.activeById(id, expectedModifiedOn), update, Company.class)
+                .map(result -> result.getMatchedCount() > 0)
+                .doFinally(signal -> companyCache.evict(id));
+    }
+
+    /**
+     * Fails with a {@link DuplicateKeyException} when another active company has this registration number.
+     * Only checked until the unique index is confirmed; after that the write itself fails.
+     */
+    private Mono<Void> rejectTaken(String registrationNumber, String exceptId) {
+        if (indexManager != null && indexManager.isUniqueIndexConfirmed(Company.class)) {
+            return Mono.empty();
+        }
+        return mongoTemplate.exists(CompanyRepository.registrationNumberQuery(registrationNumber, exceptId), Company.class)
+                .flatMap(taken -> taken
+                        ? Mono.error(new DuplicateKeyException("Active company with registrationNumber " + registrationNumber + " already exists"))
+                        : Mono.empty());
+    }
+
+    /**
+     * Checks the database (not the cache) for an active company with this id.
+     */
+    public Mono<Boolean> existsById(String id) {
+        return mongoTemplate.exists(CompanyRepository.activeById(id, null), Company.class);
+    }
+
+    public Mono<SearchPage<Company>> getAllCompanyBySearch(
+            String companyName,
+            String registrationNumber,
+            Integer pageIndex,
+            Integer itemsPerPage,
+            TotalMode totalMode,
+            int countLimit,
+            Set<String> fields) {
+
+        log.debug("Searching companies. companyName={}, registrationNumber={}, pageIndex={}, itemsPerPage={}, totalMode={}",
+                companyName, registrationNumber, pageIndex, itemsPerPage, totalMode);
+
+        Pageable pageable = PageRequest.of(pageIndex, itemsPerPage, Sort.by(Sort.Direction.DESC, "modifiedOn"));
+
+        return ReactiveSearchSupport.search(
+                mongoTemplate,
+                readRouting,
+                Company.class,
+                CompanyRepository.buildSearchCriteria(companyName, registrationNumber),
+                pageable,
+                totalMode,
+                countLimit,
+                StringUtils.hasText(companyName) || StringUtils.hasText(registrationNumber),
+                fields);
+    }
+
+    /**
+     * Emits the matching companies one by one in search order, for clients that consume the
+     * page as a stream instead of waiting for the whole response.
+     */
+    public Flux<Company> findCompanies(String companyName, String registrationNumber, Integer pageIndex, Integer itemsPerPage,
+                                       Set<String> fields) {
+
+        Pageable pageable = PageRequest.of(pageIndex, itemsPerPage, Sort.by(Sort.Direction.DESC, "modifiedOn"));
+        Query query = new Query(CompanyRepository.buildSearchCriteria(companyName, registrationNumber)).with(pageable);
+
+        return Flux.deferContextual(context -> mongoTemplate.find(readRouting.forSearch(SearchSupport.project(query, fields), context), Company.class));
+    }
+
+    public Mono<CursorPage<Company>> getCompaniesAfterCursor(
+            String companyName,
+            String registrationNumber,
+            SearchCursor cursor,
+            Integer itemsPerPage,
+            Set<String> fields) {
+
+        log.debug("Searching companies by cursor. companyName={}, registrationNumber={}, cursor={}, itemsPerPage={}",
+                companyName, registrationNumber, cursor, itemsPerPage);
+
+        Query query = CompanyRepository.cursorQuery(companyName, registrationNumber, cursor, itemsPerPage, fields);
+
+        return Flux.deferContextual(context -> mongoTemplate.find(readRouting.forSearch(query, context), Company.class))
+                .collectList()
+                .map(companies -> SearchSupport.cursorPage(companies, itemsPerPage,
+                        company -> new SearchCursor(company.getModifiedOn(), company.getId())));
+    }
+
+    /**
+     * Emits the active companies matching the filters and the optional modifiedOn range, in
+     * _id order. The driver fetches further batches only as fast as the subscriber requests them.
+     */
+    public Flux<Company> streamCompanies(String companyName, String registrationNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.debug("Opening company export cursor. modifiedFrom={}, modifiedTo={}", modifiedFrom, modifiedTo);
+
+        Query query = CompanyRepository.exportQuery(companyName, registrationNumber, modifiedFrom, modifiedTo);
+
+        return Flux.deferContextual(context -> mongoTemplate.find(readRouting.forSearch(query, context), Company.class));
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.repository;
+
+import com.example.cache.EntityCache;
+import com.example.config.MongoIndexManager;
+import com.example.config.ReadRouting;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.model.Driver;
+import com.example.utils.SearchCursor;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link DriverRepository} for the WebFlux variant. Queries,
+ * updates and the cache are shared with the blocking repository; only the execution differs.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDriverRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDriverRepository.class);
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private EntityCache<Driver> driverCache;
+    private MongoIndexManager indexManager;
+    private ReadRouting readRouting;
+
+    @Autowired
+    public void setMongoTemplate(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Autowired
+    public void setReadRouting(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
+
+    @Autowired
+    public void setDriverCache(EntityCache<Driver> driverCache) {
+        this.driverCache = driverCache;
+    }
+
+    @Autowired
+    public void setIndexManager(MongoIndexManager indexManager) {
+        this.indexManager = indexManager;
+    }
+
+    /**
+     * Inserts a new driver; a duplicate active license number fails with a {@link DuplicateKeyException}.
+     */
+    public Mono<Driver> insert(Driver driver) {
+        log.debug("Inserting driver into DB");
+
+        DriverRepository.applySearchKeys(driver);
+
+        return rejectTaken(driver.getLicenseNumber(), null)
+                .then(mongoTemplate.insert(driver))
+                .doOnNext(saved -> {
+                    driverCache.put(saved.getId(), saved);
+                    log.debug("Driver inserted successfully. id={}", saved.getId());
+                });
+    }
+
+    public Mono<Driver> findById(String id) {
+        Driver cached = driverCache.get(id);
+        if (cached != null) {
+            log.debug("Driver served from cache for id={}", id);
+            return Mono.just(cached);
+        }
+
+        log.debug("Finding driver by id={} and isActive=true", id);
+
+        return Mono.defer(() -> {
+            // taken when the read starts, so a write that lands during it keeps the cache
+            long stamp = driverCache.writeStamp(id);
+            return mongoTemplate.findOne(DriverRepository.activeById(id, null), Driver.class)
+                    .doOnNext(driver -> driverCache.putLoaded(id, driver, stamp));
+        });
+    }
+
+    /**
+     * Like {@link #findById(String)}, but reads only the selected fields on a cache miss.
+     * A cached driver is returned whole; partial drivers are never cached.
+     */
+    public Mono<Driver> findById(String id, Set<String> fields) {
+        if (fields == null) {
+            return findById(id);
+        }
+
+        Driver cached = driverCache.get(id);
+        if (cached != null) {
+            log.debug("Driver served from cache for id={}", id);
+            return Mono.just(cached);
+        }
+
+        log.debug("Finding driver fields {} by id={}", fields, id);
+
+        return mongoTemplate.findOne(SearchSupport.project(DriverRepository.activeById(id, null), fields), Driver.class);
+    }
+
+    /**
+     * Inserts the drivers with one unordered bulk write and emits the Mongo error code for
+     * every position that failed; an empty map means everything was written.
+     */
+    public Mono<Map<Integer, Integer>> insertAll(List<Driver> drivers) {
+        if (drivers.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        log.debug("Bulk inserting {} drivers", drivers.size());
+
+        for (Driver driver : drivers) {
+            driver.setId(new ObjectId().toHexString());
+            DriverRepository.applySearchKeys(driver);
+        }
+
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Driver.class)
+                .insert(drivers)
+                .execute()
+                .<Map<Integer, Integer>>map(result -> Map.of())
+                .onErrorResume(ex -> DriverRepository.findBulkWriteException(ex) != null, ex -> {
+                    MongoBulkWriteException bulkException = DriverRepository.findBulkWriteException(ex);
+
+                    Map<Integer, Integer> failures = new HashMap<>();
+                    for (BulkWriteError error : bulkException.getWriteErrors()) {
+                        failures.put(error.getIndex(), error.getCode());
+                    }
+
+                    log.debug("Bulk insert of drivers finished with {} failures", failures.size());
+
+                    return Mono.just(failures);
+                });
+    }
+
+    /**
+     * Emits the given licenseNumbers that already belong to an active driver, using one $in query.
+     */
+    public Flux<String> findExistingLicenseNumbers(Collection<String> licenseNumbers) {
+        if (licenseNumbers.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Query query = new Query(Criteria.where("licenseNumber").in(licenseNumbers).and("isActive").is(true));
+        query.fields().include("licenseNumber");
+
+        return mongoTemplate.find(query, Driver.class).map(Driver::getLicenseNumber);
+    }
+
+    /**
+     * Sets the given fields (and modifiedOn) with one findAndModify; see
+     * {@link DriverRepository#updateFields}. Completes empty when nothing matched.
+     */
+    public Mono<Driver> updateFields(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        log.debug("Updating fields {} on driver id={}", changes.keySet(), id);
+
+        Object licenseNumber = changes.get("licenseNumber");
+        Mono<Void> uniqueCheck = licenseNumber == null ? Mono.empty() : rejectTaken((String) licenseNumber, id);
+
+        return uniqueCheck.then(mongoTemplate.findAndModify(DriverRepository.activeById(id, expectedModifiedOn),
+                        DriverRepository.fieldsUpdate(changes), FindAndModifyOptions.options().returnNew(true), Driver.class))
+                .doOnNext(updated -> driverCache.put(id, updated))
+                // missing, deleted or changed underneath us: don't keep serving the old copy
+                .switchIfEmpty(Mono.fromRunnable(() -> driverCache.evict(id)));
+    }
+
+    /**
+     * Marks the active driver as deleted in a single update. Emits false when nothing matched.
+     */
+    public Mono<Boolean> softDelete(String id, Instant expectedModifiedOn) {
+        log.debug("Soft deleting driver id={}", id);
+
+        Update update = new Update()
+                .set("isActive", false)
+                .set("modifiedOn", Instant.now());
+
+        return mongoTemplate.updateFirst(DriverRepository.activeById(id, expectedModifiedOn), update, Driver.class)
+                .map(result -> result.getMatchedCount() > 0)
+                .doFinally(signal -> driverCache.evict(id));
+    }
+
+    /**
+     * Fails with a {@link DuplicateKeyException} when another active driver has this license number.
+     * Only checked until the unique index is confirmed; after that the write itself fails.
+     */
+    private Mono<Void> rejectTaken(String licenseNumber, String exceptId) {
+        if (indexManager != null && indexManager.isUniqueIndexConfirmed(Driver.class)) {
+            return Mono.empty();
+        }
+        return mongoTemplate.exists(DriverRepository.licenseNumberQuery(licenseNumber, exceptId), Driver.class)
+                .flatMap(taken -> taken
+                        ? Mono.error(new DuplicateKeyException("Active driver with licenseNumber " + licenseNumber + " already exists"))
+                        : Mono.empty());
+    }
+
+    /**
+     * Checks the database (not the cache) for an active driver with this id.
+     */
+    public Mono<Boolean> existsById(String id) {
+        return mongoTemplate.exists(DriverRepository.activeById(id, null), Driver.class);
+    }
+
+    public Mono<SearchPage<Driver>> searchDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex,
+                                                  Integer itemsPerPage, TotalMode totalMode, int countLimit, Set<String> fields) {
+
+        log.debug("Executing driver search query. totalMode={}", totalMode);
+
+        Pageable pageable = PageRequest.of(pageIndex, itemsPerPage, Sort.by(Sort.Direction.ASC, "createdOn"));
+
+        return ReactiveSearchSupport.search(
+                mongoTemplate,
+                readRouting,
+                Driver.class,
+                DriverRepository.buildSearchCriteria(firstName, lastName, licenseNumber),
+                pageable,
+                totalMode,
+                countLimit,
+                StringUtils.hasText(firstName) || StringUtils.hasText(lastName) || StringUtils.hasText(licenseNumber),
+                fields);
+    }
+
+    /**
+     * Emits the matching drivers one by one in search order, for clients that consume the
+     * page as a stream instead of waiting for the whole response.
+     */
+    public Flux<Driver> findDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex,
+                                    Integer itemsPerPage, Set<String> fields) {
+
+        Pageable pageable = PageRequest.of(pageIndex, itemsPerPage, Sort.by(Sort.Direction.ASC, "createdOn"));
+        Query query = new Query(DriverRepository.buildSearchCriteria(firstName, lastName, licenseNumber)).with(pageable);
+
+        return Flux.deferContextual(context -> mongoTemplate.find(readRouting.forSearch(SearchSupport.project(query, fields), context), Driver.class));
+    }
+
+    public Mono<CursorPage<Driver>> searchDriversAfterCursor(String firstName, String lastName, String licenseNumber,
+                                                             SearchCursor cursor, Integer itemsPerPage, Set<String> fields) {
+
+        log.debug("Executing driver cursor search query");
+
+        Query query = DriverRepository.cursorQuery(firstName, lastName, licenseNumber, cursor, itemsPerPage, fields);
+
+        return Flux.deferContextual(context -> mongoTemplate.find(readRouting.forSearch(query, context), Driver.class))
+                .collectList()
+                .map(drivers -> SearchSupport.cursorPage(drivers, itemsPerPage,
+                        driver -> new SearchCursor(driver.getCreatedOn(), driver.getId())));
+    }
+
+    /**
+     * Emits the active drivers matching the filters and the optional modifiedOn range, in
+     * _id order. The driver fetches further batches only as fast as the subscriber requests them.
+     */
+    public Flux<Driver> streamDrivers(String firstName, String lastName, String licenseNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.debug("Opening driver export cursor. modifiedFrom={}, modifiedTo={}", modifiedFrom, modifiedTo);
+
+        Query query = DriverRepository.exportQuery(firstName, lastName, licenseNumber, modifiedFrom, modifiedTo);
+
+        return Flux.deferContextual(context -> mongoTemplate.find(readRouting.forSearch(query, context), Driver.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.repository;
+
+import com.example.config.ReadRouting;
+import com.example.dto.SearchPage;
+import com.example.dto.SearchPage.TotalAccuracy;
+import com.example.dto.TotalMode;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.Set;
+
+/**
+ * Reactive counterpart of {@link SearchSupport}: the page and the count are issued together
+ * and combined when both complete, instead of one after the other.
+ */
+final class ReactiveSearchSupport {
+
+    private ReactiveSearchSupport() {}
+
+    static <T> Mono<SearchPage<T>> search(
+            ReactiveMongoTemplate mongoTemplate,
+            ReadRouting readRouting,
+            Class<T> type,
+            Criteria criteria,
+            Pageable pageable,
+            TotalMode totalMode,
+            int countLimit,
+            boolean filtered,
+            Set<String> fields) {
+
+        // the routing depends on the request's X-Read-After, carried in the Reactor context
+        return Mono.deferContextual(context -> {
+            if (totalMode == TotalMode.FACET) {
+                return mongoTemplate.aggregate(SearchSupport.facetAggregation(readRouting.searchReadPreference(context), type, criteria, pageable, fields), Document.class)
+                        .next()
+                        .map(result -> SearchSupport.fromFacet(result, mongoTemplate.getConverter(), type, pageable))
+                        .switchIfEmpty(Mono.fromSupplier(() -> SearchSupport.fromFacet(null, mongoTemplate.getConverter(), type, pageable)));
+            }
+
+            Mono<SearchPage<T>> content = mongoTemplate
+                    .find(readRouting.forSearch(SearchSupport.project(new Query(criteria).with(pageable), fields), context), type)
+                    .collectList()
+                    .map(list -> new SearchPage<>(list, pageable.getPageNumber(), pageable.getPageSize(), null, TotalAccuracy.NONE));
+
+            return switch (totalMode) {
+                case EXACT -> content.zipWith(mongoTemplate.count(readRouting.forSearch(new Query(criteria), context), type),
+                        (page, total) -> withTotal(page, total, TotalAccuracy.EXACT));
+                case ESTIMATED -> content.zipWith(estimatedCount(mongoTemplate, readRouting, context, type, criteria, countLimit, filtered),
+                        (page, total) -> total > countLimit && !filtered
+                                ? withTotal(page, total, TotalAccuracy.ESTIMATED)
+                                : capped(page, total, countLimit));
+                case CAPPED -> content.zipWith(cappedCount(mongoTemplate, readRouting, context, type, criteria, countLimit),
+                        (page, total) -> capped(page, total, countLimit));
+                default -> content;
+            };
+        });
+    }
+
+    private static Mono<Long> cappedCount(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting, ContextView context,
+                                          Class<?> type, Criteria criteria, int countLimit) {
+        // one past the limit tells us the real total is larger
+        return mongoTemplate.count(readRouting.forSearch(new Query(criteria).limit(countLimit + 1), context), type);
+    }
+
+    /**
+     * The active matches counted up to the limit; past it, and only when unfiltered, the
+     * collection estimate, which also counts soft-deleted documents.
+     */
+    private static Mono<Long> estimatedCount(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting, ContextView context,
+                                             Class<?> type, Criteria criteria, int countLimit, boolean filtered) {
+        return cappedCount(mongoTemplate, readRouting, context, type, criteria, countLimit)
+                .flatMap(total -> total <= countLimit || filtered
+                        ? Mono.just(total)
+                        : mongoTemplate.estimatedCount(type).map(estimate -> Math.max(estimate, countLimit + 1L)));
+    }
+
+    private static <T> SearchPage<T> capped(SearchPage<T> page, long total, int countLimit) {
+        return total > countLimit
+                ? withTotal(page, countLimit, TotalAccuracy.AT_LEAST)
+                : withTotal(page, total, TotalAccuracy.EXACT);
+    }
+
+    private static <T> SearchPage<T> withTotal(SearchPage<T> page, long total, TotalAccuracy accuracy) {
+        return new SearchPage<>(page.content(), page.pageIndex(), page.itemsPerPage(), total, accuracy);
+    }
+}
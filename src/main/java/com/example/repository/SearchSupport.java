@@ -0,0 +1,191 @@
+package com.example.repository;
+
+import com.example.config.ReadRouting;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.SearchPage.TotalAccuracy;
+import com.example.dto.TotalMode;
+import com.example.utils.RequestTimings;
+import com.example.utils.SearchCursor;
+import com.mongodb.ReadPreference;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Offset search shared by the repositories: fetches one page and computes
+ * {@code totalRecords} according to the requested {@link TotalMode}.
+ */
+final class SearchSupport {
+
+    private SearchSupport() {}
+
+    static <T> SearchPage<T> search(
+            MongoTemplate mongoTemplate,
+            EntityReader entityReader,
+            ReadRouting readRouting,
+            Class<T> type,
+            Criteria criteria,
+            Pageable pageable,
+            TotalMode totalMode,
+            int countLimit,
+            boolean filtered,
+            Set<String> fields) {
+
+        if (totalMode == TotalMode.FACET) {
+            return searchWithFacet(mongoTemplate, readRouting, type, criteria, pageable, fields);
+        }
+
+        Long total = null;
+        TotalAccuracy accuracy = TotalAccuracy.NONE;
+
+        switch (totalMode) {
+            case EXACT -> {
+                try (RequestTimings.Span span = RequestTimings.span("count")) {
+                    total = mongoTemplate.count(readRouting.forSearch(new Query(criteria)), type);
+                }
+                accuracy = TotalAccuracy.EXACT;
+            }
+            case ESTIMATED -> {
+                // collection metadata also counts soft-deleted documents, so count the active
+                // matches up to the limit and only fall back to it for larger unfiltered totals
+                total = cappedCount(mongoTemplate, readRouting, type, criteria, countLimit);
+                accuracy = total > countLimit ? TotalAccuracy.AT_LEAST : TotalAccuracy.EXACT;
+                if (accuracy == TotalAccuracy.AT_LEAST && !filtered) {
+                    try (RequestTimings.Span span = RequestTimings.span("count")) {
+                        total = Math.max(mongoTemplate.estimatedCount(type), countLimit + 1L);
+                    }
+                    accuracy = TotalAccuracy.ESTIMATED;
+                }
+            }
+            case CAPPED -> {
+                total = cappedCount(mongoTemplate, readRouting, type, criteria, countLimit);
+                accuracy = total > countLimit ? TotalAccuracy.AT_LEAST : TotalAccuracy.EXACT;
+            }
+            default -> {
+                // NONE: no count
+            }
+        }
+
+        if (accuracy == TotalAccuracy.AT_LEAST) {
+            total = (long) countLimit;
+        }
+
+        List<T> content = entityReader.find(readRouting.forSearch(project(new Query(criteria).with(pageable), fields)), type);
+
+        return new SearchPage<>(content, pageable.getPageNumber(), pageable.getPageSize(), total, accuracy);
+    }
+
+    /**
+     * Restricts the query to the selected fields; a null selection reads whole documents.
+     */
+    static Query project(Query query, Set<String> fields) {
+        if (fields != null) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return query;
+    }
+
+    private static long cappedCount(MongoTemplate mongoTemplate, ReadRouting readRouting, Class<?> type, Criteria criteria, int countLimit) {
+        // one past the limit tells us the real total is larger
+        try (RequestTimings.Span span = RequestTimings.span("count")) {
+            return mongoTemplate.count(readRouting.forSearch(new Query(criteria).limit(countLimit + 1)), type);
+        }
+    }
+
+    private static <T> SearchPage<T> searchWithFacet(
+            MongoTemplate mongoTemplate,
+            ReadRouting readRouting,
+            Class<T> type,
+            Criteria criteria,
+            Pageable pageable,
+            Set<String> fields) {
+
+        try (RequestTimings.Span span = RequestTimings.span("facet")) {
+            Document result = mongoTemplate.aggregate(facetAggregation(readRouting.searchReadPreference(), type, criteria, pageable, fields), Document.class)
+                    .getUniqueMappedResult();
+
+            return fromFacet(result, mongoTemplate.getConverter(), type, pageable);
+        }
+    }
+
+    /**
+     * One aggregation returning the page under "content" and the match count under "total".
+     */
+    static <T> TypedAggregation<T> facetAggregation(
+            ReadPreference readPreference,
+            Class<T> type,
+            Criteria criteria,
+            Pageable pageable,
+            Set<String> fields) {
+
+        List<AggregationOperation> pageOperations = new ArrayList<>(List.of(
+                Aggregation.sort(pageable.getSort()),
+                Aggregation.skip(pageable.getOffset()),
+                Aggregation.limit(pageable.getPageSize())));
+        if (fields != null) {
+            // written by hand: Aggregation.project("id") renders a computed copy of _id
+            Document projection = new Document("_id", 1);
+            fields.forEach(field -> projection.putIfAbsent("id".equals(field) ? "_id" : field, 1));
+            pageOperations.add(context -> new Document("$project", projection));
+        }
+
+        TypedAggregation<T> aggregation = Aggregation.newAggregation(type,
+                Aggregation.match(criteria),
+                Aggregation.facet(pageOperations.toArray(AggregationOperation[]::new))
+                        .as("content")
+                        .and(Aggregation.count().as("total"))
+                        .as("total"));
+
+        if (readPreference != null) {
+            aggregation = aggregation.withOptions(AggregationOptions.builder()
+                    .readPreference(readPreference)
+                    .build());
+        }
+
+        return aggregation;
+    }
+
+    static <T> SearchPage<T> fromFacet(Document result, MongoConverter converter, Class<T> type, Pageable pageable) {
+        List<T> content = new ArrayList<>();
+        long total = 0;
+
+        if (result != null) {
+            for (Document document : result.getList("content", Document.class)) {
+                content.add(converter.read(type, document));
+            }
+
+            List<Document> totals = result.getList("total", Document.class);
+            if (!totals.isEmpty()) {
+                total = ((Number) totals.get(0).get("total")).longValue();
+            }
+        }
+
+        return new SearchPage<>(content, pageable.getPageNumber(), pageable.getPageSize(), total, TotalAccuracy.EXACT);
+    }
+
+    /**
+     * Trims a keyset query result (fetched with one extra row) to a page, and encodes the
+     * next cursor from the last row when the extra row shows that more pages follow.
+     */
+    static <T> CursorPage<T> cursorPage(List<T> rows, int itemsPerPage, Function<T, SearchCursor> cursorOf) {
+        if (rows.size() <= itemsPerPage) {
+            return new CursorPage<>(rows, itemsPerPage, null);
+        }
+
+        List<T> content = rows.subList(0, itemsPerPage);
+        return new CursorPage<>(content, itemsPerPage, cursorOf.apply(content.get(itemsPerPage - 1)).encode());
+    }
+}
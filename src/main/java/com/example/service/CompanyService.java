@@ -1,239 +1,330 @@
 package com.example.service;
 
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkItemResult;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
 import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.Company;
 import com.example.repository.CompanyRepository;
-import com.example.utils.i11Utils;
-import org.springframework.data.domain.Page;
+import com.example.utils.FieldSelection;
+import com.example.utils.RequestTimings;
+import com.example.utils.SearchCursor;
+import com.example.validation.CompanyValidator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.util.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class CompanyService {
 
     private static final Logger log = LoggerFactory.getLogger(CompanyService.class);
 
+    // Fields clients may select with fields=, in the order of the full JSON response
+    public static final FieldSelection<Company> FIELDS = FieldSelection.<Company>builder("id")
+            .field("address1", Company::getAddress1)
+            .field("address2", Company::getAddress2)
+            .field("city", Company::getCity)
+            .field("companyName", Company::getCompanyName)
+            .field("createdOn", Company::getCreatedOn)
+            .field("establishedOn", Company::getEstablishedOn)
+            .field("id", Company::getId)
+            .field("isActive", Company::getIsActive)
+            .field("modifiedOn", Company::getModifiedOn)
+            .field("primaryContactEmail", Company::getPrimaryContactEmail)
+            .field("primaryContactFirstName", Company::getPrimaryContactFirstName)
+            .field("primaryContactLastName", Company::getPrimaryContactLastName)
+            .field("primaryContactMobile", Company::getPrimaryContactMobile)
+            .field("registrationNumber", Company::getRegistrationNumber)
+            .field("state", Company::getState)
+            .field("website", Company::getWebsite)
+            .field("zipCode", Company::getZipCode)
+            .build();
+
+    static final int DUPLICATE_KEY_ERROR = 11000;
+
+    static final String DUPLICATE_REGISTRATION_NUMBER = "Company with the same Registration Number already exists";
+
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private CompanyValidator companyValidator;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
+
     public void setCompanyRepository(CompanyRepository companyRepository) {
         this.companyRepository = companyRepository;
     }
 
-    public Company createCompany(Company company) {
+    public void setCompanyValidator(CompanyValidator companyValidator) {
+        this.companyValidator = companyValidator;
+    }
 
-        log.debug("Validating mandatory fields for company");
+    public Company createCompany(Company company) {
 
-        validateMandatoryFields(company);
+        try (RequestTimings.Span span = RequestTimings.span("validate")) {
+            prepareForCreate(company);
+        }
 
-        if(companyRepository.checkCompanyExistByRegistractionNumber(company.getRegistrationNumber())) {
-            throw new BadRequestException("Company with the same Registration Number already exists");
+        Company saved;
+        try {
+            saved = companyRepository.insert(company);
+        } catch (DuplicateKeyException ex) {
+            throw new BadRequestException(DUPLICATE_REGISTRATION_NUMBER);
         }
 
-        log.debug("Validating established date");
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company saved successfully")
+                .addKeyValue("id", saved.getId()).log();
 
+        return saved;
+    }
 
-        if (company.getEstablishedOn() != null && !company.getEstablishedOn().trim().isEmpty()) {
-            try {
-                LocalDate date = LocalDate.parse(company.getEstablishedOn().trim(), i11Utils.DATE_FORMATTER);
+    /**
+     * Creates many companies in one pass: every item is validated, registration numbers are
+     * checked for duplicates inside the request and against the database with a single query,
+     * and the valid ones are written with one unordered bulk insert. Returns one result per item.
+     */
+    public List<BulkItemResult> createCompanies(List<Company> companies) {
+        if (companies == null || companies.isEmpty()) {
+            throw new BadRequestException("Please provide at least one company");
+        }
+        if (companies.size() > maxBulkItems) {
+            throw new BadRequestException("A bulk request can contain at most " + maxBulkItems + " companies");
+        }
 
-                // Validate future date
-                if (date.isAfter(LocalDate.now())) {
-                    throw new BadRequestException("Please provide a valid registration date. Future date is not allowed.");
-                }
+        log.atInfo().setMessage("Bulk create of companies").addKeyValue("companies", companies.size()).log();
 
-                // Validate too old date (optional)
-                if (date.isBefore(LocalDate.of(1800, 1, 1))) {
-                    throw new BadRequestException("Please provide a valid registration date.");
-                }
+        BulkItemResult[] results = new BulkItemResult[companies.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
 
-                company.setEstablishedOn(date.format(i11Utils.DATE_FORMATTER));
-            } catch (DateTimeParseException ex) {
-                log.error("Invalid establishedOn date format: {}", company.getEstablishedOn());
-                throw new BadRequestException("Invalid establishedOn date. Expected format is yyyy-MM-dd");
+        try (RequestTimings.Span span = RequestTimings.span("validate")) {
+            for (int i = 0; i < companies.size(); i++) {
+                Company company = companies.get(i);
+                if (company == null) {
+                    results[i] = BulkItemResult.failed(i, "Company must not be null");
+                    continue;
+                }
+                try {
+                    prepareForCreate(company);
+                } catch (BadRequestException ex) {
+                    results[i] = BulkItemResult.failed(i, ex.getMessage());
+                    continue;
+                }
+                if (candidates.putIfAbsent(company.getRegistrationNumber(), i) != null) {
+                    results[i] = BulkItemResult.failed(i, DUPLICATE_REGISTRATION_NUMBER);
+                }
             }
         }
 
-        if (company.getPrimaryContactMobile() != null && !company.getPrimaryContactMobile().isEmpty()) {
-            Pattern pattern = Pattern.compile(i11Utils.MOBILE_PATTERN);
-            String mobile = company.getPrimaryContactMobile().trim(); // remove spaces
-            log.info("Mobile after trim: '{}'", mobile);
-            if (!pattern.matcher(mobile).matches()) {
-                throw new BadRequestException("Invalid mobile number");
+        for (String existing : companyRepository.findExistingRegistrationNumbers(candidates.keySet())) {
+            int index = candidates.remove(existing);
+            results[index] = BulkItemResult.failed(index, DUPLICATE_REGISTRATION_NUMBER);
+        }
+
+        List<Integer> indexes = new ArrayList<>(candidates.values());
+        List<Company> toInsert = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            toInsert.add(companies.get(index));
+        }
+
+        Map<Integer, Integer> failures = companyRepository.insertAll(toInsert);
+
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            Integer errorCode = failures.get(i);
+            if (errorCode == null) {
+                results[index] = BulkItemResult.created(index, toInsert.get(i).getId());
+            } else if (errorCode == DUPLICATE_KEY_ERROR) {
+                // lost a race with a concurrent create
+                results[index] = BulkItemResult.failed(index, DUPLICATE_REGISTRATION_NUMBER);
+            } else {
+                results[index] = BulkItemResult.failed(index, "Company could not be saved");
             }
         }
 
-        if (company.getPrimaryContactEmail() != null && !company.getPrimaryContactEmail().isEmpty()) {
+        log.atInfo().setMessage("Bulk create finished")
+                .addKeyValue("requested", companies.size()).addKeyValue("created", indexes.size() - failures.size()).log();
 
-            Pattern pattern = Pattern.compile(i11Utils.EMAIL_PATTERN);
+        return Arrays.asList(results);
+    }
 
-            if (!pattern.matcher(company.getPrimaryContactEmail()).matches()) {
-                throw new BadRequestException("Invalid email");
-            }
+    /**
+     * Streams every active company matching the filters; the caller must close the stream.
+     */
+    public Stream<Company> exportCompanies(String companyName, String registrationNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.atInfo().setMessage("Exporting companies")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("modifiedFrom", modifiedFrom).addKeyValue("modifiedTo", modifiedTo).log();
 
+        if (modifiedFrom != null && modifiedTo != null && !modifiedFrom.isBefore(modifiedTo)) {
+            throw new BadRequestException("modifiedFrom must be before modifiedTo");
         }
 
+        return companyRepository.streamCompanies(companyName, registrationNumber, modifiedFrom, modifiedTo);
+    }
+
+    /**
+     * Validates and normalizes a new company and stamps its audit fields; does not save it.
+     */
+    public void prepareForCreate(Company company) {
+
+        companyValidator.validateForCreate(company);
+
         company.setCreatedOn(Instant.now());
         company.setModifiedOn(Instant.now());
         company.setIsActive(true);
+    }
 
-        Company saved = companyRepository.saveOrUpdate(company);
-
-        log.info("Company saved successfully with id={}", saved.getId());
 
-        return saved;
+    public Company updateCompany(String id, Company company) {
+        return updateCompany(id, company, null);
     }
 
+    /**
+     * Applies the supplied (non-empty) fields with a single findAndModify. When
+     * {@code expectedModifiedOn} is given the update only succeeds if the stored
+     * company has not been modified since, otherwise a {@link ConflictException} is thrown.
+     */
+    public Company updateCompany(String id, Company company, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Updating company").addKeyValue("id", id).log();
 
-    public Company updateCompany(String id, Company company) {
-        log.info("Updating company with id={}", id);
-        Company existing = companyRepository.findById(id);
+        log.debug("Collecting updates for company id={}", id);
 
-        if (existing == null) {
+        Map<String, Object> changes;
+        try (RequestTimings.Span span = RequestTimings.span("validate")) {
+            changes = collectChanges(company);
+        }
+
+        Company updated;
+        try {
+            updated = companyRepository.updateFields(id, changes, expectedModifiedOn);
+        } catch (DuplicateKeyException ex) {
+            // registration number already used by another active company
+            throw new BadRequestException(DUPLICATE_REGISTRATION_NUMBER);
+        }
+
+        if (updated == null) {
+            if (expectedModifiedOn != null && companyRepository.existsById(id)) {
+                log.warn("Company id={} was modified concurrently", id);
+                throw new ConflictException("Company was modified by another request. Reload it and try again.");
+            }
             log.warn("Company not found with id: {}", id);
-           // throw new RuntimeException("Company not found");
             throw new ResourceNotFoundException("Company not found with id: " + id);
         }
 
-        log.debug("Applying updates for company id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company updated successfully").addKeyValue("id", id).log();
 
-        // companyName
-        if (StringUtils.hasText(company.getCompanyName())) {
-            existing.setCompanyName(company.getCompanyName());
-        }
+        return updated;
 
-        // establishedOn (date as String, safe parse + validate)
-        if (company.getEstablishedOn() != null && !company.getEstablishedOn().trim().isEmpty()) {
-            try {
-                LocalDate date = LocalDate.parse(company.getEstablishedOn().trim(), i11Utils.DATE_FORMATTER);
+    }
 
-                // Validate future date
-                if (date.isAfter(LocalDate.now())) {
-                    throw new BadRequestException("Please provide a valid registration date. Future date is not allowed.");
-                }
+    /**
+     * Validates the supplied fields and returns them keyed by document field name;
+     * empty fields are left out so they keep their stored value.
+     */
+    public Map<String, Object> collectChanges(Company company) {
+        companyValidator.validateForUpdate(company);
 
-                // Validate too old date (optional)
-                if (date.isBefore(LocalDate.of(1800, 1, 1))) {
-                    throw new BadRequestException("Please provide a valid registration date.");
-                }
+        Map<String, Object> changes = new LinkedHashMap<>();
 
-                existing.setEstablishedOn(date.format(i11Utils.DATE_FORMATTER));
+        // companyName
+        if (StringUtils.hasText(company.getCompanyName())) {
+            changes.put("companyName", company.getCompanyName());
+        }
 
-            } catch (DateTimeParseException ex) {
-                log.error("Invalid establishedOn date format: {}", company.getEstablishedOn());
-                throw new BadRequestException("Invalid establishedOn date. Expected format is yyyy-MM-dd");
-            }
+        // establishedOn, normalized by the validator
+        if (company.getEstablishedOn() != null && !company.getEstablishedOn().trim().isEmpty()) {
+            changes.put("establishedOn", company.getEstablishedOn());
         }
 
-        // primaryContactMobile validation
+        // primaryContactMobile
         if (company.getPrimaryContactMobile() != null && !company.getPrimaryContactMobile().isEmpty()) {
-            if (!Pattern.matches(i11Utils.MOBILE_PATTERN, company.getPrimaryContactMobile())) {
-                throw new BadRequestException("Invalid mobile number");
-            }
-            existing.setPrimaryContactMobile(company.getPrimaryContactMobile());
+            changes.put("primaryContactMobile", company.getPrimaryContactMobile());
         }
 
-
-
-
-        // registrationNumber
+        // registrationNumber (uniqueness is enforced by the unique index)
         if (StringUtils.hasText(company.getRegistrationNumber())) {
-            if(existing.getRegistrationNumber().equalsIgnoreCase(company.getRegistrationNumber())){
-                existing.setRegistrationNumber(company.getRegistrationNumber());
-            }else if (companyRepository.checkCompanyExistByRegistractionNumber(company.getRegistrationNumber())) {
-                throw new BadRequestException("Company with the same Registration Number already exists");
-            }else {
-                existing.setRegistrationNumber(company.getRegistrationNumber());
-            }
+            changes.put("registrationNumber", company.getRegistrationNumber());
         }
 
         // website
         if (StringUtils.hasText(company.getWebsite())) {
-            existing.setWebsite(company.getWebsite());
+            changes.put("website", company.getWebsite());
         }
 
         // address1
         if (StringUtils.hasText(company.getAddress1())) {
-            existing.setAddress1(company.getAddress1());
+            changes.put("address1", company.getAddress1());
         }
 
         // address2
         if (StringUtils.hasText(company.getAddress2())) {
-            existing.setAddress2(company.getAddress2());
+            changes.put("address2", company.getAddress2());
         }
 
         // city
         if (StringUtils.hasText(company.getCity())) {
-            existing.setCity(company.getCity());
+            changes.put("city", company.getCity());
         }
 
         // state
         if (StringUtils.hasText(company.getState())) {
-            existing.setState(company.getState());
+            changes.put("state", company.getState());
         }
 
         // zipCode
         if (StringUtils.hasText(company.getZipCode())) {
-            existing.setZipCode(company.getZipCode());
+            changes.put("zipCode", company.getZipCode());
         }
 
         // primaryContactFirstName
         if (StringUtils.hasText(company.getPrimaryContactFirstName())) {
-            existing.setPrimaryContactFirstName(company.getPrimaryContactFirstName());
+            changes.put("primaryContactFirstName", company.getPrimaryContactFirstName());
         }
 
         // primaryContactLastName
         if (StringUtils.hasText(company.getPrimaryContactLastName())) {
-            existing.setPrimaryContactLastName(company.getPrimaryContactLastName());
+            changes.put("primaryContactLastName", company.getPrimaryContactLastName());
         }
 
         // primaryContactEmail
         if (StringUtils.hasText(company.getPrimaryContactEmail())) {
-            if (!Pattern.matches(i11Utils.EMAIL_PATTERN, company.getPrimaryContactEmail())) {
-                throw new BadRequestException("Invalid email");
-            }
-            existing.setPrimaryContactEmail(company.getPrimaryContactEmail());
+            changes.put("primaryContactEmail", company.getPrimaryContactEmail());
         }
 
-        // primaryContactMobile
-//        if (StringUtils.hasText(company.getPrimaryContactMobile())) {
-//            existing.setPrimaryContactMobile(company.getPrimaryContactMobile());
-//        }
-        existing.setModifiedOn(Instant.now());
-        Company updated = companyRepository.saveOrUpdate(existing);
-
-        log.info("Company updated successfully for id={}", id);
-
-        return updated;
-
+        return changes;
     }
 
-//    private void validateEstablishedDate(LocalDate establishedOn) {
-//
-//        // future date not allowed
-//        if (establishedOn.isAfter(LocalDate.now())) {
-//            throw new BadRequestException("Please provide a valid registration date. Future date is not allowed.");
-//        }
-//
-//        // too old date check (optional but professional)
-//        if (establishedOn.isBefore(LocalDate.of(1800, 1, 1))) {
-//            throw new BadRequestException("Please provide a valid registration date.");
-//        }
-//    }
-
-
     public Company getCompanyById(String id) {
-        log.info("getting company with id={}", id);
-        Company company =  companyRepository.findById(id);
+        return getCompanyById(id, null);
+    }
+
+    /**
+     * Returns the company with at least the selected fields; a null selection returns all of them.
+     */
+    public Company getCompanyById(String id, Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting company").addKeyValue("id", id).log();
+        Company company =  companyRepository.findById(id, fields);
         if (company == null) {
             log.warn("Company not found with id: {}", id);
             // throw new RuntimeException("Company not found");
@@ -242,33 +333,76 @@ public class CompanyService {
         return company;
     }
 
+    /**
+     * Returns the company's modifiedOn (null if it has none) without loading the rest of it,
+     * for answering conditional requests.
+     */
+    public Instant getCompanyVersion(String id) {
+        Company company = companyRepository.findVersion(id);
+        if (company == null) {
+            log.warn("Company not found with id: {}", id);
+            throw new ResourceNotFoundException("Company not found with id: " + id);
+        }
+        return company.getModifiedOn();
+    }
+
 
-    public Page<Company> getAllCompanyBySearch(String companyName, String registrationNumber, Integer pageIndex, Integer itemsPerPage) {
-        log.info("getting all companies with companyName={} , registrationNumber={}, pageIndex={}, itemsPerPage={}", companyName, registrationNumber,pageIndex,itemsPerPage);
-        return companyRepository.getAllCompanyBySearch(companyName, registrationNumber, pageIndex, itemsPerPage);
+    public SearchPage<Company> getAllCompanyBySearch(String companyName, String registrationNumber, Integer pageIndex, Integer itemsPerPage,
+                                                     String totalMode, Integer countLimit) {
+        return getAllCompanyBySearch(companyName, registrationNumber, pageIndex, itemsPerPage, totalMode, countLimit, null);
     }
 
-    private void validateMandatoryFields(Company company) {
-        if (!StringUtils.hasText(company.getCompanyName()) || !StringUtils.hasText(company.getRegistrationNumber())) {
+    public SearchPage<Company> getAllCompanyBySearch(String companyName, String registrationNumber, Integer pageIndex, Integer itemsPerPage,
+                                                     String totalMode, Integer countLimit, Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting all companies")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("pageIndex", pageIndex).addKeyValue("itemsPerPage", itemsPerPage)
+                .addKeyValue("totalMode", totalMode).log();
 
-            throw new BadRequestException("Company Name, Registration Number are mandatory");
+        if (countLimit == null || countLimit < 1) {
+            throw new BadRequestException("countLimit must be greater than zero");
         }
+
+        return companyRepository.getAllCompanyBySearch(companyName, registrationNumber, pageIndex, itemsPerPage,
+                TotalMode.from(totalMode), countLimit, fields);
     }
 
-    public void deleteCompany(String id) {
-        log.info("Soft delete initiated for company id={}", id);
-        Company company = companyRepository.findById(id);
+    public CursorPage<Company> getCompaniesByCursor(String companyName, String registrationNumber, String cursor, Integer itemsPerPage) {
+        return getCompaniesByCursor(companyName, registrationNumber, cursor, itemsPerPage, null);
+    }
 
-        if (company == null) {
-            throw new ResourceNotFoundException("Company not found with id: " + id);
+    public CursorPage<Company> getCompaniesByCursor(String companyName, String registrationNumber, String cursor, Integer itemsPerPage,
+                                                    Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting companies by cursor")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        if (itemsPerPage == null || itemsPerPage < 1) {
+            throw new BadRequestException("itemsPerPage must be greater than zero");
         }
 
-        company.setIsActive(false);
-        company.setModifiedOn(Instant.now());
+        SearchCursor searchCursor = StringUtils.hasText(cursor) ? SearchCursor.decode(cursor) : null;
+
+        return companyRepository.getCompaniesAfterCursor(companyName, registrationNumber, searchCursor, itemsPerPage, fields);
+    }
 
-        companyRepository.saveOrUpdate(company);
+    public void deleteCompany(String id) {
+        deleteCompany(id, null);
+    }
+
+    public void deleteCompany(String id, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Soft delete initiated for company")
+                .addKeyValue("id", id).log();
+
+        if (!companyRepository.softDelete(id, expectedModifiedOn)) {
+            if (expectedModifiedOn != null && companyRepository.existsById(id)) {
+                throw new ConflictException("Company was modified by another request. Reload it and try again.");
+            }
+            throw new ResourceNotFoundException("Company not found with id: " + id);
+        }
 
-        log.info("Company soft deleted successfully for id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company soft deleted successfully")
+                .addKeyValue("id", id).log();
     }
 
 }
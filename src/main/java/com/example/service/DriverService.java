@@ -1,162 +1,313 @@
 package com.example.service;
 
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkItemResult;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
 import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.Driver;
 import com.example.repository.DriverRepository;
-import com.example.utils.i11Utils;
+import com.example.utils.FieldSelection;
+import com.example.utils.RequestTimings;
+import com.example.utils.SearchCursor;
+import com.example.validation.DriverValidator;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class DriverService {
 
     private static final Logger log = LoggerFactory.getLogger(DriverService.class);
 
+    // Fields clients may select with fields=, in the order of the full JSON response
+    public static final FieldSelection<Driver> FIELDS = FieldSelection.<Driver>builder("id")
+            .field("address1", Driver::getAddress1)
+            .field("address2", Driver::getAddress2)
+            .field("city", Driver::getCity)
+            .field("createdOn", Driver::getCreatedOn)
+            .field("dateOfBirth", Driver::getDateOfBirth)
+            .field("email", Driver::getEmail)
+            .field("experienceYears", Driver::getExperienceYears)
+            .field("firstName", Driver::getFirstName)
+            .field("id", Driver::getId)
+            .field("isActive", Driver::getIsActive)
+            .field("lastName", Driver::getLastName)
+            .field("licenseNumber", Driver::getLicenseNumber)
+            .field("mobile", Driver::getMobile)
+            .field("modifiedOn", Driver::getModifiedOn)
+            .field("state", Driver::getState)
+            .field("zipCode", Driver::getZipCode)
+            .build();
+
+    static final int DUPLICATE_KEY_ERROR = 11000;
+
+    static final String DUPLICATE_LICENSE_NUMBER = "Driver with the same License Number already exists";
+
     private DriverRepository driverRepository;
 
+    private DriverValidator driverValidator;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
+
     @Autowired
     public void setDriverRepository(DriverRepository driverRepository) {
         this.driverRepository = driverRepository;
     }
 
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\\\.[A-Za-z]{2,}$");
-
-    private static final Pattern MOBILE_PATTERN = Pattern.compile("^[6-9][0-9]{9}$");
+    @Autowired
+    public void setDriverValidator(DriverValidator driverValidator) {
+        this.driverValidator = driverValidator;
+    }
 
     public Driver createDriver(Driver driver) {
 
-        log.info("Creating driver. Email={}, Mobile={}", driver.getEmail(), driver.getMobile());
-
-        validateMandatoryFields(driver);
-        validateEmail(driver.getEmail());
-        validateMobile(driver.getMobile());
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Creating driver")
+                .addKeyValue("email", driver.getEmail()).log();
 
-        // Format DOB as yyyy-MM-dd string
-        if (driver.getDateOfBirth() == null || driver.getDateOfBirth().trim().isEmpty()) {
-            throw new BadRequestException("dateOfBirth is mandatory");
+        try (RequestTimings.Span span = RequestTimings.span("validate")) {
+            prepareForCreate(driver);
         }
 
-        LocalDate dob;
+        Driver saved;
         try {
-            dob = LocalDate.parse(driver.getDateOfBirth().trim(), i11Utils.DATE_FORMATTER);
-        } catch (DateTimeParseException ex) {
-            log.error("Invalid DOB format: {}", driver.getDateOfBirth());
-            throw new BadRequestException("Invalid dateOfBirth. Expected format is yyyy-MM-dd");
+            saved = driverRepository.insert(driver);
+        } catch (DuplicateKeyException ex) {
+            throw new BadRequestException(DUPLICATE_LICENSE_NUMBER);
+        }
+
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver creation completed")
+                .addKeyValue("id", saved.getId()).log();
+
+        return saved;
+    }
+
+    /**
+     * Creates many drivers in one pass: every item is validated, license numbers are checked
+     * for duplicates inside the request and against the database with a single query, and the
+     * valid ones are written with one unordered bulk insert. Returns one result per item.
+     */
+    public List<BulkItemResult> createDrivers(List<Driver> drivers) {
+        if (drivers == null || drivers.isEmpty()) {
+            throw new BadRequestException("Please provide at least one driver");
+        }
+        if (drivers.size() > maxBulkItems) {
+            throw new BadRequestException("A bulk request can contain at most " + maxBulkItems + " drivers");
         }
 
-         // Age validation
-        validateDateOfBirth(dob);
+        log.atInfo().setMessage("Bulk create of drivers").addKeyValue("drivers", drivers.size()).log();
+
+        BulkItemResult[] results = new BulkItemResult[drivers.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        try (RequestTimings.Span span = RequestTimings.span("validate")) {
+            for (int i = 0; i < drivers.size(); i++) {
+                Driver driver = drivers.get(i);
+                if (driver == null) {
+                    results[i] = BulkItemResult.failed(i, "Driver must not be null");
+                    continue;
+                }
+                try {
+                    prepareForCreate(driver);
+                } catch (BadRequestException ex) {
+                    results[i] = BulkItemResult.failed(i, ex.getMessage());
+                    continue;
+                }
+                if (candidates.putIfAbsent(driver.getLicenseNumber(), i) != null) {
+                    results[i] = BulkItemResult.failed(i, DUPLICATE_LICENSE_NUMBER);
+                }
+            }
+        }
 
-         // normalize format
-        driver.setDateOfBirth(dob.format(i11Utils.DATE_FORMATTER));
+        for (String existing : driverRepository.findExistingLicenseNumbers(candidates.keySet())) {
+            int index = candidates.remove(existing);
+            results[index] = BulkItemResult.failed(index, DUPLICATE_LICENSE_NUMBER);
+        }
 
-        if(driverRepository.checkDriverExistByLicenseNumber(driver.getLicenseNumber())){
-            throw new BadRequestException("Driver with the same License Number already exists");
+        List<Integer> indexes = new ArrayList<>(candidates.values());
+        List<Driver> toInsert = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            toInsert.add(drivers.get(index));
         }
 
+        Map<Integer, Integer> failures = driverRepository.insertAll(toInsert);
+
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            Integer errorCode = failures.get(i);
+            if (errorCode == null) {
+                results[index] = BulkItemResult.created(index, toInsert.get(i).getId());
+            } else if (errorCode == DUPLICATE_KEY_ERROR) {
+                // lost a race with a concurrent create
+                results[index] = BulkItemResult.failed(index, DUPLICATE_LICENSE_NUMBER);
+            } else {
+                results[index] = BulkItemResult.failed(index, "Driver could not be saved");
+            }
+        }
+
+        log.atInfo().setMessage("Bulk create finished")
+                .addKeyValue("requested", drivers.size()).addKeyValue("created", indexes.size() - failures.size()).log();
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Streams every active driver matching the filters; the caller must close the stream.
+     */
+    public Stream<Driver> exportDrivers(String firstName, String lastName, String licenseNumber,
+                                        Instant modifiedFrom, Instant modifiedTo) {
+        log.atInfo().setMessage("Exporting drivers")
+                .addKeyValue("modifiedFrom", modifiedFrom).addKeyValue("modifiedTo", modifiedTo).log();
+
+        if (modifiedFrom != null && modifiedTo != null && !modifiedFrom.isBefore(modifiedTo)) {
+            throw new BadRequestException("modifiedFrom must be before modifiedTo");
+        }
+
+        return driverRepository.streamDrivers(firstName, lastName, licenseNumber, modifiedFrom, modifiedTo);
+    }
+
+    /**
+     * Validates and normalizes a new driver and stamps its audit fields; does not save it.
+     */
+    public void prepareForCreate(Driver driver) {
+
+        driverValidator.validateForCreate(driver);
+
         driver.setCreatedOn(Instant.now());
         driver.setModifiedOn(Instant.now());
         driver.setIsActive(true);
+    }
 
-        Driver saved = driverRepository.saveOrUpdate(driver);
-
-        log.info("Driver creation completed. id={}", saved.getId());
 
-        return saved;
+    public Driver updateDriver(String id, Driver driver) {
+        return updateDriver(id, driver, null);
     }
 
+    /**
+     * Applies the supplied (non-empty) fields with a single findAndModify. When
+     * {@code expectedModifiedOn} is given the update only succeeds if the stored
+     * driver has not been modified since, otherwise a {@link ConflictException} is thrown.
+     */
+    public Driver updateDriver(String id, Driver driver, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Updating driver").addKeyValue("id", id).log();
+
+        Map<String, Object> changes;
+        try (RequestTimings.Span span = RequestTimings.span("validate")) {
+            changes = collectChanges(driver);
+        }
 
-    public Driver updateDriver(String id, Driver driver) {
-        log.info("Updating driver with id={}", id);
-        Driver existing = driverRepository.findById(id);
+        Driver saved;
+        try {
+            saved = driverRepository.updateFields(id, changes, expectedModifiedOn);
+        } catch (DuplicateKeyException ex) {
+            throw new BadRequestException(DUPLICATE_LICENSE_NUMBER);
+        }
 
-        if (existing == null) {
+        if (saved == null) {
+            if (expectedModifiedOn != null && driverRepository.existsById(id)) {
+                log.warn("Driver id={} was modified concurrently", id);
+                throw new ConflictException("Driver was modified by another request. Reload it and try again.");
+            }
             log.warn("Driver not found with id={}", id);
             throw new ResourceNotFoundException("Driver not found with id: " + id);
         }
 
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver updated successfully").addKeyValue("id", id).log();
+
+        return saved;
+    }
+
+    /**
+     * Validates the supplied fields and returns them keyed by document field name;
+     * empty fields are left out so they keep their stored value.
+     */
+    public Map<String, Object> collectChanges(Driver driver) {
+        driverValidator.validateForUpdate(driver);
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+
         if (StringUtils.hasText(driver.getFirstName())) {
-            existing.setFirstName(driver.getFirstName());
+            changes.put("firstName", driver.getFirstName());
         }
 
         if (StringUtils.hasText(driver.getLastName())) {
-            existing.setLastName(driver.getLastName());
+            changes.put("lastName", driver.getLastName());
         }
 
         if (StringUtils.hasText(driver.getEmail())) {
-            validateEmail(driver.getEmail());
-            existing.setEmail(driver.getEmail());
+            changes.put("email", driver.getEmail());
         }
 
         if (StringUtils.hasText(driver.getMobile())) {
-            validateMobile(driver.getMobile());
-            existing.setMobile(driver.getMobile());
+            changes.put("mobile", driver.getMobile());
         }
 
+        // normalized by the validator
         if (driver.getDateOfBirth() != null) {
-            LocalDate dob;
-            try {
-                dob = LocalDate.parse(driver.getDateOfBirth().trim(), i11Utils.DATE_FORMATTER);
-            } catch (DateTimeParseException ex) {
-                log.error("Invalid DOB format: {}", driver.getDateOfBirth());
-                throw new BadRequestException("Invalid dateOfBirth. Expected format is yyyy-MM-dd");
-            }
-            validateDateOfBirth(dob);
-            existing.setDateOfBirth(dob.format(i11Utils.DATE_FORMATTER));
+            changes.put("dateOfBirth", driver.getDateOfBirth());
         }
 
+        // uniqueness is enforced by the unique index
         if (StringUtils.hasText(driver.getLicenseNumber())) {
-//            if(driverRepository.checkDriverExistByLicenseNumber(driver.getLicenseNumber())){
-//                throw new BadRequestException("Driver with the same License Number already exists");
-//            }
-            existing.setLicenseNumber(driver.getLicenseNumber());
+            changes.put("licenseNumber", driver.getLicenseNumber());
         }
 
         if (driver.getExperienceYears() != null) {
-            existing.setExperienceYears(driver.getExperienceYears());
+            changes.put("experienceYears", driver.getExperienceYears());
         }
 
 
         if (StringUtils.hasText(driver.getAddress1())) {
-            existing.setAddress1(driver.getAddress1());
+            changes.put("address1", driver.getAddress1());
         }
 
         if (StringUtils.hasText(driver.getAddress2())) {
-            existing.setAddress2(driver.getAddress2());
+            changes.put("address2", driver.getAddress2());
         }
 
         if (StringUtils.hasText(driver.getCity())) {
-            existing.setCity(driver.getCity());
+            changes.put("city", driver.getCity());
         }
 
         if (StringUtils.hasText(driver.getState())) {
-            existing.setState(driver.getState());
+            changes.put("state", driver.getState());
         }
 
         if (StringUtils.hasText(driver.getZipCode())) {
-            existing.setZipCode(driver.getZipCode());
+            changes.put("zipCode", driver.getZipCode());
         }
 
-        existing.setModifiedOn(Instant.now());
-        Driver saved = driverRepository.saveOrUpdate(existing);
-
-        log.info("Driver updated successfully with id={}", id);
-
-        return saved;
+        return changes;
     }
 
     public Driver getDriverById(String id) {
-        log.info("Fetching driver by id={}", id);
-        Driver driver = driverRepository.findById(id);
+        return getDriverById(id, null);
+    }
+
+    /**
+     * Returns the driver with at least the selected fields; a null selection returns all of them.
+     */
+    public Driver getDriverById(String id, Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Fetching driver").addKeyValue("id", id).log();
+        Driver driver = driverRepository.findById(id, fields);
         if (driver == null) {
             log.warn("Driver not found with id={}", id);
             throw new ResourceNotFoundException("Driver not found with id: " + id);
@@ -164,71 +315,68 @@ public class DriverService {
         return driver;
     }
 
-    public Page<Driver> searchDrivers(String firstName, String lastName,
-            String licenseNumber, Integer pageIndex, Integer itemsPerPage) {
-        log.debug("Searching drivers in DB");
-        return driverRepository.searchDrivers(firstName, lastName,  licenseNumber, pageIndex, itemsPerPage);
+    /**
+     * Returns the driver's modifiedOn (null if it has none) without loading the rest of it,
+     * for answering conditional requests.
+     */
+    public Instant getDriverVersion(String id) {
+        Driver driver = driverRepository.findVersion(id);
+        if (driver == null) {
+            log.warn("Driver not found with id={}", id);
+            throw new ResourceNotFoundException("Driver not found with id: " + id);
+        }
+        return driver.getModifiedOn();
     }
 
-    /* ================= VALIDATIONS ================= */
+    public SearchPage<Driver> searchDrivers(String firstName, String lastName,
+            String licenseNumber, Integer pageIndex, Integer itemsPerPage, String totalMode, Integer countLimit) {
+        return searchDrivers(firstName, lastName, licenseNumber, pageIndex, itemsPerPage, totalMode, countLimit, null);
+    }
 
-    private void validateMandatoryFields(Driver driver) {
-        if (!StringUtils.hasText(driver.getFirstName())
-                || !StringUtils.hasText(driver.getLastName())
-                || !StringUtils.hasText(driver.getEmail())
-                || !StringUtils.hasText(driver.getMobile())
-                || driver.getDateOfBirth() ==  null
-                || !StringUtils.hasText(driver.getLicenseNumber())) {
+    public SearchPage<Driver> searchDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex,
+            Integer itemsPerPage, String totalMode, Integer countLimit, Set<String> fields) {
+        log.debug("Searching drivers in DB");
 
-            throw new BadRequestException("First Name, Last Name, Email, Mobile , DOB, and License Number are mandatory");
+        if (countLimit == null || countLimit < 1) {
+            throw new BadRequestException("countLimit must be greater than zero");
         }
-    }
 
-    private void validateEmail(String email) {
-        if(email != null && !StringUtils.isEmpty(email)){
-            Pattern pattern = Pattern.compile(i11Utils.EMAIL_PATTERN);
-            if(!pattern.matcher(email).matches()){
-                throw new BadRequestException("Please provide a valid email address");
-            }
-        }else{
-            throw new BadRequestException("please provide a  email address");
-        }
+        return driverRepository.searchDrivers(firstName, lastName,  licenseNumber, pageIndex, itemsPerPage,
+                TotalMode.from(totalMode), countLimit, fields);
     }
 
-    private void validateMobile(String mobile) {
-        if(mobile != null && !StringUtils.isEmpty(mobile)){
-             Pattern pattern = Pattern.compile(i11Utils.MOBILE_PATTERN);
-             if(!pattern.matcher(mobile).matches()){
-                 throw new BadRequestException("Please provide a valid mobile number");
-         }
-        }else{
-            throw new BadRequestException("please provide a  mobile number");
-        }
+    public CursorPage<Driver> searchDriversByCursor(String firstName, String lastName,
+            String licenseNumber, String cursor, Integer itemsPerPage) {
+        return searchDriversByCursor(firstName, lastName, licenseNumber, cursor, itemsPerPage, null);
     }
 
-    private void validateDateOfBirth(LocalDate dob) {
+    public CursorPage<Driver> searchDriversByCursor(String firstName, String lastName,
+            String licenseNumber, String cursor, Integer itemsPerPage, Set<String> fields) {
+        log.debug("Searching drivers in DB by cursor");
 
-        if (dob.isAfter(LocalDate.now())) {
-            throw new BadRequestException("Date of birth cannot be a future date");
+        if (itemsPerPage == null || itemsPerPage < 1) {
+            throw new BadRequestException("itemsPerPage must be greater than zero");
         }
 
-        if (dob.isAfter(LocalDate.now().minusYears(18))) {
-            throw new BadRequestException("Driver must be at least 18 years old");
-        }
+        SearchCursor searchCursor = StringUtils.hasText(cursor) ? SearchCursor.decode(cursor) : null;
+
+        return driverRepository.searchDriversAfterCursor(firstName, lastName, licenseNumber, searchCursor, itemsPerPage, fields);
     }
 
     public void deleteDriver(String id) {
-        log.info("Deleting driver with id={}", id);
-        Driver driver = driverRepository.findById(id);
+        deleteDriver(id, null);
+    }
 
-        if (driver == null) {
+    public void deleteDriver(String id, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Deleting driver").addKeyValue("id", id).log();
+
+        if (!driverRepository.softDelete(id, expectedModifiedOn)) {
+            if (expectedModifiedOn != null && driverRepository.existsById(id)) {
+                throw new ConflictException("Driver was modified by another request. Reload it and try again.");
+            }
             throw new ResourceNotFoundException("Driver not found with id: " + id);
         }
 
-        driver.setIsActive(false);
-        driver.setModifiedOn(Instant.now());
-
-        driverRepository.saveOrUpdate(driver);
-        log.info("Driver soft deleted with id={}", id);
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver soft deleted").addKeyValue("id", id).log();
     }
 }
@@ -0,0 +1,257 @@
+package com.example.service;
+
+import com.example.dto.BulkItemResult;
+import com.example.dto.ImportLineResult;
+import com.example.dto.ImportSummary;
+import com.example.exception.BadRequestException;
+import com.example.model.Company;
+import com.example.model.Driver;
+import com.example.utils.CsvLineParser;
+import com.example.utils.NdjsonWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streaming bulk import of NDJSON or CSV uploads.
+ *
+ * Records are read one line at a time, collected into bounded batches and handed to the
+ * same bulk create path as the create-companies/create-drivers endpoints. The report for a
+ * batch is written and flushed before the next batch is read, so memory stays flat and a
+ * slow database naturally slows down reading the upload.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private CompanyService companyService;
+
+    private DriverService driverService;
+
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
+
+    @Autowired
+    public void setCompanyService(CompanyService companyService) {
+        this.companyService = companyService;
+    }
+
+    @Autowired
+    public void setDriverService(DriverService driverService) {
+        this.driverService = driverService;
+    }
+
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Each batch goes through the bulk create path, which rejects more than app.bulk.max-items
+     * records, so a larger batch size would fail every full batch of an import.
+     */
+    @PostConstruct
+    void checkBatchSize() {
+        if (batchSize < 1 || batchSize > maxBulkItems) {
+            throw new IllegalStateException("app.import.batch-size must be between 1 and app.bulk.max-items ("
+                    + maxBulkItems + ") but is " + batchSize);
+        }
+    }
+
+    public ImportSummary importCompanies(InputStream in, String contentType, NdjsonWriter report) throws IOException {
+        log.info("Company import started. contentType={}", contentType);
+        return runImport(in, contentType, Company.class, companyService::createCompanies, report);
+    }
+
+    public ImportSummary importDrivers(InputStream in, String contentType, NdjsonWriter report) throws IOException {
+        log.info("Driver import started. contentType={}", contentType);
+        return runImport(in, contentType, Driver.class, driverService::createDrivers, report);
+    }
+
+    private <T> ImportSummary runImport(
+            InputStream in,
+            String contentType,
+            Class<T> type,
+            Function<List<T>, List<BulkItemResult>> bulkCreate,
+            NdjsonWriter report) throws IOException {
+
+        boolean csv = contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV);
+        ObjectReader reader = objectMapper.readerFor(type);
+
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Batch<T> batch = new Batch<>(batchSize);
+        List<String> header = null;
+
+        long lineNumber = 0;
+        long records = 0;
+        long created = 0;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (csv && header == null) {
+                header = CsvLineParser.parse(line);
+                continue;
+            }
+
+            records++;
+            try {
+                T record = csv ? fromCsv(header, line, type) : reader.readValue(line);
+                batch.add(lineNumber, record);
+            } catch (JacksonException | BadRequestException | IllegalArgumentException ex) {
+                batch.fail(lineNumber, "Could not parse record: " + ex.getMessage());
+            }
+
+            if (batch.isFull()) {
+                created += flush(batch, bulkCreate, report);
+            }
+        }
+        created += flush(batch, bulkCreate, report);
+
+        ImportSummary summary = new ImportSummary(records, created, records - created);
+        report.write(summary);
+        report.flush();
+
+        log.info("Import of {} finished. records={}, created={}, failed={}",
+                type.getSimpleName(), summary.records(), summary.created(), summary.failed());
+
+        return summary;
+    }
+
+    private <T> long flush(Batch<T> batch, Function<List<T>, List<BulkItemResult>> bulkCreate, NdjsonWriter report) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<T> records = batch.records();
+        List<BulkItemResult> results = records.isEmpty() ? List.of() : bulkCreate.apply(records);
+
+        long created = 0;
+        for (ImportLineResult result : batch.complete(results)) {
+            if (result.status() == BulkItemResult.Status.CREATED) {
+                created++;
+            }
+            report.write(result);
+        }
+        report.flush();
+
+        batch.clear();
+        return created;
+    }
+
+    private <T> T fromCsv(List<String> header, String line, Class<T> type) {
+        List<String> values = CsvLineParser.parse(line);
+        if (values.size() > header.size()) {
+            throw new BadRequestException("Record has more fields than the header");
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            // empty cells are treated as absent
+            if (!values.get(i).isEmpty()) {
+                fields.put(header.get(i).trim(), values.get(i));
+            }
+        }
+
+        return objectMapper.convertValue(fields, type);
+    }
+
+    /**
+     * One batch of the upload: parsed records waiting to be written plus the lines that
+     * already failed to parse, kept in line order for the report.
+     */
+    private static class Batch<T> {
+
+        private final int capacity;
+        private final List<Long> lines;
+        private final List<T> records;
+        private final Map<Long, String> parseFailures = new LinkedHashMap<>();
+
+        Batch(int capacity) {
+            this.capacity = capacity;
+            this.lines = new ArrayList<>(capacity);
+            this.records = new ArrayList<>(capacity);
+        }
+
+        void add(long line, T record) {
+            lines.add(line);
+            records.add(record);
+        }
+
+        void fail(long line, String message) {
+            parseFailures.put(line, message);
+        }
+
+        boolean isFull() {
+            return records.size() + parseFailures.size() >= capacity;
+        }
+
+        boolean isEmpty() {
+            return records.isEmpty() && parseFailures.isEmpty();
+        }
+
+        List<T> records() {
+            return records;
+        }
+
+        List<ImportLineResult> complete(List<BulkItemResult> results) {
+            List<ImportLineResult> report = new ArrayList<>(records.size() + parseFailures.size());
+
+            int next = 0;
+            for (Map.Entry<Long, String> failure : parseFailures.entrySet()) {
+                while (next < results.size() && lines.get(next) < failure.getKey()) {
+                    report.add(toLineResult(next, results.get(next)));
+                    next++;
+                }
+                report.add(new ImportLineResult(failure.getKey(), BulkItemResult.Status.FAILED, null, failure.getValue()));
+            }
+            while (next < results.size()) {
+                report.add(toLineResult(next, results.get(next)));
+                next++;
+            }
+
+            return report;
+        }
+
+        private ImportLineResult toLineResult(int position, BulkItemResult result) {
+            return new ImportLineResult(lines.get(position), result.status(), result.id(), result.message());
+        }
+
+        void clear() {
+            lines.clear();
+            records.clear();
+            parseFailures.clear();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.service;
+
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkItemResult;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.Company;
+import com.example.repository.ReactiveCompanyRepository;
+import com.example.utils.SearchCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link CompanyService}. Validation and change collection are
+ * plain CPU work and are delegated to {@link CompanyService}; everything that reaches the
+ * database goes through {@link ReactiveCompanyRepository}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCompanyService.class);
+
+    private ReactiveCompanyRepository companyRepository;
+
+    private CompanyService companyService;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
+
+    @Autowired
+    public void setCompanyRepository(ReactiveCompanyRepository companyRepository) {
+        this.companyRepository = companyRepository;
+    }
+
+    @Autowired
+    public void setCompanyService(CompanyService companyService) {
+        this.companyService = companyService;
+    }
+
+    public Mono<Company> createCompany(Company company) {
+        return Mono.defer(() -> {
+                    companyService.prepareForCreate(company);
+                    return companyRepository.insert(company);
+                })
+                .onErrorMap(DuplicateKeyException.class, ex -> new BadRequestException(CompanyService.DUPLICATE_REGISTRATION_NUMBER))
+                .doOnNext(saved -> log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company saved successfully")
+                        .addKeyValue("id", saved.getId()).log());
+    }
+
+    /**
+     * Same contract as {@link CompanyService#createCompanies}: one $in duplicate check and one
+     * unordered bulk insert, with one result per item.
+     */
+    public Mono<List<BulkItemResult>> createCompanies(List<Company> companies) {
+        if (companies == null || companies.isEmpty()) {
+            return Mono.error(new BadRequestException("Please provide at least one company"));
+        }
+        if (companies.size() > maxBulkItems) {
+            return Mono.error(new BadRequestException("A bulk request can contain at most " + maxBulkItems + " companies"));
+        }
+
+        log.atInfo().setMessage("Bulk create of companies").addKeyValue("companies", companies.size()).log();
+
+        BulkItemResult[] results = new BulkItemResult[companies.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < companies.size(); i++) {
+            Company company = companies.get(i);
+            if (company == null) {
+                results[i] = BulkItemResult.failed(i, "Company must not be null");
+                continue;
+            }
+            try {
+                companyService.prepareForCreate(company);
+            } catch (BadRequestException ex) {
+                results[i] = BulkItemResult.failed(i, ex.getMessage());
+                continue;
+            }
+            if (candidates.putIfAbsent(company.getRegistrationNumber(), i) != null) {
+                results[i] = BulkItemResult.failed(i, CompanyService.DUPLICATE_REGISTRATION_NUMBER);
+            }
+        }
+
+        return companyRepository.findExistingRegistrationNumbers(candidates.keySet())
+                // active duplicates already stored (e.g. before the unique index existed) repeat a value
+                .distinct()
+                .doOnNext(existing -> {
+                    int index = candidates.remove(existing);
+                    results[index] = BulkItemResult.failed(index, CompanyService.DUPLICATE_REGISTRATION_NUMBER);
+                })
+                .then(Mono.defer(() -> {
+                    List<Integer> indexes = new ArrayList<>(candidates.values());
+                    List<Company> toInsert = new ArrayList<>(indexes.size());
+                    for (Integer index : indexes) {
+                        toInsert.add(companies.get(index));
+                    }
+
+                    return companyRepository.insertAll(toInsert).map(failures -> {
+                        for (int i = 0; i < indexes.size(); i++) {
+                            int index = indexes.get(i);
+                            Integer errorCode = failures.get(i);
+                            if (errorCode == null) {
+                                results[index] = BulkItemResult.created(index, toInsert.get(i).getId());
+                            } else if (errorCode == CompanyService.DUPLICATE_KEY_ERROR) {
+                                // lost a race with a concurrent create
+                                results[index] = BulkItemResult.failed(index, CompanyService.DUPLICATE_REGISTRATION_NUMBER);
+                            } else {
+                                results[index] = BulkItemResult.failed(index, "Company could not be saved");
+                            }
+                        }
+
+                        log.atInfo().setMessage("Bulk create finished")
+                                .addKeyValue("requested", companies.size())
+                                .addKeyValue("created", indexes.size() - failures.size()).log();
+
+                        return Arrays.asList(results);
+                    });
+                }));
+    }
+
+    public Flux<Company> exportCompanies(String companyName, String registrationNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.atInfo().setMessage("Exporting companies")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("modifiedFrom", modifiedFrom).addKeyValue("modifiedTo", modifiedTo).log();
+
+        if (modifiedFrom != null && modifiedTo != null && !modifiedFrom.isBefore(modifiedTo)) {
+            return Flux.error(new BadRequestException("modifiedFrom must be before modifiedTo"));
+        }
+
+        return companyRepository.streamCompanies(companyName, registrationNumber, modifiedFrom, modifiedTo);
+    }
+
+    public Mono<Company> updateCompany(String id, Company company, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Updating company").addKeyValue("id", id).log();
+
+        return Mono.defer(() -> companyRepository.updateFields(id, companyService.collectChanges(company), expectedModifiedOn))
+                // registration number already used by another active company
+                .onErrorMap(DuplicateKeyException.class, ex -> new BadRequestException(CompanyService.DUPLICATE_REGISTRATION_NUMBER))
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedModifiedOn)))
+                .doOnNext(updated -> log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company updated successfully")
+                        .addKeyValue("id", id).log());
+    }
+
+    public Mono<Company> getCompanyById(String id, Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting company").addKeyValue("id", id).log();
+
+        return companyRepository.findById(id, fields)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Company not found with id: {}", id);
+                    return new ResourceNotFoundException("Company not found with id: " + id);
+                }));
+    }
+
+    public Mono<SearchPage<Company>> getAllCompanyBySearch(String companyName, String registrationNumber, Integer pageIndex, Integer itemsPerPage,
+                                                           String totalMode, Integer countLimit, Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting all companies")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("pageIndex", pageIndex).addKeyValue("itemsPerPage", itemsPerPage)
+                .addKeyValue("totalMode", totalMode).log();
+
+        if (countLimit == null || countLimit < 1) {
+            return Mono.error(new BadRequestException("countLimit must be greater than zero"));
+        }
+
+        return Mono.defer(() -> companyRepository.getAllCompanyBySearch(companyName, registrationNumber, pageIndex, itemsPerPage,
+                TotalMode.from(totalMode), countLimit, fields));
+    }
+
+    /**
+     * One page of search results emitted row by row, without a total.
+     */
+    public Flux<Company> streamCompanySearch(String companyName, String registrationNumber, Integer pageIndex, Integer itemsPerPage,
+                                             Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("streaming companies")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("pageIndex", pageIndex).addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        return companyRepository.findCompanies(companyName, registrationNumber, pageIndex, itemsPerPage, fields);
+    }
+
+    public Mono<CursorPage<Company>> getCompaniesByCursor(String companyName, String registrationNumber, String cursor, Integer itemsPerPage,
+                                                          Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting companies by cursor")
+                .addKeyValue("companyName", companyName).addKeyValue("registrationNumber", registrationNumber)
+                .addKeyValue("itemsPerPage", itemsPerPage).log();
+
+        if (itemsPerPage == null || itemsPerPage < 1) {
+            return Mono.error(new BadRequestException("itemsPerPage must be greater than zero"));
+        }
+
+        return Mono.defer(() -> {
+            SearchCursor searchCursor = StringUtils.hasText(cursor) ? SearchCursor.decode(cursor) : null;
+            return companyRepository.getCompaniesAfterCursor(companyName, registrationNumber, searchCursor, itemsPerPage, fields);
+        });
+    }
+
+    public Mono<Void> deleteCompany(String id, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Soft delete initiated for company")
+                .addKeyValue("id", id).log();
+
+        return companyRepository.softDelete(id, expectedModifiedOn)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : notUpdated(id, expectedModifiedOn).then())
+                .doOnSuccess(ignored -> log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company soft deleted successfully")
+                        .addKeyValue("id", id).log());
+    }
+
+    private Mono<Company> notUpdated(String id, Instant expectedModifiedOn) {
+        Mono<Boolean> stillExists = expectedModifiedOn != null ? companyRepository.existsById(id) : Mono.just(false);
+
+        return stillExists.flatMap(exists -> {
+            if (exists) {
+                log.warn("Company id={} was modified concurrently", id);
+                return Mono.error(new ConflictException("Company was modified by another request. Reload it and try again."));
+            }
+            log.warn("Company not found with id: {}", id);
+            return Mono.error(new ResourceNotFoundException("Company not found with id: " + id));
+        });
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.service;
+
+import com.example.config.SampledLogFilter;
+import com.example.dto.BulkItemResult;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.exception.BadRequestException;
+import com.example.exception.ConflictException;
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.Driver;
+import com.example.repository.ReactiveDriverRepository;
+import com.example.utils.SearchCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link DriverService}. Validation and change collection are
+ * plain CPU work and are delegated to {@link DriverService}; everything that reaches the
+ * database goes through {@link ReactiveDriverRepository}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDriverService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDriverService.class);
+
+    private ReactiveDriverRepository driverRepository;
+
+    private DriverService driverService;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
+
+    @Autowired
+    public void setDriverRepository(ReactiveDriverRepository driverRepository) {
+        this.driverRepository = driverRepository;
+    }
+
+    @Autowired
+    public void setDriverService(DriverService driverService) {
+        this.driverService = driverService;
+    }
+
+    public Mono<Driver> createDriver(Driver driver) {
+        return Mono.defer(() -> {
+                    driverService.prepareForCreate(driver);
+                    return driverRepository.insert(driver);
+                })
+                .onErrorMap(DuplicateKeyException.class, ex -> new BadRequestException(DriverService.DUPLICATE_LICENSE_NUMBER))
+                .doOnNext(saved -> log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver creation completed")
+                        .addKeyValue("id", saved.getId()).log());
+    }
+
+    /**
+     * Same contract as {@link DriverService#createDrivers}: one $in duplicate check and one
+     * unordered bulk insert, with one result per item.
+     */
+    public Mono<List<BulkItemResult>> createDrivers(List<Driver> drivers) {
+        if (drivers == null || drivers.isEmpty()) {
+            return Mono.error(new BadRequestException("Please provide at least one driver"));
+        }
+        if (drivers.size() > maxBulkItems) {
+            return Mono.error(new BadRequestException("A bulk request can contain at most " + maxBulkItems + " drivers"));
+        }
+
+        log.atInfo().setMessage("Bulk create of drivers").addKeyValue("drivers", drivers.size()).log();
+
+        BulkItemResult[] results = new BulkItemResult[drivers.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < drivers.size(); i++) {
+            Driver driver = drivers.get(i);
+            if (driver == null) {
+                results[i] = BulkItemResult.failed(i, "Driver must not be null");
+                continue;
+            }
+            try {
+                driverService.prepareForCreate(driver);
+            } catch (BadRequestException ex) {
+                results[i] = BulkItemResult.failed(i, ex.getMessage());
+                continue;
+            }
+            if (candidates.putIfAbsent(driver.getLicenseNumber(), i) != null) {
+                results[i] = BulkItemResult.failed(i, DriverService.DUPLICATE_LICENSE_NUMBER);
+            }
+        }
+
+        return driverRepository.findExistingLicenseNumbers(candidates.keySet())
+                // active duplicates already stored (e.g. before the unique index existed) repeat a value
+                .distinct()
+                .doOnNext(existing -> {
+                    int index = candidates.remove(existing);
+                    results[index] = BulkItemResult.failed(index, DriverService.DUPLICATE_LICENSE_NUMBER);
+                })
+                .then(Mono.defer(() -> {
+                    List<Integer> indexes = new ArrayList<>(candidates.values());
+                    List<Driver> toInsert = new ArrayList<>(indexes.size());
+                    for (Integer index : indexes) {
+                        toInsert.add(drivers.get(index));
+                    }
+
+                    return driverRepository.insertAll(toInsert).map(failures -> {
+                        for (int i = 0; i < indexes.size(); i++) {
+                            int index = indexes.get(i);
+                            Integer errorCode = failures.get(i);
+                            if (errorCode == null) {
+                                results[index] = BulkItemResult.created(index, toInsert.get(i).getId());
+                            } else if (errorCode == DriverService.DUPLICATE_KEY_ERROR) {
+                                // lost a race with a concurrent create
+                                results[index] = BulkItemResult.failed(index, DriverService.DUPLICATE_LICENSE_NUMBER);
+                            } else {
+                                results[index] = BulkItemResult.failed(index, "Driver could not be saved");
+                            }
+                        }
+
+                        log.atInfo().setMessage("Bulk create finished")
+                                .addKeyValue("requested", drivers.size())
+                                .addKeyValue("created", indexes.size() - failures.size()).log();
+
+                        return Arrays.asList(results);
+                    });
+                }));
+    }
+
+    public Flux<Driver> exportDrivers(String firstName, String lastName, String licenseNumber, Instant modifiedFrom, Instant modifiedTo) {
+        log.atInfo().setMessage("Exporting drivers")
+                .addKeyValue("modifiedFrom", modifiedFrom).addKeyValue("modifiedTo", modifiedTo).log();
+
+        if (modifiedFrom != null && modifiedTo != null && !modifiedFrom.isBefore(modifiedTo)) {
+            return Flux.error(new BadRequestException("modifiedFrom must be before modifiedTo"));
+        }
+
+        return driverRepository.streamDrivers(firstName, lastName, licenseNumber, modifiedFrom, modifiedTo);
+    }
+
+    public Mono<Driver> updateDriver(String id, Driver driver, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Updating driver").addKeyValue("id", id).log();
+
+        return Mono.defer(() -> driverRepository.updateFields(id, driverService.collectChanges(driver), expectedModifiedOn))
+                // license number already used by another active driver
+                .onErrorMap(DuplicateKeyException.class, ex -> new BadRequestException(DriverService.DUPLICATE_LICENSE_NUMBER))
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, expectedModifiedOn)))
+                .doOnNext(updated -> log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver updated successfully")
+                        .addKeyValue("id", id).log());
+    }
+
+    public Mono<Driver> getDriverById(String id, Set<String> fields) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Fetching driver").addKeyValue("id", id).log();
+
+        return driverRepository.findById(id, fields)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Driver not found with id={}", id);
+                    return new ResourceNotFoundException("Driver not found with id: " + id);
+                }));
+    }
+
+    public Mono<SearchPage<Driver>> searchDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex, Integer itemsPerPage,
+                                                           String totalMode, Integer countLimit, Set<String> fields) {
+        log.debug("Searching drivers in DB");
+
+        if (countLimit == null || countLimit < 1) {
+            return Mono.error(new BadRequestException("countLimit must be greater than zero"));
+        }
+
+        return Mono.defer(() -> driverRepository.searchDrivers(firstName, lastName, licenseNumber, pageIndex, itemsPerPage,
+                TotalMode.from(totalMode), countLimit, fields));
+    }
+
+    /**
+     * One page of search results emitted row by row, without a total.
+     */
+    public Flux<Driver> streamDriverSearch(String firstName, String lastName, String licenseNumber, Integer pageIndex, Integer itemsPerPage,
+                                             Set<String> fields) {
+        log.debug("Streaming drivers from DB");
+
+        return driverRepository.findDrivers(firstName, lastName, licenseNumber, pageIndex, itemsPerPage, fields);
+    }
+
+    public Mono<CursorPage<Driver>> searchDriversByCursor(String firstName, String lastName, String licenseNumber, String cursor, Integer itemsPerPage,
+                                                          Set<String> fields) {
+        log.debug("Searching drivers in DB by cursor");
+
+        if (itemsPerPage == null || itemsPerPage < 1) {
+            return Mono.error(new BadRequestException("itemsPerPage must be greater than zero"));
+        }
+
+        return Mono.defer(() -> {
+            SearchCursor searchCursor = StringUtils.hasText(cursor) ? SearchCursor.decode(cursor) : null;
+            return driverRepository.searchDriversAfterCursor(firstName, lastName, licenseNumber, searchCursor, itemsPerPage, fields);
+        });
+    }
+
+    public Mono<Void> deleteDriver(String id, Instant expectedModifiedOn) {
+        log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Deleting driver").addKeyValue("id", id).log();
+
+        return driverRepository.softDelete(id, expectedModifiedOn)
+                .flatMap(deleted -> deleted ? Mono.<Void>empty() : notUpdated(id, expectedModifiedOn).then())
+                .doOnSuccess(ignored -> log.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Driver soft deleted")
+                        .addKeyValue("id", id).log());
+    }
+
+    private Mono<Driver> notUpdated(String id, Instant expectedModifiedOn) {
+        Mono<Boolean> stillExists = expectedModifiedOn != null ? driverRepository.existsById(id) : Mono.just(false);
+
+        return stillExists.flatMap(exists -> {
+            if (exists) {
+                log.warn("Driver id={} was modified concurrently", id);
+                return Mono.error(new ConflictException("Driver was modified by another request. Reload it and try again."));
+            }
+            log.warn("Driver not found with id={}", id);
+            return Mono.error(new ResourceNotFoundException("Driver not found with id: " + id));
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.utils;
+
+import com.example.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 field splitter for a single CSV line: comma separated, fields may be
+ * double-quoted and a quote inside a quoted field is escaped by doubling it. Quoted line
+ * breaks are not supported; each record must fit on one line.
+ */
+public class CsvLineParser {
+
+    private CsvLineParser() {}
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new BadRequestException("Unterminated quoted field");
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.utils;
+
+import com.example.exception.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Strong entity tags for companies and drivers, made from the id and modifiedOn (to the
+ * millisecond, as stored), so the tag changes whenever the entity does. A field selection is a
+ * separate representation with its own tag, but every tag of an entity names the same version.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Returns the quoted tag, or null when the entity has no modifiedOn.
+     */
+    public static String of(String id, Instant modifiedOn, Set<String> fields) {
+        if (modifiedOn == null) {
+            return null;
+        }
+
+        StringBuilder tag = new StringBuilder().append('"').append(id)
+                .append('.').append(Long.toHexString(modifiedOn.toEpochMilli()));
+        if (fields != null) {
+            tag.append('.').append(Integer.toHexString(String.join(",", new TreeSet<>(fields)).hashCode()));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * A 200 response carrying the entity's ETag and Last-Modified, with Cache-Control: no-cache
+     * so clients revalidate instead of reusing their copy unchecked.
+     */
+    public static ResponseEntity.BodyBuilder ok(String id, Instant modifiedOn, Set<String> fields) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String tag = of(id, modifiedOn, fields);
+        if (tag != null) {
+            response.eTag(tag).lastModified(modifiedOn).cacheControl(CacheControl.noCache());
+        }
+        return response;
+    }
+
+    /**
+     * Returns the modifiedOn an If-Match header requires of entity {@code id}, or null for "*"
+     * (any version). Weak tags and tags of other entities never match. When the header lists
+     * several versions of the entity, {@code currentVersion} decides which one applies.
+     *
+     * @throws PreconditionFailedException when none of the listed tags can match
+     */
+    public static Instant requiredVersion(String ifMatch, String id, Supplier<Instant> currentVersion) {
+        Set<Instant> versions = new HashSet<>();
+        for (String part : ifMatch.split(",")) {
+            String tag = part.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            Instant version = version(tag, id);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+
+        if (versions.size() == 1) {
+            return versions.iterator().next();
+        }
+        if (versions.size() > 1) {
+            Instant current = currentVersion.get();
+            if (current != null && versions.contains(Instant.ofEpochMilli(current.toEpochMilli()))) {
+                return Instant.ofEpochMilli(current.toEpochMilli());
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name the current version. Reload it and try again.");
+    }
+
+    private static Instant version(String tag, String id) {
+        String prefix = "\"" + id + ".";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+            return null;
+        }
+
+        String rest = tag.substring(prefix.length(), tag.length() - 1);
+        int end = rest.indexOf('.');
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(end < 0 ? rest : rest.substring(0, end), 16));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
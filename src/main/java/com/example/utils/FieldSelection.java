@@ -0,0 +1,100 @@
+package com.example.utils;
+
+import com.example.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Whitelist of the fields a client may ask for with {@code fields=}. The names double as the
+ * Mongo projection, and the getters build the trimmed response without reflection. Getters
+ * are declared in the order Jackson writes the full entity, so trimmed and full responses
+ * list their fields the same way.
+ */
+public class FieldSelection<T> {
+
+    private final Map<String, Function<T, Object>> getters;
+
+    private final String required;
+
+    private FieldSelection(String required, Map<String, Function<T, Object>> getters) {
+        this.required = required;
+        this.getters = getters;
+    }
+
+    public static <T> Builder<T> builder(String required) {
+        return new Builder<>(required);
+    }
+
+    /**
+     * Parses a comma separated field list. Returns null (all fields) when the list is blank;
+     * the required field is always part of a selection.
+     */
+    public Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(required);
+
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!getters.containsKey(name)) {
+                throw new BadRequestException("Invalid field '" + name + "'. Allowed fields are " + String.join(", ", getters.keySet()));
+            }
+            selected.add(name);
+        }
+
+        return Collections.unmodifiableSet(selected);
+    }
+
+    public Map<String, Object> apply(T entity, Set<String> selected) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        getters.forEach((name, getter) -> {
+            if (selected.contains(name)) {
+                values.put(name, getter.apply(entity));
+            }
+        });
+        return values;
+    }
+
+    public List<Map<String, Object>> apply(List<T> entities, Set<String> selected) {
+        List<Map<String, Object>> values = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            values.add(apply(entity, selected));
+        }
+        return values;
+    }
+
+    public static class Builder<T> {
+
+        private final String required;
+        private final Map<String, Function<T, Object>> getters = new LinkedHashMap<>();
+
+        private Builder(String required) {
+            this.required = required;
+        }
+
+        public Builder<T> field(String name, Function<T, Object> getter) {
+            getters.put(name, getter);
+            return this;
+        }
+
+        public FieldSelection<T> build() {
+            if (!getters.containsKey(required)) {
+                throw new IllegalStateException("Required field '" + required + "' has no getter");
+            }
+            return new FieldSelection<>(required, Collections.unmodifiableMap(new LinkedHashMap<>(getters)));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.utils;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+import java.io.OutputStream;
+
+/**
+ * Writes newline-delimited JSON straight to an output stream, one value per line,
+ * without building the whole document in memory.
+ */
+public class NdjsonWriter implements AutoCloseable {
+
+    private final ObjectWriter writer;
+
+    private final JsonGenerator generator;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        // flushing is left to the caller so small records are batched into larger writes
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+        this.generator = writer.createGenerator(out);
+    }
+
+    public void write(Object value) {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    public void flush() {
+        generator.flush();
+    }
+
+    @Override
+    public void close() {
+        generator.close();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-scoped timing spans for the {@code Server-Timing} header. A request that is being
+ * timed owns one instance, bound to its thread; spans with the same name add up.
+ *
+ * <pre>
+ * try (RequestTimings.Span span = RequestTimings.span("count")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Outside a timed request {@link #span(String)} returns a shared no-op, so instrumented code
+ * costs one ThreadLocal lookup when timing is disabled.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private static final Span NOOP = () -> { };
+
+    private final long startNanos = System.nanoTime();
+
+    // name -> {total nanos, count}, in order of first use
+    private final Map<String, long[]> spans = new LinkedHashMap<>();
+
+    private RequestTimings() {
+    }
+
+    /**
+     * Starts timing the current thread's request.
+     */
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Stops recording spans on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static Span span(String name) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return NOOP;
+        }
+        long start = System.nanoTime();
+        return () -> timings.record(name, System.nanoTime() - start);
+    }
+
+    private synchronized void record(String name, long nanos) {
+        long[] span = spans.computeIfAbsent(name, key -> new long[2]);
+        span[0] += nanos;
+        span[1]++;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Spans as a Server-Timing value, e.g. {@code find;dur=3.1, count;dur=12.4, app;dur=16.0},
+     * where {@code app} is the time since the request started.
+     */
+    public synchronized String toHeader() {
+        StringBuilder header = new StringBuilder(32 + spans.size() * 24);
+        spans.forEach((name, span) -> appendMetric(header, name, span[0]));
+        appendMetric(header, "app", elapsedNanos());
+        return header.toString();
+    }
+
+    /**
+     * Spans with their call counts, for the slow request log, e.g. {@code find=3.1ms x2, count=12.4ms}.
+     */
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder();
+        spans.forEach((name, span) -> {
+            if (!summary.isEmpty()) {
+                summary.append(", ");
+            }
+            summary.append(name).append('=').append(millis(span[0])).append("ms");
+            if (span[1] > 1) {
+                summary.append(" x").append(span[1]);
+            }
+        });
+        return summary.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(millis(nanos));
+    }
+
+    private static String millis(long nanos) {
+        // one decimal is plenty for a header and avoids String.format
+        long tenths = TimeUnit.NANOSECONDS.toMicros(nanos) / 100;
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+
+    /**
+     * A running span; closing it adds its duration to the request.
+     */
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.utils;
+
+import com.example.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key of the last
+ * returned document plus its {@code _id} as tie-breaker.
+ */
+public record SearchCursor(Instant sortValue, String id) {
+
+    public String encode() {
+        String raw = sortValue.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 1 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            Instant sortValue = Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator)));
+            return new SearchCursor(sortValue, raw.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.utils;
+
+import java.util.Locale;
+
+/**
+ * Normalized (trimmed, case-folded) shadow keys for the searchable fields. Exact matches on
+ * these keys can use a regular index, unlike case-insensitive regexes on the raw fields.
+ */
+public class SearchKeys {
+
+    private SearchKeys() {}
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.utils;
 
+import com.example.exception.BadRequestException;
+
+import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.regex.Pattern;
 
 public class i11Utils {
@@ -13,5 +17,19 @@ public class i11Utils {
 
     public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    /**
+     * Parses an optional ISO-8601 instant request parameter, e.g. the expectedModifiedOn precondition.
+     */
+    public static Instant parseInstant(String value, String name) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid " + name + ". Expected an ISO-8601 instant such as 2024-01-31T10:15:30.123Z");
+        }
+    }
+
     public static final String EMAIL_PATTERN_PROD = "^[_A-Za-z0-9-\\+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
 }
@@ -0,0 +1,82 @@
+package com.example.validation;
+
+import com.example.model.Company;
+import com.example.utils.i11Utils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+
+/**
+ * Validates company request bodies, reporting all errors at once as a
+ * {@link com.example.exception.ValidationException}.
+ */
+@Component
+public class CompanyValidator {
+
+    private static final LocalDate EARLIEST_ESTABLISHED_ON = LocalDate.of(1800, 1, 1);
+
+    /**
+     * Checks a new company and normalizes its establishedOn date.
+     */
+    public void validateForCreate(Company company) {
+        ValidationErrors errors = new ValidationErrors();
+
+        if (!StringUtils.hasText(company.getCompanyName()) || !StringUtils.hasText(company.getRegistrationNumber())) {
+            errors.add("Company Name, Registration Number are mandatory");
+        }
+
+        validateEstablishedOn(company, errors);
+
+        String mobile = company.getPrimaryContactMobile();
+        if (mobile != null && !mobile.isEmpty() && !Validators.isMobile(mobile.trim())) {
+            errors.add("Invalid mobile number");
+        }
+
+        String email = company.getPrimaryContactEmail();
+        if (email != null && !email.isEmpty() && !Validators.isEmail(email)) {
+            errors.add("Invalid email");
+        }
+
+        errors.throwIfAny();
+    }
+
+    /**
+     * Checks the fields supplied for an update (absent ones are left alone) and normalizes
+     * establishedOn.
+     */
+    public void validateForUpdate(Company company) {
+        ValidationErrors errors = new ValidationErrors();
+
+        validateEstablishedOn(company, errors);
+
+        String mobile = company.getPrimaryContactMobile();
+        if (mobile != null && !mobile.isEmpty() && !Validators.isMobile(mobile)) {
+            errors.add("Invalid mobile number");
+        }
+
+        if (StringUtils.hasText(company.getPrimaryContactEmail()) && !Validators.isEmail(company.getPrimaryContactEmail())) {
+            errors.add("Invalid email");
+        }
+
+        errors.throwIfAny();
+    }
+
+    private static void validateEstablishedOn(Company company, ValidationErrors errors) {
+        String value = company.getEstablishedOn();
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+
+        LocalDate date = Validators.parseDate(value.trim());
+        if (date == null) {
+            errors.add("Invalid establishedOn date. Expected format is yyyy-MM-dd");
+        } else if (date.isAfter(LocalDate.now())) {
+            errors.add("Please provide a valid registration date. Future date is not allowed.");
+        } else if (date.isBefore(EARLIEST_ESTABLISHED_ON)) {
+            errors.add("Please provide a valid registration date.");
+        } else {
+            company.setEstablishedOn(date.format(i11Utils.DATE_FORMATTER));
+        }
+    }
+}
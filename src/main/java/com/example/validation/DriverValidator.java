@@ -0,0 +1,92 @@
+package com.example.validation;
+
+import com.example.model.Driver;
+import com.example.utils.i11Utils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+
+/**
+ * Validates driver request bodies, reporting all errors at once as a
+ * {@link com.example.exception.ValidationException}.
+ */
+@Component
+public class DriverValidator {
+
+    /**
+     * Checks a new driver and normalizes its dateOfBirth.
+     */
+    public void validateForCreate(Driver driver) {
+        ValidationErrors errors = new ValidationErrors();
+
+        if (!StringUtils.hasText(driver.getFirstName())
+                || !StringUtils.hasText(driver.getLastName())
+                || !StringUtils.hasText(driver.getEmail())
+                || !StringUtils.hasText(driver.getMobile())
+                || driver.getDateOfBirth() == null
+                || !StringUtils.hasText(driver.getLicenseNumber())) {
+            errors.add("First Name, Last Name, Email, Mobile , DOB, and License Number are mandatory");
+        }
+
+        // missing values are covered by the mandatory check above
+        validateEmail(driver, errors);
+        validateMobile(driver, errors);
+
+        if (driver.getDateOfBirth() != null) {
+            if (driver.getDateOfBirth().trim().isEmpty()) {
+                errors.add("dateOfBirth is mandatory");
+            } else {
+                validateDateOfBirth(driver, errors);
+            }
+        }
+
+        errors.throwIfAny();
+    }
+
+    /**
+     * Checks the fields supplied for an update (absent ones are left alone) and normalizes
+     * dateOfBirth.
+     */
+    public void validateForUpdate(Driver driver) {
+        ValidationErrors errors = new ValidationErrors();
+
+        validateEmail(driver, errors);
+        validateMobile(driver, errors);
+
+        if (driver.getDateOfBirth() != null) {
+            validateDateOfBirth(driver, errors);
+        }
+
+        errors.throwIfAny();
+    }
+
+    private static void validateEmail(Driver driver, ValidationErrors errors) {
+        if (StringUtils.hasText(driver.getEmail()) && !Validators.isEmail(driver.getEmail())) {
+            errors.add("Please provide a valid email address");
+        }
+    }
+
+    private static void validateMobile(Driver driver, ValidationErrors errors) {
+        if (StringUtils.hasText(driver.getMobile()) && !Validators.isMobile(driver.getMobile())) {
+            errors.add("Please provide a valid mobile number");
+        }
+    }
+
+    private static void validateDateOfBirth(Driver driver, ValidationErrors errors) {
+        LocalDate dob = Validators.parseDate(driver.getDateOfBirth().trim());
+        if (dob == null) {
+            errors.add("Invalid dateOfBirth. Expected format is yyyy-MM-dd");
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        if (dob.isAfter(today)) {
+            errors.add("Date of birth cannot be a future date");
+        } else if (dob.isAfter(today.minusYears(18))) {
+            errors.add("Driver must be at least 18 years old");
+        } else {
+            driver.setDateOfBirth(dob.format(i11Utils.DATE_FORMATTER));
+        }
+    }
+}
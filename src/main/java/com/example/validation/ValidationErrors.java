@@ -0,0 +1,35 @@
+package com.example.validation;
+
+import com.example.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects every problem with an entity so a request is rejected once, with all of them.
+ * Allocates nothing until the first error.
+ */
+public final class ValidationErrors {
+
+    private List<String> errors;
+
+    public void add(String error) {
+        if (errors == null) {
+            errors = new ArrayList<>(4);
+        }
+        errors.add(error);
+    }
+
+    public boolean isEmpty() {
+        return errors == null;
+    }
+
+    /**
+     * @throws ValidationException listing the collected errors, if there are any
+     */
+    public void throwIfAny() {
+        if (errors != null) {
+            throw new ValidationException(errors);
+        }
+    }
+}
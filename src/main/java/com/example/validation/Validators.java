@@ -0,0 +1,129 @@
+package com.example.validation;
+
+import com.example.utils.i11Utils;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Regex-free equivalents of {@link i11Utils#EMAIL_PATTERN}, {@link i11Utils#MOBILE_PATTERN} and
+ * {@link i11Utils#DATE_FORMATTER}: single passes over the characters with no Matcher, no parse
+ * context and no exception on invalid input. ValidatorsTest keeps them in step with the patterns.
+ */
+public final class Validators {
+
+    private Validators() {
+    }
+
+    /**
+     * {@code ^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$}
+     */
+    public static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        if (at < 1) {
+            return false;
+        }
+        for (int i = 0; i < at; i++) {
+            if (!isLocalPartChar(value.charAt(i))) {
+                return false;
+            }
+        }
+
+        // the top-level domain has no dots, so it starts after the last one
+        int lastDot = value.lastIndexOf('.');
+        if (lastDot < at + 2 || value.length() - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = at + 1; i < lastDot; i++) {
+            if (!isDomainChar(value.charAt(i))) {
+                return false;
+            }
+        }
+        for (int i = lastDot + 1; i < value.length(); i++) {
+            if (!isLetter(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code ^[6-9][0-9]{9}$}
+     */
+    public static boolean isMobile(String value) {
+        if (value.length() != 10) {
+            return false;
+        }
+        char first = value.charAt(0);
+        if (first < '6' || first > '9') {
+            return false;
+        }
+        for (int i = 1; i < 10; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a {@code yyyy-MM-dd} date the way {@link i11Utils#DATE_FORMATTER} does, or returns
+     * null when it would fail. A day past the end of the month resolves to the last day, as with
+     * the formatter's smart resolver (2023-02-30 is 2023-02-28).
+     */
+    public static LocalDate parseDate(String value) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            // years beyond four digits need a sign; leave those to the formatter
+            return value.startsWith("+") ? parseWithFormatter(value) : null;
+        }
+
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+    }
+
+    private static LocalDate parseWithFormatter(String value) {
+        try {
+            return LocalDate.parse(value, i11Utils.DATE_FORMATTER);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The value of the ASCII digits in [from, to), or -1 if any is not a digit.
+     */
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
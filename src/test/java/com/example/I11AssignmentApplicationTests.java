@@ -3,7 +3,10 @@ package com.example;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"app.mongo.search-keys.migrate-on-startup=false",
+		"app.mongo.indexes.create-on-startup=false"
+})
 class I11AssignmentApplicationTests {
 
 	@Test
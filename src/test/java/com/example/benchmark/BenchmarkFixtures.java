@@ -0,0 +1,94 @@
+package com.example.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.model.Company;
+import com.example.model.Driver;
+import com.example.repository.InMemoryCompanyRepository;
+import com.example.repository.InMemoryDriverRepository;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * Entities and setup shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Benchmarks that run application code measure it without its log output;
+     * RequestLoggingBenchmark covers logging.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger("com.example")).setLevel(Level.WARN);
+    }
+
+    /**
+     * Repository holding companies 0 to size - 1. Writes are discarded so benchmarks can
+     * repeat them and measure the application code around the database.
+     */
+    static InMemoryCompanyRepository companyRepository(int size) {
+        InMemoryCompanyRepository repository = new InMemoryCompanyRepository();
+        for (int i = 0; i < size; i++) {
+            repository.insert(company(i));
+        }
+        return repository.discardWrites();
+    }
+
+    /**
+     * Repository holding drivers 0 to size - 1, with writes discarded.
+     */
+    static InMemoryDriverRepository driverRepository(int size) {
+        InMemoryDriverRepository repository = new InMemoryDriverRepository();
+        for (int i = 0; i < size; i++) {
+            repository.insert(driver(i));
+        }
+        return repository.discardWrites();
+    }
+
+    static Company company(int i) {
+        Company company = new Company();
+        company.setId("65f1c2a9e4b0a1b2c3d4e5" + String.format("%02x", i % 256));
+        company.setCompanyName("Company " + i);
+        company.setEstablishedOn("2001-04-17");
+        company.setRegistrationNumber("REG-" + (100_000 + i));
+        company.setWebsite("https://company" + i + ".example.com");
+        company.setAddress1(i + " Main Street");
+        company.setAddress2("Suite " + i);
+        company.setCity("Pune");
+        company.setState("Maharashtra");
+        company.setZipCode("411001");
+        company.setPrimaryContactFirstName("Asha");
+        company.setPrimaryContactLastName("Patil");
+        company.setPrimaryContactEmail("asha.patil" + i + "@example.com");
+        company.setPrimaryContactMobile("9876543210");
+        company.setCreatedOn(Instant.parse("2024-01-02T03:04:05.678Z"));
+        company.setModifiedOn(Instant.parse("2024-02-03T04:05:06.789Z"));
+        company.setIsActive(true);
+        return company;
+    }
+
+    static Driver driver(int i) {
+        Driver driver = new Driver();
+        driver.setId("65f1c2a9e4b0a1b2c3d4f6" + String.format("%02x", i % 256));
+        driver.setFirstName("Ravi" + i);
+        driver.setLastName("Kulkarni");
+        driver.setEmail("ravi.kulkarni" + i + "@example.com");
+        driver.setMobile("9123456780");
+        driver.setDateOfBirth("1988-11-23");
+        driver.setLicenseNumber("MH12-2011-" + (1_000_000 + i));
+        driver.setExperienceYears(12);
+        driver.setAddress1(i + " Station Road");
+        driver.setAddress2("Flat 3B");
+        driver.setCity("Nashik");
+        driver.setState("Maharashtra");
+        driver.setZipCode("422001");
+        driver.setCreatedOn(Instant.parse("2023-05-06T07:08:09.010Z"));
+        driver.setModifiedOn(Instant.parse("2024-06-07T08:09:10.011Z"));
+        driver.setIsActive(true);
+        return driver;
+    }
+}
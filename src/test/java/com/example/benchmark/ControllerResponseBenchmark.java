@@ -0,0 +1,119 @@
+package com.example.benchmark;
+
+import com.example.controller.CompanyController;
+import com.example.controller.DriverController;
+import com.example.service.CompanyService;
+import com.example.service.DriverService;
+import com.example.validation.CompanyValidator;
+import com.example.validation.DriverValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller get and search handlers from arguments to response bytes: field selection,
+ * response building and Jackson serialization, over the in-memory repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerResponseBenchmark {
+
+    private static final String COMPANY_FIELDS = "id,companyName,city,primaryContactEmail";
+
+    private static final String DRIVER_FIELDS = "id,firstName,lastName,licenseNumber";
+
+    private ObjectMapper objectMapper;
+
+    private CompanyController companyController;
+
+    private DriverController driverController;
+
+    private String companyId;
+
+    private String driverId;
+
+    /** a plain get: no If-None-Match or If-Modified-Since, so the full response is built */
+    private WebRequest request;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        objectMapper = JsonMapper.builder().build();
+
+        CompanyService companyService = new CompanyService();
+        companyService.setCompanyRepository(BenchmarkFixtures.companyRepository(100));
+        companyService.setCompanyValidator(new CompanyValidator());
+        companyController = new CompanyController();
+        companyController.setCompanyService(companyService);
+        companyController.setObjectMapper(objectMapper);
+        companyId = BenchmarkFixtures.company(0).getId();
+
+        DriverService driverService = new DriverService();
+        driverService.setDriverRepository(BenchmarkFixtures.driverRepository(100));
+        driverService.setDriverValidator(new DriverValidator());
+        driverController = new DriverController();
+        ReflectionTestUtils.setField(driverController, "driverService", driverService);
+        ReflectionTestUtils.setField(driverController, "objectMapper", objectMapper);
+        driverId = BenchmarkFixtures.driver(0).getId();
+
+        request = new ServletWebRequest(new MockHttpServletRequest());
+    }
+
+    @Benchmark
+    public byte[] getCompany() {
+        return objectMapper.writeValueAsBytes(companyController.getCompanyById(companyId, null, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] getCompanyWithFields() {
+        return objectMapper.writeValueAsBytes(companyController.getCompanyById(companyId, COMPANY_FIELDS, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] searchCompanies() {
+        return objectMapper.writeValueAsBytes(
+                companyController.getCompanies(null, null, 0, 20, null, null, 10_000, null).getBody());
+    }
+
+    @Benchmark
+    public byte[] searchCompaniesWithFields() {
+        return objectMapper.writeValueAsBytes(
+                companyController.getCompanies(null, null, 0, 20, null, null, 10_000, COMPANY_FIELDS).getBody());
+    }
+
+    @Benchmark
+    public byte[] getDriver() {
+        return objectMapper.writeValueAsBytes(driverController.getDriverById(driverId, null, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] searchDrivers() {
+        return objectMapper.writeValueAsBytes(
+                driverController.getDrivers(null, null, null, 0, 20, null, null, 10_000, null).getBody());
+    }
+
+    @Benchmark
+    public byte[] searchDriversWithFields() {
+        return objectMapper.writeValueAsBytes(
+                driverController.getDrivers(null, null, null, 0, 20, null, null, 10_000, DRIVER_FIELDS).getBody());
+    }
+}
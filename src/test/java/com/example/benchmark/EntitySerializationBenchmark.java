@@ -0,0 +1,122 @@
+package com.example.benchmark;
+
+import com.example.codec.CompanyCodec;
+import com.example.codec.DriverCodec;
+import com.example.model.Company;
+import com.example.model.Driver;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Company and one Driver to and from JSON (request and response bodies) and BSON
+ * (the registered codecs, as the driver reads and writes them on the wire).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySerializationBenchmark {
+
+    private final CompanyCodec companyCodec = new CompanyCodec();
+
+    private final DriverCodec driverCodec = new DriverCodec();
+
+    private ObjectMapper objectMapper;
+
+    private Company company;
+
+    private Driver driver;
+
+    private byte[] companyJson;
+
+    private byte[] driverJson;
+
+    private byte[] companyBson;
+
+    private byte[] driverBson;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+
+        company = BenchmarkFixtures.company(1);
+        driver = BenchmarkFixtures.driver(1);
+
+        companyJson = objectMapper.writeValueAsBytes(company);
+        driverJson = objectMapper.writeValueAsBytes(driver);
+        companyBson = writeCompanyBson();
+        driverBson = writeDriverBson();
+    }
+
+    @Benchmark
+    public byte[] writeCompanyJson() {
+        return objectMapper.writeValueAsBytes(company);
+    }
+
+    @Benchmark
+    public Company readCompanyJson() {
+        return objectMapper.readValue(companyJson, Company.class);
+    }
+
+    @Benchmark
+    public byte[] writeDriverJson() {
+        return objectMapper.writeValueAsBytes(driver);
+    }
+
+    @Benchmark
+    public Driver readDriverJson() {
+        return objectMapper.readValue(driverJson, Driver.class);
+    }
+
+    @Benchmark
+    public byte[] writeCompanyBson() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            companyCodec.encode(writer, company, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Company readCompanyBson() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(companyBson))) {
+            return companyCodec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    @Benchmark
+    public byte[] writeDriverBson() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            driverCodec.encode(writer, driver, EncoderContext.builder().build());
+        }
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Driver readDriverBson() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(driverBson))) {
+            return driverCodec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.config.SampledLogFilter;
+import com.example.dto.EntityResponse;
+import com.example.model.Company;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a get-by-id request's log lines plus its response serialization, with logging
+ * off, written synchronously, behind the AsyncAppender from logback-spring.xml, and async with
+ * 10% sampling. Events go to a null stream with the application's console pattern, so this
+ * measures formatting and appender contention rather than terminal speed; a real console makes
+ * the synchronous case worse. With neverBlock the async modes drop events once the queue is full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%replace( %kvp){'^ $', ''}%n";
+
+    @Param({"off", "sync", "async", "async-sampled"})
+    private String logging;
+
+    private LoggerContext context;
+
+    private Logger controllerLog;
+
+    private Logger serviceLog;
+
+    private ObjectMapper objectMapper;
+
+    private Company company;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if (logging.startsWith("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        }
+        if (logging.equals("async-sampled")) {
+            SampledLogFilter filter = new SampledLogFilter();
+            filter.setContext(context);
+            filter.setRate(0.1);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel(logging.equals("off") ? Level.WARN : Level.INFO);
+
+        controllerLog = context.getLogger("com.example.controller.CompanyController");
+        serviceLog = context.getLogger("com.example.service.CompanyService");
+
+        objectMapper = JsonMapper.builder().build();
+        company = BenchmarkFixtures.company(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public byte[] getCompanyRequest() {
+        String id = company.getId();
+        String fields = null;
+
+        controllerLog.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Get Company API called")
+                .addKeyValue("id", id).addKeyValue("fields", fields).log();
+        serviceLog.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("getting company").addKeyValue("id", id).log();
+
+        byte[] body = objectMapper.writeValueAsBytes(EntityResponse.withStatus(company, "SUCCESS"));
+
+        controllerLog.atInfo().addMarker(SampledLogFilter.SAMPLED).setMessage("Company fetched successfully").addKeyValue("id", id).log();
+
+        return body;
+    }
+}
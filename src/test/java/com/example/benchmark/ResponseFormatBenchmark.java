@@ -0,0 +1,95 @@
+package com.example.benchmark;
+
+import com.example.dto.CompanySearchResponse;
+import com.example.dto.SearchPage;
+import com.example.model.Company;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A get-companies page as JSON, Smile and CBOR (the formats negotiated through Accept):
+ * writing it, writing and gzipping it as server.compression does, and parsing it back as a
+ * caller would. The encoded and gzipped sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+
+    private CompanySearchResponse response;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "smile" -> SmileMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+
+        List<Company> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(BenchmarkFixtures.company(i));
+        }
+        response = CompanySearchResponse.from(new SearchPage<>(content, 0, pageSize, 12_345L, SearchPage.TotalAccuracy.EXACT));
+
+        encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n%s, %d companies: %d bytes, %d gzipped%n", format, pageSize, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeGzipped() throws IOException {
+        return gzip(mapper.writeValueAsBytes(response));
+    }
+
+    @Benchmark
+    public JsonNode read() {
+        return mapper.readTree(encoded);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.benchmark;
+
+import com.example.dto.CompanySearchResponse;
+import com.example.dto.EntityResponse;
+import com.example.dto.SearchPage;
+import com.example.model.Company;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the get and search responses: the previous intermediate
+ * ObjectNode tree against the response records written directly by Jackson.
+ * Run with the benchmark profile, which adds {@code -prof gc} for gc.alloc.rate.norm
+ * (bytes allocated per response).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private Company company;
+
+    private SearchPage<Company> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+
+        company = BenchmarkFixtures.company(0);
+
+        List<Company> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(BenchmarkFixtures.company(i));
+        }
+        page = new SearchPage<>(content, 0, pageSize, 12_345L, SearchPage.TotalAccuracy.EXACT);
+    }
+
+    @Benchmark
+    public byte[] getByIdTree() {
+        ObjectNode node = objectMapper.valueToTree(company);
+        node.put("status", "SUCCESS");
+        return objectMapper.writeValueAsBytes(node);
+    }
+
+    @Benchmark
+    public byte[] getByIdDirect() {
+        return objectMapper.writeValueAsBytes(EntityResponse.withStatus(company, "SUCCESS"));
+    }
+
+    @Benchmark
+    public byte[] searchTree() {
+        ArrayNode companiesArray = objectMapper.createArrayNode();
+        page.content().forEach(c -> companiesArray.add(objectMapper.valueToTree(c)));
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("pageIndex", page.pageIndex());
+        response.put("itemsPerPage", page.itemsPerPage());
+        response.put("totalRecords", page.totalRecords());
+        response.set("companies", companiesArray);
+
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] searchDirect() {
+        return objectMapper.writeValueAsBytes(CompanySearchResponse.from(page));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.benchmark;
+
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.model.Company;
+import com.example.model.Driver;
+import com.example.service.CompanyService;
+import com.example.service.DriverService;
+import com.example.validation.CompanyValidator;
+import com.example.validation.DriverValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompanyService and DriverService create, update and search over the in-memory repositories:
+ * validation, normalization, change collection and parameter checks, without the database.
+ * Searches are unfiltered, so every page is full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final Set<String> FIELDS = Set.of("id", "companyName", "firstName", "lastName", "city");
+
+    private CompanyService companyService;
+
+    private DriverService driverService;
+
+    private String companyId;
+
+    private String driverId;
+
+    private Company newCompany;
+
+    private Driver newDriver;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+
+        companyService = new CompanyService();
+        companyService.setCompanyRepository(BenchmarkFixtures.companyRepository(100));
+        companyService.setCompanyValidator(new CompanyValidator());
+        companyId = BenchmarkFixtures.company(0).getId();
+
+        driverService = new DriverService();
+        driverService.setDriverRepository(BenchmarkFixtures.driverRepository(100));
+        driverService.setDriverValidator(new DriverValidator());
+        driverId = BenchmarkFixtures.driver(0).getId();
+
+        // writes are discarded and create only restamps the audit fields, so one entity (not
+        // among the stored ones) can be created repeatedly
+        newCompany = BenchmarkFixtures.company(100);
+        newDriver = BenchmarkFixtures.driver(100);
+    }
+
+    @Benchmark
+    public Company createCompany() {
+        return companyService.createCompany(newCompany);
+    }
+
+    @Benchmark
+    public Company updateCompany() {
+        Company changes = new Company();
+        changes.setCompanyName("Company renamed");
+        changes.setPrimaryContactEmail("asha.patil@example.com");
+        changes.setPrimaryContactMobile("9876543210");
+        changes.setEstablishedOn("2001-04-17");
+        return companyService.updateCompany(companyId, changes);
+    }
+
+    @Benchmark
+    public SearchPage<Company> searchCompanies() {
+        return companyService.getAllCompanyBySearch(null, null, 0, 20, null, 10_000);
+    }
+
+    @Benchmark
+    public SearchPage<Company> searchCompaniesWithFields() {
+        return companyService.getAllCompanyBySearch(null, null, 0, 20, null, 10_000, FIELDS);
+    }
+
+    @Benchmark
+    public CursorPage<Company> searchCompaniesByCursor() {
+        return companyService.getCompaniesByCursor(null, null, "", 20);
+    }
+
+    @Benchmark
+    public Driver createDriver() {
+        return driverService.createDriver(newDriver);
+    }
+
+    @Benchmark
+    public Driver updateDriver() {
+        Driver changes = new Driver();
+        changes.setLastName("Deshpande");
+        changes.setEmail("ravi.deshpande@example.com");
+        changes.setMobile("9123456780");
+        changes.setDateOfBirth("1988-11-23");
+        return driverService.updateDriver(driverId, changes);
+    }
+
+    @Benchmark
+    public SearchPage<Driver> searchDrivers() {
+        return driverService.searchDrivers(null, null, null, 0, 20, null, 10_000);
+    }
+
+    @Benchmark
+    public CursorPage<Driver> searchDriversByCursor() {
+        return driverService.searchDriversByCursor(null, null, null, "", 20);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.benchmark;
+
+import com.example.exception.BadRequestException;
+import com.example.model.Company;
+import com.example.model.Driver;
+import com.example.utils.i11Utils;
+import com.example.validation.CompanyValidator;
+import com.example.validation.DriverValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Create-path validation of one company and one driver: the previous per-request
+ * {@code Pattern.compile} and {@code DateTimeFormatter} checks (kept here as {@code legacy*})
+ * against {@link CompanyValidator} and {@link DriverValidator}, for a valid driver and for one
+ * with three errors. Run with the benchmark profile for gc.alloc.rate.norm (bytes per entity).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private final CompanyValidator companyValidator = new CompanyValidator();
+
+    private final DriverValidator driverValidator = new DriverValidator();
+
+    private Company company;
+
+    private Driver driver;
+
+    private Driver invalidDriver;
+
+    @Setup
+    public void setUp() {
+        company = BenchmarkFixtures.company(1);
+
+        driver = driver("ravi.kumar@example.com", "9876543210", "1990-05-17");
+        invalidDriver = driver("ravi.kumar@example", "12345", "2099-01-01");
+    }
+
+    @Benchmark
+    public Company legacyCompany() {
+        legacyValidate(company);
+        return company;
+    }
+
+    @Benchmark
+    public Company validatorCompany() {
+        companyValidator.validateForCreate(company);
+        return company;
+    }
+
+    @Benchmark
+    public Driver legacyDriver() {
+        legacyValidate(driver);
+        return driver;
+    }
+
+    @Benchmark
+    public Driver validatorDriver() {
+        driverValidator.validateForCreate(driver);
+        return driver;
+    }
+
+    @Benchmark
+    public Object legacyInvalidDriver() {
+        try {
+            legacyValidate(invalidDriver);
+            return invalidDriver;
+        } catch (BadRequestException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object validatorInvalidDriver() {
+        try {
+            driverValidator.validateForCreate(invalidDriver);
+            return invalidDriver;
+        } catch (BadRequestException ex) {
+            return ex;
+        }
+    }
+
+    private static Driver driver(String email, String mobile, String dateOfBirth) {
+        Driver driver = new Driver();
+        driver.setFirstName("Ravi");
+        driver.setLastName("Kumar");
+        driver.setEmail(email);
+        driver.setMobile(mobile);
+        driver.setDateOfBirth(dateOfBirth);
+        driver.setLicenseNumber("MH12-2020-0001");
+        return driver;
+    }
+
+    private static void legacyValidate(Company company) {
+        if (!StringUtils.hasText(company.getCompanyName()) || !StringUtils.hasText(company.getRegistrationNumber())) {
+            throw new BadRequestException("Company Name, Registration Number are mandatory");
+        }
+        if (company.getEstablishedOn() != null && !company.getEstablishedOn().trim().isEmpty()) {
+            try {
+                LocalDate date = LocalDate.parse(company.getEstablishedOn().trim(), i11Utils.DATE_FORMATTER);
+                if (date.isAfter(LocalDate.now())) {
+                    throw new BadRequestException("Please provide a valid registration date. Future date is not allowed.");
+                }
+                if (date.isBefore(LocalDate.of(1800, 1, 1))) {
+                    throw new BadRequestException("Please provide a valid registration date.");
+                }
+                company.setEstablishedOn(date.format(i11Utils.DATE_FORMATTER));
+            } catch (DateTimeParseException ex) {
+                throw new BadRequestException("Invalid establishedOn date. Expected format is yyyy-MM-dd");
+            }
+        }
+        if (company.getPrimaryContactMobile() != null && !company.getPrimaryContactMobile().isEmpty()
+                && !Pattern.compile(i11Utils.MOBILE_PATTERN).matcher(company.getPrimaryContactMobile().trim()).matches()) {
+            throw new BadRequestException("Invalid mobile number");
+        }
+        if (company.getPrimaryContactEmail() != null && !company.getPrimaryContactEmail().isEmpty()
+                && !Pattern.compile(i11Utils.EMAIL_PATTERN).matcher(company.getPrimaryContactEmail()).matches()) {
+            throw new BadRequestException("Invalid email");
+        }
+    }
+
+    private static void legacyValidate(Driver driver) {
+        if (!StringUtils.hasText(driver.getFirstName()) || !StringUtils.hasText(driver.getLastName())
+                || !StringUtils.hasText(driver.getEmail()) || !StringUtils.hasText(driver.getMobile())
+                || driver.getDateOfBirth() == null || !StringUtils.hasText(driver.getLicenseNumber())) {
+            throw new BadRequestException("First Name, Last Name, Email, Mobile , DOB, and License Number are mandatory");
+        }
+        if (!Pattern.compile(i11Utils.EMAIL_PATTERN).matcher(driver.getEmail()).matches()) {
+            throw new BadRequestException("Please provide a valid email address");
+        }
+        if (!Pattern.compile(i11Utils.MOBILE_PATTERN).matcher(driver.getMobile()).matches()) {
+            throw new BadRequestException("Please provide a valid mobile number");
+        }
+        LocalDate dob;
+        try {
+            dob = LocalDate.parse(driver.getDateOfBirth().trim(), i11Utils.DATE_FORMATTER);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid dateOfBirth. Expected format is yyyy-MM-dd");
+        }
+        if (dob.isAfter(LocalDate.now())) {
+            throw new BadRequestException("Date of birth cannot be a future date");
+        }
+        if (dob.isAfter(LocalDate.now().minusYears(18))) {
+            throw new BadRequestException("Driver must be at least 18 years old");
+        }
+        driver.setDateOfBirth(dob.format(i11Utils.DATE_FORMATTER));
+    }
+}
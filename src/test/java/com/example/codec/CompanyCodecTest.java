@@ -0,0 +1,79 @@
+package com.example.codec;
+
+import com.example.model.Company;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompanyCodecTest {
+
+    private final MappingMongoConverter converter = MappingConverters.converter();
+
+    private final CompanyCodec codec = new CompanyCodec();
+
+    static List<Company> companies() {
+        Company full = new Company();
+        full.setId("65f1c2a9e4b0a1b2c3d4e5f6");
+        full.setCompanyName("Acme Logistics");
+        full.setEstablishedOn("2001-04-17");
+        full.setRegistrationNumber("REG-100001");
+        full.setWebsite("https://acme.example.com");
+        full.setAddress1("12 Main Street");
+        full.setAddress2("Suite 4");
+        full.setCity("Pune");
+        full.setState("Maharashtra");
+        full.setZipCode("411001");
+        full.setPrimaryContactFirstName("Asha");
+        full.setPrimaryContactLastName("Patil");
+        full.setPrimaryContactEmail("asha.patil@example.com");
+        full.setPrimaryContactMobile("9876543210");
+        full.setCreatedOn(Instant.parse("2024-01-02T03:04:05.678Z"));
+        full.setModifiedOn(Instant.parse("2024-02-03T04:05:06.789Z"));
+        full.setIsActive(true);
+        full.setCompanyNameKey("acme logistics");
+        full.setRegistrationNumberKey("reg-100001");
+
+        Company sparse = new Company();
+        sparse.setId("legacy-company-1");
+        sparse.setCompanyName("Sparse");
+        sparse.setIsActive(false);
+
+        return List.of(full, sparse, new Company());
+    }
+
+    @ParameterizedTest
+    @MethodSource("companies")
+    void writesTheSameDocumentAsTheConverter(Company company) {
+        assertEquals(MappingConverters.write(converter, company), MappingConverters.encode(codec, company));
+    }
+
+    @ParameterizedTest
+    @MethodSource("companies")
+    void readsWhatTheConverterWrote(Company company) {
+        assertEquals(company, MappingConverters.decode(codec, MappingConverters.write(converter, company)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("companies")
+    void converterReadsWhatTheCodecWrote(Company company) {
+        assertEquals(company, MappingConverters.read(converter, Company.class, MappingConverters.encode(codec, company)));
+    }
+
+    @Test
+    void skipsUnknownFields() {
+        Company company = companies().get(0);
+
+        BsonDocument bson = MappingConverters.encode(codec, company);
+        bson.put("legacyField", new BsonString("ignored"));
+
+        assertEquals(company, MappingConverters.decode(codec, bson));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.codec;
+
+import com.example.model.Driver;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DriverCodecTest {
+
+    private final MappingMongoConverter converter = MappingConverters.converter();
+
+    private final DriverCodec codec = new DriverCodec();
+
+    static List<Driver> drivers() {
+        Driver full = new Driver();
+        full.setId("65f1c2a9e4b0a1b2c3d4e5f7");
+        full.setFirstName("Ravi");
+        full.setLastName("Kulkarni");
+        full.setEmail("ravi.kulkarni@example.com");
+        full.setMobile("9123456780");
+        full.setDateOfBirth("1988-11-23");
+        full.setLicenseNumber("MH12-2011-0001234");
+        full.setExperienceYears(12);
+        full.setAddress1("7 Station Road");
+        full.setAddress2("Flat 3B");
+        full.setCity("Nashik");
+        full.setState("Maharashtra");
+        full.setZipCode("422001");
+        full.setCreatedOn(Instant.parse("2023-05-06T07:08:09.010Z"));
+        full.setModifiedOn(Instant.parse("2024-06-07T08:09:10.011Z"));
+        full.setIsActive(true);
+        full.setFirstNameKey("ravi");
+        full.setLastNameKey("kulkarni");
+        full.setLicenseNumberKey("mh12-2011-0001234");
+
+        Driver sparse = new Driver();
+        sparse.setId("legacy-driver-1");
+        sparse.setFirstName("Sparse");
+        sparse.setExperienceYears(0);
+
+        return List.of(full, sparse, new Driver());
+    }
+
+    @ParameterizedTest
+    @MethodSource("drivers")
+    void writesTheSameDocumentAsTheConverter(Driver driver) {
+        assertEquals(MappingConverters.write(converter, driver), MappingConverters.encode(codec, driver));
+    }
+
+    @ParameterizedTest
+    @MethodSource("drivers")
+    void readsWhatTheConverterWrote(Driver driver) {
+        assertEquals(driver, MappingConverters.decode(codec, MappingConverters.write(converter, driver)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("drivers")
+    void converterReadsWhatTheCodecWrote(Driver driver) {
+        assertEquals(driver, MappingConverters.read(converter, Driver.class, MappingConverters.encode(codec, driver)));
+    }
+
+    @Test
+    void readsNumbersStoredWithOtherTypesAndExplicitNulls() {
+        BsonDocument bson = MappingConverters.encode(codec, drivers().get(0));
+        bson.put("experienceYears", new BsonInt64(15));
+        bson.put("email", BsonNull.VALUE);
+
+        Driver driver = MappingConverters.decode(codec, bson);
+
+        assertEquals(15, driver.getExperienceYears());
+        assertNull(driver.getEmail());
+        assertEquals(driver, MappingConverters.read(converter, Driver.class, bson));
+    }
+}
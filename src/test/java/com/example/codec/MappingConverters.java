@@ -0,0 +1,60 @@
+package com.example.codec;
+
+import com.mongodb.MongoClientSettings;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+/**
+ * The reflective mapping the codecs replace, configured as MongoTemplate configures it,
+ * plus helpers to move entities through either side as BSON.
+ */
+final class MappingConverters {
+
+    private MappingConverters() {}
+
+    static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    static BsonDocument write(MappingMongoConverter converter, Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    static <T> T read(MappingMongoConverter converter, Class<T> type, BsonDocument bson) {
+        Document document = new DocumentCodec().decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+        return converter.read(type, document);
+    }
+
+    static <T> BsonDocument encode(Codec<T> codec, T entity) {
+        BsonDocument bson = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(bson), entity, EncoderContext.builder().build());
+        return bson;
+    }
+
+    static <T> T decode(Codec<T> codec, BsonDocument bson) {
+        return codec.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.config;
+
+import com.example.cache.EntityCache;
+import com.example.exception.ServiceUnavailableException;
+import com.example.model.Company;
+import com.example.repository.CompanyRepository;
+import com.example.repository.EntityReader;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MongoBulkheadTest {
+
+    private static final String ID = "65f1c2a9e4b0a1b2c3d4e5f6";
+
+    // never connected: with no permits, every call that would reach the database is rejected first
+    private final MongoClient mongoClient = MongoClients.create("mongodb://localhost:1");
+
+    private final MongoBulkhead bulkhead = new MongoBulkhead(0, Duration.ofMillis(1));
+
+    private final MongoTemplate mongoTemplate = limited(new MongoTemplate(mongoClient, "test"));
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+    }
+
+    @Test
+    void databaseCallsNeedAPermit() {
+        assertThrows(ServiceUnavailableException.class, () -> mongoTemplate.count(new Query(), Company.class));
+        assertThrows(ServiceUnavailableException.class, () -> mongoTemplate.findById(ID, Company.class));
+        assertEquals(2, bulkhead.snapshot().rejected());
+    }
+
+    @Test
+    void bulkWritesNeedAPermitWhenSent() {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Company.class)
+                .insert(new Company());
+
+        assertThrows(ServiceUnavailableException.class, bulk::execute);
+    }
+
+    @Test
+    void workThatNeverReachesTheDatabaseTakesNoPermit() {
+        assertNotNull(mongoTemplate.getConverter());
+        assertEquals("companies", mongoTemplate.getCollectionName(Company.class));
+
+        EntityCache<Company> cache = new EntityCache<>("companies", Company::new, 100, Duration.ofMinutes(5));
+        Company company = new Company();
+        company.setId(ID);
+        cache.put(ID, company);
+
+        EntityReader entityReader = new EntityReader();
+        entityReader.setMongoTemplate(mongoTemplate);
+        CompanyRepository repository = new CompanyRepository();
+        repository.setMongoTemplate(mongoTemplate);
+        repository.setEntityReader(entityReader);
+        repository.setCompanyCache(cache);
+
+        assertEquals(ID, repository.findById(ID).getId());
+        assertEquals(0, bulkhead.snapshot().rejected());
+    }
+
+    private MongoTemplate limited(MongoTemplate target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(bulkhead);
+        return proxyFactory.getProxy();
+    }
+}
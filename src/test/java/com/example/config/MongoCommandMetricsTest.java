@@ -0,0 +1,54 @@
+package com.example.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoCommandMetricsTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MongoCommandMetrics metrics = new MongoCommandMetrics(registry);
+
+    @Test
+    void documentsAreRecordedPerCommandAndCollection() {
+        find(1, "companies", 2);
+        find(2, "companies", 3);
+        find(3, "drivers", 1);
+
+        DistributionSummary companies = registry.get("mongodb.driver.commands.documents")
+                .tags("command", "find", "collection", "companies").summary();
+        assertEquals(2, companies.count());
+        assertEquals(5, companies.totalAmount());
+        assertEquals(1, registry.get("mongodb.driver.commands.documents")
+                .tags("command", "find", "collection", "drivers").summary().count());
+    }
+
+    private void find(int requestId, String collection, int returned) {
+        BsonArray batch = new BsonArray();
+        for (int i = 0; i < returned; i++) {
+            batch.add(new BsonDocument("_id", new BsonInt32(i)));
+        }
+
+        metrics.commandStarted(new CommandStartedEvent(null, requestId, requestId, CONNECTION, "test", "find",
+                new BsonDocument("find", new BsonString(collection))));
+        metrics.commandSucceeded(new CommandSucceededEvent(null, requestId, requestId, CONNECTION, "test", "find",
+                new BsonDocument("cursor", new BsonDocument("firstBatch", batch)), 1_000));
+    }
+}
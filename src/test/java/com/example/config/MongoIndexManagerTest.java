@@ -0,0 +1,92 @@
+package com.example.config;
+
+import com.example.model.Company;
+import com.example.model.Driver;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MongoIndexManagerTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final IndexOperations companyIndexes = mock(IndexOperations.class);
+
+    private final IndexOperations driverIndexes = mock(IndexOperations.class);
+
+    private final MongoIndexManager indexManager = new MongoIndexManager();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(Company.class)).thenReturn(companyIndexes);
+        when(mongoTemplate.indexOps(Driver.class)).thenReturn(driverIndexes);
+        when(mongoTemplate.getCollectionName(Company.class)).thenReturn("company");
+        when(mongoTemplate.getCollectionName(Driver.class)).thenReturn("driver");
+        indexManager.setMongoTemplate(mongoTemplate);
+    }
+
+    @Test
+    void nothingIsConfirmedBeforeVerifying() {
+        assertFalse(indexManager.isUniqueIndexConfirmed(Company.class));
+        assertFalse(indexManager.isUniqueIndexConfirmed(Driver.class));
+    }
+
+    @Test
+    void confirmsUniqueIndexesThatExistAsDeclared() {
+        when(companyIndexes.getIndexInfo()).thenReturn(List.of(id(), unique("uk_active_registrationNumber", "registrationNumber")));
+        when(driverIndexes.getIndexInfo()).thenReturn(List.of(id(), unique("uk_active_licenseNumber", "licenseNumber")));
+
+        assertEquals(List.of(), indexManager.verifyUniqueIndexes());
+        assertTrue(indexManager.isUniqueIndexConfirmed(Company.class));
+        assertTrue(indexManager.isUniqueIndexConfirmed(Driver.class));
+    }
+
+    @Test
+    void missingOrDifferentUniqueIndexesStayUnconfirmed() {
+        // e.g. the build failed on existing duplicates, and a same-named index that is not unique
+        when(companyIndexes.getIndexInfo()).thenReturn(List.of(id()));
+        when(driverIndexes.getIndexInfo()).thenReturn(List.of(id(), IndexInfo.indexInfoOf(new Document("name", "uk_active_licenseNumber")
+                .append("key", new Document("licenseNumber", 1))
+                .append("partialFilterExpression", new Document("isActive", true)))));
+
+        assertEquals(List.of("company.uk_active_registrationNumber", "driver.uk_active_licenseNumber"),
+                indexManager.verifyUniqueIndexes());
+        assertFalse(indexManager.isUniqueIndexConfirmed(Company.class));
+        assertFalse(indexManager.isUniqueIndexConfirmed(Driver.class));
+    }
+
+    @Test
+    void aDroppedIndexIsNoLongerConfirmed() {
+        when(companyIndexes.getIndexInfo()).thenReturn(List.of(id(), unique("uk_active_registrationNumber", "registrationNumber")));
+        when(driverIndexes.getIndexInfo()).thenReturn(List.of(id(), unique("uk_active_licenseNumber", "licenseNumber")));
+        indexManager.verifyUniqueIndexes();
+
+        when(companyIndexes.getIndexInfo()).thenReturn(List.of(id()));
+
+        assertEquals(List.of("company.uk_active_registrationNumber"), indexManager.verifyUniqueIndexes());
+        assertFalse(indexManager.isUniqueIndexConfirmed(Company.class));
+        assertTrue(indexManager.isUniqueIndexConfirmed(Driver.class));
+    }
+
+    private static IndexInfo id() {
+        return IndexInfo.indexInfoOf(new Document("name", "_id_").append("key", new Document("_id", 1)));
+    }
+
+    private static IndexInfo unique(String name, String field) {
+        return IndexInfo.indexInfoOf(new Document("name", name)
+                .append("key", new Document(field, 1))
+                .append("unique", true)
+                .append("partialFilterExpression", new Document("isActive", true)));
+    }
+}
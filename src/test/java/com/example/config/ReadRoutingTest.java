@@ -0,0 +1,106 @@
+package com.example.config;
+
+import com.example.exception.BadRequestException;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadRoutingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void primaryWithMaxStalenessLeavesSearchesOnTheDefault() {
+        ReadRouting readRouting = routing("primary");
+
+        assertNull(readRouting.searchReadPreference());
+    }
+
+    @Test
+    void searchesGoToTheConfiguredSecondary() {
+        ReadRouting readRouting = routing("secondaryPreferred");
+
+        assertEquals("secondaryPreferred", readRouting.searchReadPreference().getName());
+        assertEquals(90_000L, ((TaggableReadPreference) readRouting.searchReadPreference()).getMaxStaleness(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recentReadAfterPinsServletSearchesToThePrimary() {
+        ReadRouting readRouting = routing("secondaryPreferred");
+
+        withReadAfter(Instant.now().minusSeconds(5).toString());
+
+        assertEquals(ReadPreference.primary(), readRouting.searchReadPreference());
+    }
+
+    @Test
+    void readAfterAcceptsAnHttpDate() {
+        ReadRouting readRouting = routing("secondaryPreferred");
+
+        withReadAfter(DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.now().atOffset(ZoneOffset.UTC)));
+
+        assertEquals(ReadPreference.primary(), readRouting.searchReadPreference());
+    }
+
+    @Test
+    void readAfterOlderThanMaxStalenessUsesTheSecondary() {
+        ReadRouting readRouting = routing("secondaryPreferred");
+
+        withReadAfter(Instant.now().minus(Duration.ofMinutes(5)).toString());
+
+        assertEquals("secondaryPreferred", readRouting.searchReadPreference().getName());
+    }
+
+    @Test
+    void reactiveReadAfterComesFromTheContext() {
+        ReadRouting readRouting = routing("secondaryPreferred");
+
+        assertEquals(ReadPreference.primary(),
+                readRouting.searchReadPreference(Context.of(ReadRouting.READ_AFTER, Instant.now().toString())));
+        assertEquals("secondaryPreferred", readRouting.searchReadPreference(Context.empty()).getName());
+    }
+
+    @Test
+    void invalidReadAfterIsRejected() {
+        ReadRouting readRouting = routing("secondaryPreferred");
+
+        withReadAfter("yesterday");
+
+        assertThrows(BadRequestException.class, readRouting::searchReadPreference);
+    }
+
+    private static ReadRouting routing(String readPreference) {
+        MongoClientProperties properties = new MongoClientProperties();
+        properties.getSearchReads().setEnabled(true);
+        properties.getSearchReads().setReadPreference(readPreference);
+        properties.getSearchReads().setMaxStaleness(Duration.ofSeconds(90));
+
+        ReadRouting readRouting = new ReadRouting();
+        readRouting.setProperties(properties);
+        return readRouting;
+    }
+
+    private static void withReadAfter(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ReadRouting.READ_AFTER_HEADER, value);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.controller;
+
+import com.example.exception.GlobalExceptionHandler;
+import com.example.model.Company;
+import com.example.repository.InMemoryCompanyRepository;
+import com.example.service.CompanyService;
+import com.example.utils.EntityTags;
+import com.example.validation.CompanyValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CompanyControllerTest {
+
+    private static final String COMPANY = """
+            {"companyName": "%s", "registrationNumber": "%s", "isActive": true}
+            """;
+
+    private static final String RENAME = """
+            {"companyName": "Acme Freight"}
+            """;
+
+    private final InMemoryCompanyRepository companyRepository = new InMemoryCompanyRepository();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        CompanyService companyService = new CompanyService();
+        companyService.setCompanyRepository(companyRepository);
+        companyService.setCompanyValidator(new CompanyValidator());
+
+        CompanyController controller = new CompanyController();
+        controller.setCompanyService(companyService);
+        controller.setObjectMapper(JsonMapper.builder().build());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void duplicateRegistrationNumberIsABadRequest() throws Exception {
+        mockMvc.perform(post("/companies/create-company").contentType(MediaType.APPLICATION_JSON)
+                        .content(COMPANY.formatted("Acme Logistics", "REG-100001")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/companies/create-company").contentType(MediaType.APPLICATION_JSON)
+                        .content(COMPANY.formatted("Acme Freight", "REG-100001")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Company with the same Registration Number already exists"));
+    }
+
+    @Test
+    void updateAtTheCurrentVersionSucceeds() throws Exception {
+        Company company = storedCompany();
+        Instant version = company.getModifiedOn();
+
+        mockMvc.perform(put("/companies/update-company/{id}", company.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .param("expectedModifiedOn", version.toString())
+                        .content(RENAME))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companyName").value("Acme Freight"));
+
+        String current = EntityTags.of(company.getId(), companyRepository.findVersion(company.getId()).getModifiedOn(), null);
+        mockMvc.perform(put("/companies/update-company/{id}", company.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, current)
+                        .content(RENAME))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void staleExpectedModifiedOnIsAConflict() throws Exception {
+        Company company = storedCompany();
+        String stale = company.getModifiedOn().minusSeconds(1).toString();
+
+        mockMvc.perform(put("/companies/update-company/{id}", company.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .param("expectedModifiedOn", stale)
+                        .content(RENAME))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/companies/delete-company/{id}", company.getId()).param("expectedModifiedOn", stale))
+                .andExpect(status().isConflict());
+
+        assertEquals("Acme Logistics", companyRepository.findById(company.getId()).getCompanyName());
+    }
+
+    @Test
+    void staleIfMatchIsAFailedPrecondition() throws Exception {
+        Company company = storedCompany();
+        String stale = EntityTags.of(company.getId(), company.getModifiedOn().minusSeconds(1), null);
+
+        mockMvc.perform(put("/companies/update-company/{id}", company.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, stale)
+                        .content(RENAME))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/companies/delete-company/{id}", company.getId()).header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Acme Logistics", companyRepository.findById(company.getId()).getCompanyName());
+    }
+
+    @Test
+    void conditionalUpdateOfAMissingCompanyIsNotFound() throws Exception {
+        mockMvc.perform(put("/companies/update-company/{id}", "65f1c2a9e4b0a1b2c3d4e5f6").contentType(MediaType.APPLICATION_JSON)
+                        .param("expectedModifiedOn", "2024-02-03T04:05:06.789Z")
+                        .content(RENAME))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void fieldsSelectsTheResponseFields() throws Exception {
+        Company company = storedCompany();
+
+        mockMvc.perform(get("/companies/get-company/{id}", company.getId()).param("fields", "companyName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(company.getId()))
+                .andExpect(jsonPath("$.companyName").value("Acme Logistics"))
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.registrationNumber").doesNotExist());
+
+        mockMvc.perform(get("/companies/get-companies").param("fields", "registrationNumber"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companies[0].registrationNumber").value("REG-100001"))
+                .andExpect(jsonPath("$.companies[0].companyName").doesNotExist());
+    }
+
+    @Test
+    void unknownFieldIsABadRequest() throws Exception {
+        Company company = storedCompany();
+
+        mockMvc.perform(get("/companies/get-company/{id}", company.getId()).param("fields", "companyName,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith("Invalid field 'password'")));
+
+        mockMvc.perform(get("/companies/get-companies").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void currentETagIsNotModified() throws Exception {
+        Company company = storedCompany();
+
+        String etag = mockMvc.perform(get("/companies/get-company/{id}", company.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/companies/get-company/{id}", company.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        // a field selection is another representation, so the full copy's tag does not match it
+        mockMvc.perform(get("/companies/get-company/{id}", company.getId()).param("fields", "companyName")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companyName").value("Acme Logistics"));
+
+        mockMvc.perform(put("/companies/update-company/{id}", company.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .content(RENAME))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/companies/get-company/{id}", company.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.companyName").value("Acme Freight"));
+    }
+
+    private Company storedCompany() {
+        Company company = new Company();
+        company.setCompanyName("Acme Logistics");
+        company.setRegistrationNumber("REG-100001");
+        company.setIsActive(true);
+        company.setModifiedOn(Instant.parse("2024-02-03T04:05:06.789Z"));
+        return companyRepository.insert(company);
+    }
+}
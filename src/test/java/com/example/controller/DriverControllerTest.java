@@ -0,0 +1,54 @@
+package com.example.controller;
+
+import com.example.exception.GlobalExceptionHandler;
+import com.example.repository.InMemoryDriverRepository;
+import com.example.service.DriverService;
+import com.example.validation.DriverValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DriverControllerTest {
+
+    private static final String DRIVER = """
+            {"firstName": "%s", "lastName": "Kumar", "email": "%s", "mobile": "9876543210",
+             "dateOfBirth": "1990-04-12", "licenseNumber": "%s", "isActive": true}
+            """;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DriverService driverService = new DriverService();
+        driverService.setDriverRepository(new InMemoryDriverRepository());
+        driverService.setDriverValidator(new DriverValidator());
+
+        DriverController controller = new DriverController();
+        ReflectionTestUtils.setField(controller, "driverService", driverService);
+        ReflectionTestUtils.setField(controller, "objectMapper", JsonMapper.builder().build());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void duplicateLicenseNumberIsABadRequest() throws Exception {
+        mockMvc.perform(post("/drivers/create-driver").contentType(MediaType.APPLICATION_JSON)
+                        .content(DRIVER.formatted("Ravi", "ravi.kumar@example.com", "MH12-2020-0001")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/drivers/create-driver").contentType(MediaType.APPLICATION_JSON)
+                        .content(DRIVER.formatted("Arjun", "arjun.kumar@example.com", "MH12-2020-0001")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Driver with the same License Number already exists"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.controller;
+
+import com.example.model.Company;
+import com.example.repository.InMemoryCompanyRepository;
+import com.example.repository.InMemoryDriverRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Content negotiation and compression as served by the embedded server, which is where
+ * server.compression applies. The in-memory repositories stand in for MongoDB.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.mongo.search-keys.migrate-on-startup=false",
+        "app.mongo.indexes.create-on-startup=false"
+})
+class ResponseFormatTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private static final String CBOR = "application/cbor";
+
+    @TestConfiguration
+    static class InMemoryRepositories {
+
+        @Bean
+        @Primary
+        InMemoryCompanyRepository inMemoryCompanyRepository() {
+            return new InMemoryCompanyRepository();
+        }
+
+        @Bean
+        @Primary
+        InMemoryDriverRepository inMemoryDriverRepository() {
+            return new InMemoryDriverRepository();
+        }
+    }
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InMemoryCompanyRepository companyRepository;
+
+    /** seeded once: the repository lives as long as the cached application context */
+    private static String companyId;
+
+    @BeforeEach
+    void setUp() {
+        if (companyId != null) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < 50; i++) {
+            Company company = new Company();
+            company.setCompanyName("Acme Logistics " + i);
+            company.setRegistrationNumber("REG-" + (100_000 + i));
+            company.setCity("Pune");
+            company.setIsActive(true);
+            company.setCreatedOn(now);
+            company.setModifiedOn(now.minusSeconds(i));
+            companyId = companyRepository.insert(company).getId();
+        }
+    }
+
+    @Test
+    void smileAndCborAreNegotiatedThroughAccept() throws Exception {
+        HttpResponse<byte[]> smile = get("/companies/get-company/" + companyId, SMILE, null);
+        assertEquals(200, smile.statusCode());
+        assertEquals(SMILE, contentType(smile));
+        assertEquals(companyId, read(SmileMapper.builder().build(), smile).get("id").asString());
+
+        HttpResponse<byte[]> cbor = get("/companies/get-companies?itemsPerPage=5", CBOR, null);
+        assertEquals(200, cbor.statusCode());
+        assertEquals(CBOR, contentType(cbor));
+        assertEquals(5, read(CBORMapper.builder().build(), cbor).get("companies").size());
+
+        HttpResponse<byte[]> json = get("/companies/get-company/" + companyId, null, null);
+        assertEquals("application/json", contentType(json));
+    }
+
+    @Test
+    void errorsComeBackInTheNegotiatedFormat() throws Exception {
+        HttpResponse<byte[]> response = get("/companies/get-company/65f1c2a9e4b0a1b2c3d4e5f6", SMILE, null);
+
+        assertEquals(404, response.statusCode());
+        assertEquals(SMILE, contentType(response));
+        assertEquals(404, read(SmileMapper.builder().build(), response).get("status").asInt());
+    }
+
+    @Test
+    void onlyResponsesOverTheThresholdAreGzipped() throws Exception {
+        HttpResponse<byte[]> small = get("/companies/get-company/" + companyId, null, "gzip");
+        assertTrue(small.body().length < 2048);
+        assertTrue(small.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+
+        HttpResponse<byte[]> page = get("/companies/get-companies?itemsPerPage=50", null, "gzip");
+        assertEquals("gzip", page.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertEquals(50, read(JsonMapper.builder().build(), page).get("companies").size());
+
+        HttpResponse<byte[]> smilePage = get("/companies/get-companies?itemsPerPage=50", SMILE, "gzip");
+        assertEquals("gzip", smilePage.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertEquals(50, read(SmileMapper.builder().build(), smilePage).get("companies").size());
+
+        // without Accept-Encoding the same page is sent as is
+        HttpResponse<byte[]> identity = get("/companies/get-companies?itemsPerPage=50", null, null);
+        assertTrue(identity.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertTrue(identity.body().length > 2048);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path));
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String contentType(HttpResponse<?> response) {
+        return response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse("").split(";")[0];
+    }
+
+    private static JsonNode read(ObjectMapper mapper, HttpResponse<byte[]> response) throws IOException {
+        InputStream body = new ByteArrayInputStream(response.body());
+        if ("gzip".equals(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null))) {
+            body = new GZIPInputStream(body);
+        }
+        return mapper.readTree(body);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency per operation, in two histograms. Response time runs from when the request was
+ * scheduled to be sent, so time spent waiting behind a stalled server or a full client counts
+ * (the coordinated omission correction); service time runs from when it was actually sent.
+ * Recording is thread-safe.
+ */
+final class LatencyReport {
+
+    private static final class Stats {
+
+        final Recorder responseTime = new Recorder(3);
+
+        final Recorder serviceTime = new Recorder(3);
+
+        final LongAdder errors = new LongAdder();
+
+        Histogram responseTotal;
+
+        Histogram serviceTotal;
+    }
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    LatencyReport(List<String> operations) {
+        for (String operation : operations) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * Records one request; all times are {@link System#nanoTime()} readings.
+     */
+    void record(String operation, long scheduledAt, long sentAt, long completedAt, boolean error) {
+        Stats operationStats = stats.get(operation);
+        operationStats.responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedAt - scheduledAt));
+        operationStats.serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(completedAt - sentAt));
+        if (error) {
+            operationStats.errors.increment();
+        }
+    }
+
+    /**
+     * Takes everything recorded so far as the result; call once, after the run.
+     */
+    void finish() {
+        for (Stats operationStats : stats.values()) {
+            operationStats.responseTotal = operationStats.responseTime.getIntervalHistogram();
+            operationStats.serviceTotal = operationStats.serviceTime.getIntervalHistogram();
+        }
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%nResponse time (from the scheduled send) and service time (from the actual send), ms%n");
+        out.printf("%-24s %8s %7s %9s %9s %9s %9s %9s %12s%n",
+                "operation", "count", "errors", "req/s", "p50", "p99", "p99.9", "max", "service p99");
+
+        Histogram allResponse = new Histogram(3);
+        Histogram allService = new Histogram(3);
+        long allErrors = 0;
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            if (operationStats.responseTotal.getTotalCount() == 0) {
+                continue;
+            }
+            print(out, entry.getKey(), operationStats.responseTotal, operationStats.serviceTotal,
+                    operationStats.errors.sum(), seconds);
+            allResponse.add(operationStats.responseTotal);
+            allService.add(operationStats.serviceTotal);
+            allErrors += operationStats.errors.sum();
+        }
+        print(out, "all", allResponse, allService, allErrors, seconds);
+    }
+
+    void write(Path file, Map<String, Object> settings, double seconds) throws IOException {
+        JsonMapper mapper = JsonMapper.builder().build();
+        ObjectNode root = mapper.createObjectNode();
+        root.set("settings", mapper.valueToTree(settings));
+        ObjectNode operations = root.putObject("operations");
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            ObjectNode operation = operations.putObject(entry.getKey());
+            operation.put("count", operationStats.responseTotal.getTotalCount());
+            operation.put("errors", operationStats.errors.sum());
+            operation.put("throughput", operationStats.responseTotal.getTotalCount() / seconds);
+            latencies(operation.putObject("responseTimeMs"), operationStats.responseTotal);
+            latencies(operation.putObject("serviceTimeMs"), operationStats.serviceTotal);
+        }
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    private static void print(PrintStream out, String name, Histogram response, Histogram service, long errors, double seconds) {
+        out.printf("%-24s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                name, response.getTotalCount(), errors, response.getTotalCount() / seconds,
+                millis(response.getValueAtPercentile(50)), millis(response.getValueAtPercentile(99)),
+                millis(response.getValueAtPercentile(99.9)), millis(response.getMaxValue()),
+                millis(service.getValueAtPercentile(99)));
+    }
+
+    private static void latencies(ObjectNode node, Histogram histogram) {
+        node.put("p50", millis(histogram.getValueAtPercentile(50)));
+        node.put("p99", millis(histogram.getValueAtPercentile(99)));
+        node.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        node.put("max", millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.load;
+
+import com.example.I11AssignmentApplication;
+import com.example.repository.InMemoryCompanyRepository;
+import com.example.repository.InMemoryDriverRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test of the company and driver APIs. Seeds companies and drivers, then sends
+ * the {@link Workload} mix at a fixed arrival rate: request i is due at start + i / rate whether
+ * or not earlier requests have finished. Prints throughput and p50/p99/p99.9 per operation and
+ * writes them as JSON ({@link LatencyReport}).
+ * <p>
+ * Without {@code --target} the application is started in-process on a random port:
+ * <ul>
+ *     <li>by default with {@link InMemoryCompanyRepository} and {@link InMemoryDriverRepository}
+ *     in place of MongoDB. These replace the repositories' Mongo code, so the results cover the
+ *     web, service and serialization layers only: the entity cache, EntityReader and codecs,
+ *     read routing, the connection pool and the MongoBulkhead are not exercised, and the numbers
+ *     say nothing about changes to them;</li>
+ *     <li>with {@code --mongo=<connection string>} against that MongoDB (e.g. a local mongod),
+ *     with the real repositories and the indexes created at startup. Use a scratch database:
+ *     the test writes to it.</li>
+ * </ul>
+ * Point {@code --target} at a running instance (e.g. {@code http://localhost:8080/api}) to
+ * measure it as deployed.
+ * <p>
+ * To compare platform and virtual request threads, run twice on a Java 21+ runtime, the second
+ * time with {@code --spring.threads.virtual.enabled=true}; the result records which mode actually
+ * served the run ({@code threads}) and the Java version, since older runtimes ignore the setting.
+ * <p>
+ * Options, as {@code --name=value}: target, mongo, companies, drivers, rate (requests per
+ * second), duration and warmup (seconds), deep-pages, max-in-flight, seed, mix (weights by
+ * operation, e.g. {@code companies.get=40,drivers.import=0}) and result (JSON file). Any other
+ * {@code --key=value} is passed to the in-process application as a property.
+ */
+public final class LoadTest {
+
+    private static final Set<String> OPTIONS = Set.of("target", "mongo", "companies", "drivers", "rate", "duration", "warmup",
+            "deep-pages", "max-in-flight", "seed", "mix", "result");
+
+    /** errors printed in full before only being counted */
+    private static final int ERRORS_SHOWN = 5;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        // keep a trickle of request logs, as in production, without flooding the report
+        properties.put("app.logging.sample-rate", "0.01");
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                if (!arg.isBlank()) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                continue;
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            if (OPTIONS.contains(name)) {
+                // the Maven profile passes unset options as empty values
+                if (!value.isBlank()) {
+                    options.put(name, value);
+                }
+            } else {
+                properties.put(name, value);
+            }
+        }
+
+        int companies = Integer.parseInt(options.getOrDefault("companies", "10000"));
+        int drivers = Integer.parseInt(options.getOrDefault("drivers", "10000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int deepPages = Integer.parseInt(options.getOrDefault("deep-pages", "50"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Map<String, Integer> mix = parseMix(options.get("mix"));
+        Path result = Path.of(options.getOrDefault("result", "target/load-result.json"));
+
+        String mongo = options.get("mongo");
+        if (mongo != null) {
+            // app.mongo.client.uri follows spring.data.mongodb.uri unless set
+            properties.putIfAbsent("spring.data.mongodb.uri", mongo);
+        } else {
+            properties.putIfAbsent("app.mongo.search-keys.migrate-on-startup", "false");
+            properties.putIfAbsent("app.mongo.indexes.create-on-startup", "false");
+            // the in-memory repositories never use the Mongo client, whose monitor keeps failing to connect
+            properties.putIfAbsent("logging.level.org.mongodb.driver", "ERROR");
+        }
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            context = start(properties, mongo == null);
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + context.getEnvironment().getProperty("server.servlet.context-path", "");
+        }
+
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            Workload workload = new Workload(target, seed, deepPages, mix);
+            System.out.printf("Seeding %d companies and %d drivers at %s%n", companies, drivers, target);
+            workload.seed(client, companies, drivers);
+
+            System.out.printf("Running %.0f requests/s for %ds after a %ds warmup%n", rate, duration, warmup);
+            LatencyReport report = new LatencyReport(workload.operations().stream().map(Workload.Operation::name).toList());
+            run(client, workload, report, rate, warmup, duration, maxInFlight);
+
+            report.finish();
+            report.print(System.out, duration);
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("target", options.getOrDefault("target",
+                    mongo != null ? "in-process, MongoDB" : "in-process, in-memory repositories"));
+            settings.put("threads", context == null ? "unknown"
+                    : Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtual" : "platform");
+            settings.put("java", Runtime.version().toString());
+            settings.put("companies", companies);
+            settings.put("drivers", drivers);
+            settings.put("rate", rate);
+            settings.put("durationSeconds", duration);
+            settings.put("warmupSeconds", warmup);
+            settings.put("deepPages", deepPages);
+            settings.put("maxInFlight", maxInFlight);
+            settings.put("seed", seed);
+            settings.put("mix", mix);
+            report.write(result, settings, duration);
+            System.out.printf("%nResults written to %s%n", result.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Sends requests on schedule until the run ends, then waits for the outstanding ones.
+     * A request that has to wait for an in-flight slot still has its response time measured
+     * from when it was due, so a saturated client cannot hide a slow server.
+     */
+    private static void run(HttpClient client, Workload workload, LatencyReport report, double rate, int warmup,
+                            int duration, int maxInFlight) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger errorsShown = new AtomicInteger();
+
+        long interval = Math.round(TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+
+        for (long i = 0; ; i++) {
+            long scheduledAt = start + i * interval;
+            if (scheduledAt >= end) {
+                break;
+            }
+            sleepUntil(scheduledAt);
+
+            Workload.Operation operation = workload.next();
+            HttpRequest request = operation.request().get();
+            boolean measured = scheduledAt >= measureFrom;
+
+            inFlight.acquire();
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, failure) -> {
+                long completedAt = System.nanoTime();
+                inFlight.release();
+
+                boolean ok = failure == null && response.statusCode() / 100 == 2;
+                if (measured) {
+                    report.record(operation.name(), scheduledAt, sentAt, completedAt, !ok);
+                }
+                if (ok) {
+                    operation.completed().accept(response);
+                } else if (errorsShown.getAndIncrement() < ERRORS_SHOWN) {
+                    System.err.printf("%s %s: %s%n", request.method(), request.uri(),
+                            failure != null ? failure : response.statusCode() + " " + new String(response.body()));
+                }
+            });
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            System.err.println("Gave up waiting for the outstanding requests; they are missing from the report");
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Map<String, String> properties, boolean inMemory) {
+        List<String> args = new ArrayList<>();
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+
+        SpringApplicationBuilder application = new SpringApplicationBuilder(I11AssignmentApplication.class);
+        if (inMemory) {
+            application.initializers(context -> {
+                GenericApplicationContext beans = (GenericApplicationContext) context;
+                beans.registerBean(InMemoryCompanyRepository.class, definition -> definition.setPrimary(true));
+                beans.registerBean(InMemoryDriverRepository.class, definition -> definition.setPrimary(true));
+            });
+        }
+        return application.run(args.toArray(String[]::new));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new HashMap<>();
+        if (mix == null) {
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in mix but got " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
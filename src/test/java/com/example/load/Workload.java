@@ -0,0 +1,306 @@
+package com.example.load;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The request mix: weighted operations over every /companies and /drivers endpoint, run against
+ * the seeded entities. Deletes only remove entities created during the run, so every seeded
+ * entity stays readable. Requests are built on the scheduling thread; responses are handled on
+ * the client's threads.
+ */
+final class Workload {
+
+    private static final String JSON = "application/json";
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    /** seeded names repeat every NAME_GROUPS entities, so a name search matches 1 in NAME_GROUPS */
+    private static final int NAME_GROUPS = 100;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int BULK_SIZE = 20;
+
+    private static final int IMPORT_SIZE = 10;
+
+    /** app.bulk.max-items */
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    /**
+     * One kind of request. {@code completed} sees every 2xx response.
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request, Consumer<HttpResponse<byte[]>> completed) {
+    }
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private final String baseUrl;
+
+    private final Random random;
+
+    /** makes registration and license numbers unique across runs against the same database */
+    private final String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final List<String> seededCompanyIds = new ArrayList<>();
+
+    private final List<String> seededDriverIds = new ArrayList<>();
+
+    private final Queue<String> createdCompanyIds = new ConcurrentLinkedQueue<>();
+
+    private final Queue<String> createdDriverIds = new ConcurrentLinkedQueue<>();
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private final int totalWeight;
+
+    /**
+     * @param deepPages offset searches reach pageIndex 0 to deepPages - 1
+     * @param weights   per operation name, replacing the default weight
+     */
+    Workload(String baseUrl, long seed, int deepPages, Map<String, Integer> weights) {
+        this.baseUrl = baseUrl;
+        this.random = new Random(seed);
+
+        add("companies.create", 4, () -> post("/companies/create-company", JSON, json(company())),
+                response -> createdCompanyIds.add(read(response).path("id").asString()));
+        add("companies.create-bulk", 1, () -> post("/companies/create-companies", JSON, json(companies(BULK_SIZE))),
+                response -> addCreated(read(response), createdCompanyIds));
+        add("companies.get", 20, () -> get("/companies/get-company/" + any(seededCompanyIds)), null);
+        add("companies.search", 8, () -> get("/companies/get-companies?itemsPerPage=" + PAGE_SIZE
+                + "&companyName=" + encode(companyName(random.nextInt(NAME_GROUPS)))), null);
+        add("companies.search-deep", 3, () -> get("/companies/get-companies?itemsPerPage=" + PAGE_SIZE
+                + "&pageIndex=" + random.nextInt(deepPages)), null);
+        add("companies.search-cursor", 3, () -> get("/companies/get-companies?cursor=&itemsPerPage=" + PAGE_SIZE), null);
+        add("companies.update", 6, () -> put("/companies/update-company/" + any(seededCompanyIds),
+                json(Map.of("city", "Mumbai", "website", "https://updated" + random.nextInt(1000) + ".example.com"))), null);
+        add("companies.delete", 2, () -> delete("/companies/delete-company/", createdCompanyIds), null);
+        add("companies.export", 1, () -> get("/companies/export?companyName="
+                + encode(companyName(random.nextInt(NAME_GROUPS)))), null);
+        add("companies.import", 1, () -> post("/companies/import", NDJSON, ndjson(companies(IMPORT_SIZE))), null);
+
+        add("drivers.create", 4, () -> post("/drivers/create-driver", JSON, json(driver())),
+                response -> createdDriverIds.add(read(response).path("driverId").asString()));
+        add("drivers.create-bulk", 1, () -> post("/drivers/create-drivers", JSON, json(drivers(BULK_SIZE))),
+                response -> addCreated(read(response), createdDriverIds));
+        add("drivers.get", 20, () -> get("/drivers/get-driver/" + any(seededDriverIds)), null);
+        add("drivers.search", 8, () -> get("/drivers/get-drivers?itemsPerPage=" + PAGE_SIZE
+                + "&firstName=" + encode(driverFirstName(random.nextInt(NAME_GROUPS)))), null);
+        add("drivers.search-deep", 3, () -> get("/drivers/get-drivers?itemsPerPage=" + PAGE_SIZE
+                + "&pageIndex=" + random.nextInt(deepPages)), null);
+        add("drivers.search-cursor", 3, () -> get("/drivers/get-drivers?cursor=&itemsPerPage=" + PAGE_SIZE), null);
+        add("drivers.update", 6, () -> put("/drivers/update-driver/" + any(seededDriverIds),
+                json(Map.of("city", "Nashik", "experienceYears", random.nextInt(30)))), null);
+        add("drivers.delete", 2, () -> delete("/drivers/delete-driver/", createdDriverIds), null);
+        add("drivers.export", 1, () -> get("/drivers/export?firstName="
+                + encode(driverFirstName(random.nextInt(NAME_GROUPS)))), null);
+        add("drivers.import", 1, () -> post("/drivers/import", NDJSON, ndjson(drivers(IMPORT_SIZE))), null);
+
+        for (String name : weights.keySet()) {
+            if (operations.stream().noneMatch(operation -> operation.name().equals(name))) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + name);
+            }
+        }
+        operations.replaceAll(operation -> new Operation(operation.name(),
+                weights.getOrDefault(operation.name(), operation.weight()), operation.request(), operation.completed()));
+        totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("The mix has no operations with a positive weight");
+        }
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    /**
+     * Creates the starting data set through the bulk create endpoints.
+     */
+    void seed(HttpClient client, int companies, int drivers) throws IOException, InterruptedException {
+        for (int done = 0; done < companies; done += SEED_BATCH_SIZE) {
+            JsonNode response = send(client, post("/companies/create-companies", JSON,
+                    json(companies(Math.min(SEED_BATCH_SIZE, companies - done)))));
+            addCreated(response, seededCompanyIds);
+        }
+        for (int done = 0; done < drivers; done += SEED_BATCH_SIZE) {
+            JsonNode response = send(client, post("/drivers/create-drivers", JSON,
+                    json(drivers(Math.min(SEED_BATCH_SIZE, drivers - done)))));
+            addCreated(response, seededDriverIds);
+        }
+        if (seededCompanyIds.isEmpty() || seededDriverIds.isEmpty()) {
+            throw new IllegalStateException("Seeding created no companies or no drivers");
+        }
+    }
+
+    /**
+     * Picks the next operation by weight.
+     */
+    Operation next() {
+        int pick = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("weights changed");
+    }
+
+    private void add(String name, int weight, Supplier<HttpRequest> request, Consumer<HttpResponse<byte[]>> completed) {
+        operations.add(new Operation(name, weight, request, completed == null ? response -> { } : completed));
+    }
+
+    private Map<String, Object> company() {
+        long n = sequence.getAndIncrement();
+        Map<String, Object> company = new LinkedHashMap<>();
+        company.put("companyName", companyName(n));
+        company.put("establishedOn", "2001-04-17");
+        company.put("registrationNumber", "LOAD-" + runId + "-" + n);
+        company.put("website", "https://company" + n + ".example.com");
+        company.put("address1", n + " Main Street");
+        company.put("city", "Pune");
+        company.put("state", "Maharashtra");
+        company.put("zipCode", "411001");
+        company.put("primaryContactFirstName", "Asha");
+        company.put("primaryContactLastName", "Patil");
+        company.put("primaryContactEmail", "contact" + n + "@example.com");
+        company.put("primaryContactMobile", String.format("98765%05d", n % 100_000));
+        return company;
+    }
+
+    private Map<String, Object> driver() {
+        long n = sequence.getAndIncrement();
+        Map<String, Object> driver = new LinkedHashMap<>();
+        driver.put("firstName", driverFirstName(n));
+        driver.put("lastName", "Kulkarni");
+        driver.put("email", "driver" + n + "@example.com");
+        driver.put("mobile", String.format("91234%05d", n % 100_000));
+        driver.put("dateOfBirth", "1988-11-23");
+        driver.put("licenseNumber", "LOAD-" + runId + "-" + n);
+        driver.put("experienceYears", 12);
+        driver.put("address1", n + " Station Road");
+        driver.put("city", "Nashik");
+        driver.put("state", "Maharashtra");
+        driver.put("zipCode", "422001");
+        return driver;
+    }
+
+    private List<Map<String, Object>> companies(int count) {
+        List<Map<String, Object>> companies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            companies.add(company());
+        }
+        return companies;
+    }
+
+    private List<Map<String, Object>> drivers(int count) {
+        List<Map<String, Object>> drivers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drivers.add(driver());
+        }
+        return drivers;
+    }
+
+    private static String companyName(long n) {
+        return "Load Company " + (n % NAME_GROUPS);
+    }
+
+    private static String driverFirstName(long n) {
+        return "Driver" + (n % NAME_GROUPS);
+    }
+
+    private String any(List<String> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * Deletes an entity created earlier in the run; before there is one, creates instead so
+     * the write volume stays the same.
+     */
+    private HttpRequest delete(String path, Queue<String> created) {
+        String id = created.poll();
+        if (id == null) {
+            return path.startsWith("/companies")
+                    ? post("/companies/create-company", JSON, json(company()))
+                    : post("/drivers/create-driver", JSON, json(driver()));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path + id)).DELETE().build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest put(String path, byte[] body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private byte[] json(Object body) {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private byte[] ndjson(List<?> records) {
+        StringBuilder body = new StringBuilder();
+        for (Object record : records) {
+            body.append(objectMapper.writeValueAsString(record)).append('\n');
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private JsonNode read(HttpResponse<byte[]> response) {
+        return objectMapper.readTree(response.body());
+    }
+
+    private JsonNode send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.uri() + " returned " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return read(response);
+    }
+
+    private static void addCreated(JsonNode bulkResponse, Collection<String> ids) {
+        for (JsonNode result : bulkResponse.path("results")) {
+            if ("CREATED".equals(result.path("status").asString())) {
+                ids.add(result.path("id").asString());
+            }
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.repository;
+
+import com.example.cache.EntityCache;
+import com.example.config.MongoIndexManager;
+import com.example.model.Company;
+import com.example.utils.SearchCursor;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyRepositoryTest {
+
+    private static final String ID = "65f1c2a9e4b0a1b2c3d4e5f6";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final MongoIndexManager indexManager = mock(MongoIndexManager.class);
+
+    private final EntityReader entityReader = mock(EntityReader.class);
+
+    private final CompanyRepository repository = new CompanyRepository();
+
+    @BeforeEach
+    void setUp() {
+        repository.setMongoTemplate(mongoTemplate);
+        repository.setEntityReader(entityReader);
+        repository.setIndexManager(indexManager);
+        repository.setCompanyCache(new EntityCache<>("companies", Company::new, 100, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void checksForADuplicateUntilTheUniqueIndexIsConfirmed() {
+        when(indexManager.isUniqueIndexConfirmed(Company.class)).thenReturn(false);
+        when(mongoTemplate.exists(any(Query.class), eq(Company.class))).thenReturn(true);
+
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(company()));
+        verify(mongoTemplate, never()).insert(any(Company.class));
+    }
+
+    @Test
+    void reliesOnTheUniqueIndexOnceConfirmed() {
+        Company company = company();
+        when(indexManager.isUniqueIndexConfirmed(Company.class)).thenReturn(true);
+        when(mongoTemplate.insert(company)).thenReturn(company);
+
+        assertSame(company, repository.insert(company));
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(Company.class));
+    }
+
+    @Test
+    void checksAChangedRegistrationNumberUntilTheUniqueIndexIsConfirmed() {
+        when(indexManager.isUniqueIndexConfirmed(Company.class)).thenReturn(false);
+        when(mongoTemplate.exists(any(Query.class), eq(Company.class))).thenReturn(true);
+
+        assertThrows(DuplicateKeyException.class,
+                () -> repository.updateFields("65f1c2a9e4b0a1b2c3d4e5f6", Map.of("registrationNumber", "REG-100002"), null));
+    }
+
+    @Test
+    void conditionalUpdateMatchesOnlyTheExpectedVersion() {
+        Instant expected = Instant.parse("2024-02-03T04:05:06.789Z");
+        when(indexManager.isUniqueIndexConfirmed(Company.class)).thenReturn(true);
+
+        assertNull(repository.updateFields("65f1c2a9e4b0a1b2c3d4e5f6", Map.of("city", "Pune"), expected));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Company.class));
+        assertEquals(new Document("id", "65f1c2a9e4b0a1b2c3d4e5f6").append("isActive", true).append("modifiedOn", expected),
+                query.getValue().getQueryObject());
+    }
+
+    @Test
+    void updateDuringACacheMissKeepsTheNewerCopyCached() {
+        Company stored = company();
+        stored.setId(ID);
+        stored.setModifiedOn(Instant.parse("2024-02-03T04:05:06.789Z"));
+        Company updated = company();
+        updated.setId(ID);
+        updated.setCity("Pune");
+        updated.setModifiedOn(Instant.parse("2024-02-03T04:05:07.000Z"));
+
+        when(indexManager.isUniqueIndexConfirmed(Company.class)).thenReturn(true);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Company.class)))
+                .thenReturn(updated);
+        // the update completes after the miss read the stored copy, before that copy is cached
+        when(entityReader.findOne(any(Query.class), eq(Company.class))).thenAnswer(invocation -> {
+            repository.updateFields(ID, Map.of("city", "Pune"), null);
+            return stored;
+        });
+
+        assertEquals(stored.getModifiedOn(), repository.findById(ID).getModifiedOn());
+
+        // served from the cache from now on: the read must not have replaced the update
+        assertEquals(updated.getModifiedOn(), repository.findById(ID).getModifiedOn());
+        verify(entityReader).findOne(any(Query.class), eq(Company.class));
+    }
+
+    @Test
+    void deleteDuringACacheMissIsNotUndoneByCachingTheRead() {
+        Company stored = company();
+        stored.setId(ID);
+        stored.setModifiedOn(Instant.parse("2024-02-03T04:05:06.789Z"));
+
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Company.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(entityReader.findOne(any(Query.class), eq(Company.class)))
+                .thenAnswer(invocation -> {
+                    repository.softDelete(ID, null);
+                    return stored;
+                })
+                .thenReturn(null);
+
+        repository.findById(ID);
+
+        assertNull(repository.findById(ID));
+    }
+
+    @Test
+    void cacheMissWithoutConcurrentWritesIsCached() {
+        Company stored = company();
+        stored.setId(ID);
+        when(entityReader.findOne(any(Query.class), eq(Company.class))).thenReturn(stored);
+
+        repository.findById(ID);
+        repository.findById(ID);
+
+        verify(entityReader).findOne(any(Query.class), eq(Company.class));
+    }
+
+    @Test
+    void cursorQuerySeeksPastTiesOnModifiedOnById() {
+        Instant modifiedOn = Instant.parse("2024-02-03T04:05:06.789Z");
+        Query query = CompanyRepository.cursorQuery(null, null, new SearchCursor(modifiedOn, "65f1c2a9e4b0a1b2c3d4e501"), 20, null);
+
+        // rows sharing the cursor's modifiedOn continue below its id, in the order of the sort
+        assertEquals(List.of(
+                        new Document("modifiedOn", new Document("$lt", modifiedOn)),
+                        new Document("modifiedOn", modifiedOn).append("id", new Document("$lt", "65f1c2a9e4b0a1b2c3d4e501"))),
+                query.getQueryObject().get("$or"));
+        assertEquals(new Document("modifiedOn", -1).append("id", -1), query.getSortObject());
+        assertEquals(21, query.getLimit());
+    }
+
+    private static Company company() {
+        Company company = new Company();
+        company.setCompanyName("Acme Logistics");
+        company.setRegistrationNumber("REG-100001");
+        company.setIsActive(true);
+        return company;
+    }
+}
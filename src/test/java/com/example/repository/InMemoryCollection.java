@@ -0,0 +1,254 @@
+package com.example.repository;
+
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.utils.SearchCursor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stand-in for one Mongo collection of soft-deleted entities: documents by id, the active ones
+ * also kept in search order (sort value, then id) like the search index, and a unique key over
+ * the active documents like the partial unique index. Writes are serialized; reads don't lock.
+ */
+abstract class InMemoryCollection<T> {
+
+    static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final Supplier<T> factory;
+
+    private final Map<String, T> byId = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<SearchCursor, T> active;
+
+    /** unique key of every active document to its id */
+    private final Map<String, String> uniqueKeys = new ConcurrentHashMap<>();
+
+    private volatile boolean discardWrites;
+
+    /**
+     * @param descending whether searches list the highest sort value first
+     */
+    InMemoryCollection(Supplier<T> factory, boolean descending) {
+        Comparator<SearchCursor> order = Comparator.comparing(SearchCursor::sortValue).thenComparing(SearchCursor::id);
+        this.factory = factory;
+        this.active = new ConcurrentSkipListMap<>(descending ? order.reversed() : order);
+    }
+
+    abstract String id(T entity);
+
+    abstract Instant modifiedOn(T entity);
+
+    /**
+     * The field searches and cursors order by.
+     */
+    abstract Instant sortValue(T entity);
+
+    abstract boolean isActive(T entity);
+
+    abstract String uniqueKey(T entity);
+
+    /**
+     * Sets the normalized search keys, as the repository does before every write.
+     */
+    abstract void applySearchKeys(T entity);
+
+    /**
+     * From now on inserts, updates and deletes are checked and answered as if applied, but
+     * nothing is stored or changed.
+     */
+    void discardWrites() {
+        discardWrites = true;
+    }
+
+    synchronized T insert(T entity) {
+        String key = uniqueKey(entity);
+        if (key != null && uniqueKeys.containsKey(key)) {
+            throw new DuplicateKeyException("E11000 duplicate key: " + key);
+        }
+
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        if (id(entity) == null) {
+            wrapper.setPropertyValue("id", new ObjectId().toHexString());
+        }
+        applySearchKeys(entity);
+        if (!discardWrites) {
+            store(entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Inserts every entity that does not collide, returning the error code per failed position.
+     */
+    synchronized Map<Integer, Integer> insertAll(List<T> entities) {
+        Map<Integer, Integer> failures = new HashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            try {
+                insert(entities.get(i));
+            } catch (DuplicateKeyException ex) {
+                failures.put(i, DUPLICATE_KEY_ERROR);
+            }
+        }
+        return failures;
+    }
+
+    T findActive(String id) {
+        T entity = byId.get(id);
+        return entity != null && isActive(entity) ? entity : null;
+    }
+
+    Set<String> existingUniqueKeys(Collection<String> keys) {
+        Set<String> existing = new HashSet<>();
+        for (String key : keys) {
+            if (uniqueKeys.containsKey(key)) {
+                existing.add(key);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Applies the changes to a copy of the active entity and stores it with a new modifiedOn,
+     * or returns null when the entity is missing, deleted or no longer at expectedModifiedOn.
+     */
+    synchronized T update(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        T current = findActive(id);
+        if (current == null || !atVersion(current, expectedModifiedOn)) {
+            return null;
+        }
+        if (discardWrites) {
+            return current;
+        }
+
+        T updated = factory.get();
+        BeanUtils.copyProperties(current, updated);
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(updated);
+        changes.forEach(wrapper::setPropertyValue);
+        wrapper.setPropertyValue("modifiedOn", Instant.now());
+        applySearchKeys(updated);
+
+        String key = uniqueKey(updated);
+        if (key != null && !id.equals(uniqueKeys.getOrDefault(key, id))) {
+            throw new DuplicateKeyException("E11000 duplicate key: " + key);
+        }
+
+        remove(current);
+        store(updated);
+        return updated;
+    }
+
+    synchronized boolean softDelete(String id, Instant expectedModifiedOn) {
+        T current = findActive(id);
+        if (current == null || !atVersion(current, expectedModifiedOn)) {
+            return false;
+        }
+        if (discardWrites) {
+            return true;
+        }
+
+        T deleted = factory.get();
+        BeanUtils.copyProperties(current, deleted);
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(deleted);
+        wrapper.setPropertyValue("isActive", false);
+        wrapper.setPropertyValue("modifiedOn", Instant.now());
+
+        remove(current);
+        byId.put(id, deleted);
+        return true;
+    }
+
+    /**
+     * Offset page over the matching active entities in search order. Skipping
+     * walks the entities in front of the page, as the server does.
+     */
+    SearchPage<T> page(Predicate<T> filter, int pageIndex, int itemsPerPage, TotalMode totalMode, int countLimit) {
+        List<T> content = active.values().stream()
+                .filter(filter)
+                .skip((long) pageIndex * itemsPerPage)
+                .limit(itemsPerPage)
+                .toList();
+
+        return switch (totalMode) {
+            case NONE -> new SearchPage<>(content, pageIndex, itemsPerPage, null, SearchPage.TotalAccuracy.NONE);
+            case CAPPED, ESTIMATED -> {
+                long total = active.values().stream().filter(filter).limit(countLimit + 1L).count();
+                yield new SearchPage<>(content, pageIndex, itemsPerPage, total,
+                        total > countLimit ? SearchPage.TotalAccuracy.AT_LEAST : SearchPage.TotalAccuracy.EXACT);
+            }
+            default -> new SearchPage<>(content, pageIndex, itemsPerPage, active.values().stream().filter(filter).count(),
+                    SearchPage.TotalAccuracy.EXACT);
+        };
+    }
+
+    /**
+     * Keyset page: the matching active entities after {@code cursor} in search order.
+     */
+    CursorPage<T> after(Predicate<T> filter, SearchCursor cursor, int itemsPerPage) {
+        Collection<T> from = cursor == null ? active.values() : active.tailMap(cursor, false).values();
+        List<T> rows = from.stream().filter(filter).limit(itemsPerPage + 1L).toList();
+
+        if (rows.size() <= itemsPerPage) {
+            return new CursorPage<>(rows, itemsPerPage, null);
+        }
+        List<T> content = rows.subList(0, itemsPerPage);
+        T last = content.get(itemsPerPage - 1);
+        return new CursorPage<>(content, itemsPerPage, new SearchCursor(sortValue(last), id(last)).encode());
+    }
+
+    /**
+     * The matching active entities with modifiedOn in [from, to), in id order.
+     */
+    Stream<T> stream(Predicate<T> filter, Instant from, Instant to) {
+        return active.values().stream()
+                .filter(filter)
+                .filter(entity -> from == null || !modifiedOn(entity).isBefore(from))
+                .filter(entity -> to == null || modifiedOn(entity).isBefore(to))
+                .sorted(Comparator.comparing(this::id));
+    }
+
+    /**
+     * Whether the entity is at {@code expectedModifiedOn}, compared to the millisecond as Mongo
+     * stores dates; modifiedOn set in memory can be finer.
+     */
+    private boolean atVersion(T entity, Instant expectedModifiedOn) {
+        return expectedModifiedOn == null || expectedModifiedOn.toEpochMilli() == modifiedOn(entity).toEpochMilli();
+    }
+
+    private void store(T entity) {
+        byId.put(id(entity), entity);
+        if (isActive(entity)) {
+            active.put(new SearchCursor(sortValue(entity), id(entity)), entity);
+            String key = uniqueKey(entity);
+            if (key != null) {
+                uniqueKeys.put(key, id(entity));
+            }
+        }
+    }
+
+    private void remove(T entity) {
+        active.remove(new SearchCursor(sortValue(entity), id(entity)));
+        String key = uniqueKey(entity);
+        if (key != null) {
+            uniqueKeys.remove(key, id(entity));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.repository;
+
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.model.Company;
+import com.example.utils.SearchCursor;
+import com.example.utils.SearchKeys;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * CompanyRepository over an {@link InMemoryCollection} instead of MongoDB, shared by the load
+ * test, the benchmarks and the controller tests. Filters, ordering, uniqueness and the
+ * modifiedOn precondition follow the real repository; field projections are left to the
+ * controllers.
+ * <p>
+ * It replaces the repository's Mongo code entirely, so the entity cache, EntityReader, read
+ * routing and the {@code MongoBulkhead} (which wraps MongoTemplate calls) are not exercised.
+ */
+public class InMemoryCompanyRepository extends CompanyRepository {
+
+    private final InMemoryCollection<Company> companies = new InMemoryCollection<>(Company::new, true) {
+
+        @Override
+        String id(Company company) {
+            return company.getId();
+        }
+
+        @Override
+        Instant modifiedOn(Company company) {
+            return company.getModifiedOn();
+        }
+
+        @Override
+        Instant sortValue(Company company) {
+            return company.getModifiedOn();
+        }
+
+        @Override
+        boolean isActive(Company company) {
+            return Boolean.TRUE.equals(company.getIsActive());
+        }
+
+        @Override
+        String uniqueKey(Company company) {
+            return company.getRegistrationNumber();
+        }
+
+        @Override
+        void applySearchKeys(Company company) {
+            company.setCompanyNameKey(SearchKeys.normalize(company.getCompanyName()));
+            company.setRegistrationNumberKey(SearchKeys.normalize(company.getRegistrationNumber()));
+        }
+    };
+
+    /**
+     * Writes from now on are checked and answered as if applied but change nothing, so a
+     * benchmark can repeat them against the same companies.
+     */
+    public InMemoryCompanyRepository discardWrites() {
+        companies.discardWrites();
+        return this;
+    }
+
+    @Override
+    public Company insert(Company company) {
+        return companies.insert(company);
+    }
+
+    @Override
+    public Map<Integer, Integer> insertAll(List<Company> list) {
+        return companies.insertAll(list);
+    }
+
+    @Override
+    public Set<String> findExistingRegistrationNumbers(Collection<String> registrationNumbers) {
+        return companies.existingUniqueKeys(registrationNumbers);
+    }
+
+    @Override
+    public Company findById(String id) {
+        return companies.findActive(id);
+    }
+
+    @Override
+    public Company findById(String id, Set<String> fields) {
+        return companies.findActive(id);
+    }
+
+    @Override
+    public Company findVersion(String id) {
+        return companies.findActive(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return companies.findActive(id) != null;
+    }
+
+    @Override
+    public Company updateFields(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        return companies.update(id, changes, expectedModifiedOn);
+    }
+
+    @Override
+    public boolean softDelete(String id, Instant expectedModifiedOn) {
+        return companies.softDelete(id, expectedModifiedOn);
+    }
+
+    @Override
+    public SearchPage<Company> getAllCompanyBySearch(String companyName, String registrationNumber, Integer pageIndex,
+                                                     Integer itemsPerPage, TotalMode totalMode, int countLimit, Set<String> fields) {
+        return companies.page(filter(companyName, registrationNumber), pageIndex, itemsPerPage, totalMode, countLimit);
+    }
+
+    @Override
+    public CursorPage<Company> getCompaniesAfterCursor(String companyName, String registrationNumber, SearchCursor cursor,
+                                                       Integer itemsPerPage, Set<String> fields) {
+        return companies.after(filter(companyName, registrationNumber), cursor, itemsPerPage);
+    }
+
+    @Override
+    public Stream<Company> streamCompanies(String companyName, String registrationNumber, Instant modifiedFrom, Instant modifiedTo) {
+        return companies.stream(filter(companyName, registrationNumber), modifiedFrom, modifiedTo);
+    }
+
+    private static Predicate<Company> filter(String companyName, String registrationNumber) {
+        String nameKey = SearchKeys.normalize(companyName);
+        String registrationNumberKey = SearchKeys.normalize(registrationNumber);
+        return company -> (nameKey == null || nameKey.equals(company.getCompanyNameKey()))
+                && (registrationNumberKey == null || registrationNumberKey.equals(company.getRegistrationNumberKey()));
+    }
+}
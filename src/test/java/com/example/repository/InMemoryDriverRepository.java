@@ -0,0 +1,144 @@
+package com.example.repository;
+
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.TotalMode;
+import com.example.model.Driver;
+import com.example.utils.SearchCursor;
+import com.example.utils.SearchKeys;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * DriverRepository over an {@link InMemoryCollection} instead of MongoDB, shared by the load
+ * test, the benchmarks and the controller tests. Filters, ordering, uniqueness and the
+ * modifiedOn precondition follow the real repository; field projections are left to the
+ * controllers.
+ * <p>
+ * It replaces the repository's Mongo code entirely, so the entity cache, EntityReader, read
+ * routing and the {@code MongoBulkhead} (which wraps MongoTemplate calls) are not exercised.
+ */
+public class InMemoryDriverRepository extends DriverRepository {
+
+    private final InMemoryCollection<Driver> drivers = new InMemoryCollection<>(Driver::new, false) {
+
+        @Override
+        String id(Driver driver) {
+            return driver.getId();
+        }
+
+        @Override
+        Instant modifiedOn(Driver driver) {
+            return driver.getModifiedOn();
+        }
+
+        @Override
+        Instant sortValue(Driver driver) {
+            return driver.getCreatedOn();
+        }
+
+        @Override
+        boolean isActive(Driver driver) {
+            return Boolean.TRUE.equals(driver.getIsActive());
+        }
+
+        @Override
+        String uniqueKey(Driver driver) {
+            return driver.getLicenseNumber();
+        }
+
+        @Override
+        void applySearchKeys(Driver driver) {
+            driver.setFirstNameKey(SearchKeys.normalize(driver.getFirstName()));
+            driver.setLastNameKey(SearchKeys.normalize(driver.getLastName()));
+            driver.setLicenseNumberKey(SearchKeys.normalize(driver.getLicenseNumber()));
+        }
+    };
+
+    /**
+     * Writes from now on are checked and answered as if applied but change nothing, so a
+     * benchmark can repeat them against the same drivers.
+     */
+    public InMemoryDriverRepository discardWrites() {
+        drivers.discardWrites();
+        return this;
+    }
+
+    @Override
+    public Driver insert(Driver driver) {
+        return drivers.insert(driver);
+    }
+
+    @Override
+    public Map<Integer, Integer> insertAll(List<Driver> list) {
+        return drivers.insertAll(list);
+    }
+
+    @Override
+    public Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers) {
+        return drivers.existingUniqueKeys(licenseNumbers);
+    }
+
+    @Override
+    public Driver findById(String id) {
+        return drivers.findActive(id);
+    }
+
+    @Override
+    public Driver findById(String id, Set<String> fields) {
+        return drivers.findActive(id);
+    }
+
+    @Override
+    public Driver findVersion(String id) {
+        return drivers.findActive(id);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return drivers.findActive(id) != null;
+    }
+
+    @Override
+    public Driver updateFields(String id, Map<String, Object> changes, Instant expectedModifiedOn) {
+        return drivers.update(id, changes, expectedModifiedOn);
+    }
+
+    @Override
+    public boolean softDelete(String id, Instant expectedModifiedOn) {
+        return drivers.softDelete(id, expectedModifiedOn);
+    }
+
+    @Override
+    public SearchPage<Driver> searchDrivers(String firstName, String lastName, String licenseNumber, Integer pageIndex,
+                                            Integer itemsPerPage, TotalMode totalMode, int countLimit, Set<String> fields) {
+        return drivers.page(filter(firstName, lastName, licenseNumber), pageIndex, itemsPerPage, totalMode, countLimit);
+    }
+
+    @Override
+    public CursorPage<Driver> searchDriversAfterCursor(String firstName, String lastName, String licenseNumber,
+                                                       SearchCursor cursor, Integer itemsPerPage, Set<String> fields) {
+        return drivers.after(filter(firstName, lastName, licenseNumber), cursor, itemsPerPage);
+    }
+
+    @Override
+    public Stream<Driver> streamDrivers(String firstName, String lastName, String licenseNumber, Instant modifiedFrom,
+                                        Instant modifiedTo) {
+        return drivers.stream(filter(firstName, lastName, licenseNumber), modifiedFrom, modifiedTo);
+    }
+
+    private static Predicate<Driver> filter(String firstName, String lastName, String licenseNumber) {
+        String firstNameKey = SearchKeys.normalize(firstName);
+        String lastNameKey = SearchKeys.normalize(lastName);
+        String licenseNumberKey = SearchKeys.normalize(licenseNumber);
+        return driver -> (firstNameKey == null || firstNameKey.equals(driver.getFirstNameKey()))
+                && (lastNameKey == null || lastNameKey.equals(driver.getLastNameKey()))
+                && (licenseNumberKey == null || licenseNumberKey.equals(driver.getLicenseNumberKey()));
+    }
+}
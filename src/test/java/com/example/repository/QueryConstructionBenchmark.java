@@ -0,0 +1,123 @@
+package com.example.repository;
+
+import com.example.model.Company;
+import com.example.model.Driver;
+import com.example.utils.SearchCursor;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository query building, from search parameters to the filter document sent to the
+ * server: criteria, keyset seek, projection and update, then field and type mapping as
+ * MongoTemplate applies it. Lives in the repository package for the package-private builders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryConstructionBenchmark {
+
+    private static final String ID = "65f1c2a9e4b0a1b2c3d4e501";
+
+    private static final Set<String> FIELDS = Set.of("id", "companyName", "firstName", "lastName", "city");
+
+    private QueryMapper queryMapper;
+
+    private UpdateMapper updateMapper;
+
+    private MongoPersistentEntity<?> companyEntity;
+
+    private MongoPersistentEntity<?> driverEntity;
+
+    private SearchCursor cursor;
+
+    private Map<String, Object> companyChanges;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        queryMapper = new QueryMapper(converter);
+        updateMapper = new UpdateMapper(converter);
+        companyEntity = mappingContext.getRequiredPersistentEntity(Company.class);
+        driverEntity = mappingContext.getRequiredPersistentEntity(Driver.class);
+
+        cursor = new SearchCursor(Instant.parse("2024-02-03T04:05:06.789Z"), ID);
+
+        companyChanges = new LinkedHashMap<>();
+        companyChanges.put("companyName", "Company renamed");
+        companyChanges.put("primaryContactEmail", "asha.patil@example.com");
+        companyChanges.put("city", "Pune");
+    }
+
+    @Benchmark
+    public Document companySearch() {
+        return queryMapper.getMappedObject(
+                new Query(CompanyRepository.buildSearchCriteria("Company 1", "REG-100001")).getQueryObject(), companyEntity);
+    }
+
+    @Benchmark
+    public Document companyCursor() {
+        Query query = CompanyRepository.cursorQuery("Company 1", null, cursor, 20, FIELDS);
+        queryMapper.getMappedFields(query.getFieldsObject(), companyEntity);
+        return queryMapper.getMappedObject(query.getQueryObject(), companyEntity);
+    }
+
+    @Benchmark
+    public Document companyExport() {
+        Query query = CompanyRepository.exportQuery("Company 1", null,
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-07-01T00:00:00Z"));
+        return queryMapper.getMappedObject(query.getQueryObject(), companyEntity);
+    }
+
+    @Benchmark
+    public Document companyUpdate() {
+        queryMapper.getMappedObject(CompanyRepository.activeById(ID, cursor.sortValue()).getQueryObject(), companyEntity);
+        return updateMapper.getMappedObject(CompanyRepository.fieldsUpdate(companyChanges).getUpdateObject(), companyEntity);
+    }
+
+    @Benchmark
+    public Document driverSearch() {
+        return queryMapper.getMappedObject(
+                new Query(DriverRepository.buildSearchCriteria("Ravi", "Kulkarni", null)).getQueryObject(), driverEntity);
+    }
+
+    @Benchmark
+    public Document driverCursor() {
+        Query query = DriverRepository.cursorQuery("Ravi", null, null, cursor, 20, FIELDS);
+        queryMapper.getMappedFields(query.getFieldsObject(), driverEntity);
+        return queryMapper.getMappedObject(query.getQueryObject(), driverEntity);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.repository;
+
+import com.example.config.ReadRouting;
+import com.example.dto.CursorPage;
+import com.example.dto.SearchPage;
+import com.example.dto.SearchPage.TotalAccuracy;
+import com.example.dto.TotalMode;
+import com.example.model.Company;
+import com.example.utils.SearchCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchSupportTest {
+
+    private static final int COUNT_LIMIT = 100;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private final EntityReader entityReader = mock(EntityReader.class);
+
+    @Test
+    void estimatedTotalCountsActiveDocumentsUpToTheLimit() {
+        when(mongoTemplate.count(any(Query.class), eq(Company.class))).thenReturn(42L);
+
+        SearchPage<Company> page = search(false);
+
+        assertEquals(Long.valueOf(42L), page.totalRecords());
+        assertEquals(TotalAccuracy.EXACT, page.totalAccuracy());
+        verify(mongoTemplate, never()).estimatedCount(Company.class);
+    }
+
+    @Test
+    void estimatedTotalFallsBackToTheCollectionEstimatePastTheLimit() {
+        when(mongoTemplate.count(any(Query.class), eq(Company.class))).thenReturn(COUNT_LIMIT + 1L);
+        when(mongoTemplate.estimatedCount(Company.class)).thenReturn(5_000L);
+
+        SearchPage<Company> page = search(false);
+
+        assertEquals(Long.valueOf(5_000L), page.totalRecords());
+        assertEquals(TotalAccuracy.ESTIMATED, page.totalAccuracy());
+    }
+
+    @Test
+    void filteredEstimatedTotalPastTheLimitIsALowerBound() {
+        when(mongoTemplate.count(any(Query.class), eq(Company.class))).thenReturn(COUNT_LIMIT + 1L);
+
+        SearchPage<Company> page = search(true);
+
+        assertEquals(Long.valueOf(COUNT_LIMIT), page.totalRecords());
+        assertEquals(TotalAccuracy.AT_LEAST, page.totalAccuracy());
+        verify(mongoTemplate, never()).estimatedCount(Company.class);
+    }
+
+    @Test
+    void cursorPageTrimsTheExtraRowAndContinuesFromTheLastReturnedRow() {
+        Instant tied = Instant.parse("2024-02-03T04:05:06.789Z");
+        List<SearchCursor> rows = List.of(
+                new SearchCursor(tied, "c"), new SearchCursor(tied, "b"), new SearchCursor(tied, "a"));
+
+        CursorPage<SearchCursor> page = SearchSupport.cursorPage(rows, 2, row -> row);
+
+        assertEquals(rows.subList(0, 2), page.content());
+        assertEquals(new SearchCursor(tied, "b"), SearchCursor.decode(page.nextCursor()));
+
+        CursorPage<SearchCursor> last = SearchSupport.cursorPage(rows.subList(2, 3), 2, row -> row);
+        assertEquals(rows.subList(2, 3), last.content());
+        assertNull(last.nextCursor());
+    }
+
+    private SearchPage<Company> search(boolean filtered) {
+        when(entityReader.find(any(Query.class), eq(Company.class))).thenReturn(List.of());
+        return SearchSupport.search(mongoTemplate, entityReader, new ReadRouting(), Company.class,
+                Criteria.where("isActive").is(true), PageRequest.of(0, 20), TotalMode.ESTIMATED, COUNT_LIMIT, filtered, null);
+    }
+}
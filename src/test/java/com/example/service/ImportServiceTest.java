@@ -0,0 +1,133 @@
+package com.example.service;
+
+import com.example.dto.BulkItemResult;
+import com.example.dto.ImportSummary;
+import com.example.model.Company;
+import com.example.utils.NdjsonWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImportServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    private final ImportService importService = new ImportService();
+
+    @BeforeEach
+    void setUp() {
+        // creates every company except those registered as DUP
+        CompanyService companyService = new CompanyService() {
+            @Override
+            public List<BulkItemResult> createCompanies(List<Company> companies) {
+                batchSizes.add(companies.size());
+                List<BulkItemResult> results = new ArrayList<>();
+                for (int i = 0; i < companies.size(); i++) {
+                    results.add("DUP".equals(companies.get(i).getRegistrationNumber())
+                            ? BulkItemResult.failed(i, "Company with the same Registration Number already exists")
+                            : BulkItemResult.created(i, "id-" + companies.get(i).getRegistrationNumber()));
+                }
+                return results;
+            }
+        };
+
+        importService.setCompanyService(companyService);
+        importService.setObjectMapper(objectMapper);
+        ReflectionTestUtils.setField(importService, "batchSize", 3);
+        ReflectionTestUtils.setField(importService, "maxBulkItems", 1000);
+    }
+
+    @Test
+    void reportMergesParseFailuresWithBulkResultsInLineOrder() throws Exception {
+        String upload = String.join("\n",
+                "{\"companyName\": \"A\", \"registrationNumber\": \"R1\"}",
+                "{not json",
+                "{\"companyName\": \"B\", \"registrationNumber\": \"DUP\"}",
+                "",
+                "{\"companyName\": \"C\", \"registrationNumber\": \"R3\"}",
+                "{\"companyName\": ",
+                "{\"companyName\": \"D\", \"registrationNumber\": \"R4\"}");
+
+        List<JsonNode> report = runImport(upload, "application/x-ndjson");
+
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L, 7L), report.subList(0, 6).stream().map(r -> r.get("line").asLong()).toList());
+        assertEquals(List.of("CREATED", "FAILED", "FAILED", "CREATED", "FAILED", "CREATED"),
+                report.subList(0, 6).stream().map(r -> r.get("status").asString()).toList());
+        assertEquals("id-R1", report.get(0).get("id").asString());
+        assertEquals("id-R4", report.get(5).get("id").asString());
+
+        // parse failures count towards a batch but are never sent to the bulk create
+        assertEquals(List.of(2, 2), batchSizes);
+
+        JsonNode summary = report.get(6);
+        assertEquals(6, summary.get("records").asLong());
+        assertEquals(3, summary.get("created").asLong());
+        assertEquals(3, summary.get("failed").asLong());
+    }
+
+    @Test
+    void batchOfOnlyParseFailuresSkipsTheBulkCreate() throws Exception {
+        List<JsonNode> report = runImport("{\n{\n{\n{\"companyName\": \"A\", \"registrationNumber\": \"R1\"}", "application/x-ndjson");
+
+        assertEquals(List.of("FAILED", "FAILED", "FAILED", "CREATED"),
+                report.subList(0, 4).stream().map(r -> r.get("status").asString()).toList());
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void csvRecordsAreMappedByHeader() throws Exception {
+        String upload = String.join("\n",
+                "companyName,registrationNumber,city",
+                "\"Acme, Inc.\",R1,Pune",
+                "Beta,R2,\"Pune\",extra",
+                "Gamma,R3,");
+
+        List<JsonNode> report = runImport(upload, "text/csv");
+
+        assertEquals(List.of(2L, 3L, 4L), report.subList(0, 3).stream().map(r -> r.get("line").asLong()).toList());
+        assertEquals(List.of("CREATED", "FAILED", "CREATED"),
+                report.subList(0, 3).stream().map(r -> r.get("status").asString()).toList());
+    }
+
+    @Test
+    void batchSizeMustFitABulkRequest() {
+        ReflectionTestUtils.setField(importService, "batchSize", 1001);
+        assertThrows(IllegalStateException.class, importService::checkBatchSize);
+
+        ReflectionTestUtils.setField(importService, "batchSize", 0);
+        assertThrows(IllegalStateException.class, importService::checkBatchSize);
+
+        ReflectionTestUtils.setField(importService, "batchSize", 1000);
+        importService.checkBatchSize();
+    }
+
+    private List<JsonNode> runImport(String upload, String contentType) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImportSummary summary;
+        try (NdjsonWriter report = new NdjsonWriter(objectMapper, out)) {
+            summary = importService.importCompanies(
+                    new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), contentType, report);
+        }
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(summary.records(), lines.size() - 1);
+        return lines;
+    }
+}
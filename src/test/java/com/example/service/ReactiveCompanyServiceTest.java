@@ -0,0 +1,56 @@
+package com.example.service;
+
+import com.example.dto.BulkItemResult;
+import com.example.model.Company;
+import com.example.repository.ReactiveCompanyRepository;
+import com.example.validation.CompanyValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveCompanyServiceTest {
+
+    private final ReactiveCompanyRepository companyRepository = mock(ReactiveCompanyRepository.class);
+
+    private final ReactiveCompanyService reactiveCompanyService = new ReactiveCompanyService();
+
+    @BeforeEach
+    void setUp() {
+        CompanyService companyService = new CompanyService();
+        companyService.setCompanyValidator(new CompanyValidator());
+
+        reactiveCompanyService.setCompanyRepository(companyRepository);
+        reactiveCompanyService.setCompanyService(companyService);
+        ReflectionTestUtils.setField(reactiveCompanyService, "maxBulkItems", 1000);
+    }
+
+    @Test
+    void registrationNumberStoredTwiceFailsItsItemOnce() {
+        // two active companies already share REG-1
+        when(companyRepository.findExistingRegistrationNumbers(anyCollection())).thenReturn(Flux.just("REG-1", "REG-1"));
+        when(companyRepository.insertAll(anyList())).thenReturn(Mono.just(Map.of()));
+
+        List<BulkItemResult> results = reactiveCompanyService.createCompanies(List.of(company("REG-1"), company("REG-2"))).block();
+
+        assertEquals(BulkItemResult.failed(0, CompanyService.DUPLICATE_REGISTRATION_NUMBER), results.get(0));
+        assertEquals(BulkItemResult.Status.CREATED, results.get(1).status());
+    }
+
+    private static Company company(String registrationNumber) {
+        Company company = new Company();
+        company.setCompanyName("Acme Logistics");
+        company.setRegistrationNumber(registrationNumber);
+        return company;
+    }
+}
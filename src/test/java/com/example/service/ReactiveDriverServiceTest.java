@@ -0,0 +1,61 @@
+package com.example.service;
+
+import com.example.dto.BulkItemResult;
+import com.example.model.Driver;
+import com.example.repository.ReactiveDriverRepository;
+import com.example.validation.DriverValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveDriverServiceTest {
+
+    private final ReactiveDriverRepository driverRepository = mock(ReactiveDriverRepository.class);
+
+    private final ReactiveDriverService reactiveDriverService = new ReactiveDriverService();
+
+    @BeforeEach
+    void setUp() {
+        DriverService driverService = new DriverService();
+        driverService.setDriverValidator(new DriverValidator());
+
+        reactiveDriverService.setDriverRepository(driverRepository);
+        reactiveDriverService.setDriverService(driverService);
+        ReflectionTestUtils.setField(reactiveDriverService, "maxBulkItems", 1000);
+    }
+
+    @Test
+    void licenseNumberStoredTwiceFailsItsItemOnce() {
+        // two active drivers already share MH12-2020-0001
+        when(driverRepository.findExistingLicenseNumbers(anyCollection())).thenReturn(Flux.just("MH12-2020-0001", "MH12-2020-0001"));
+        when(driverRepository.insertAll(anyList())).thenReturn(Mono.just(Map.of()));
+
+        List<BulkItemResult> results = reactiveDriverService.createDrivers(
+                List.of(driver("MH12-2020-0001"), driver("MH12-2020-0002"))).block();
+
+        assertEquals(BulkItemResult.failed(0, DriverService.DUPLICATE_LICENSE_NUMBER), results.get(0));
+        assertEquals(BulkItemResult.Status.CREATED, results.get(1).status());
+    }
+
+    private static Driver driver(String licenseNumber) {
+        Driver driver = new Driver();
+        driver.setFirstName("Ravi");
+        driver.setLastName("Kumar");
+        driver.setEmail("ravi.kumar@example.com");
+        driver.setMobile("9876543210");
+        driver.setDateOfBirth("1990-04-12");
+        driver.setLicenseNumber(licenseNumber);
+        return driver;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.utils;
+
+import com.example.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvLineParserTest {
+
+    @Test
+    void splitsOnCommas() {
+        assertEquals(List.of("Acme", "REG-1", "Pune"), CsvLineParser.parse("Acme,REG-1,Pune"));
+        assertEquals(List.of("Acme", "", "Pune", ""), CsvLineParser.parse("Acme,,Pune,"));
+        assertEquals(List.of(""), CsvLineParser.parse(""));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() {
+        assertEquals(List.of("Acme, Inc.", "REG-1"), CsvLineParser.parse("\"Acme, Inc.\",REG-1"));
+        assertEquals(List.of("The \"Best\" Freight", "x"), CsvLineParser.parse("\"The \"\"Best\"\" Freight\",x"));
+        assertEquals(List.of("", "REG-1"), CsvLineParser.parse("\"\",REG-1"));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() {
+        assertEquals(List.of("12\" pipes", "REG-1"), CsvLineParser.parse("12\" pipes,REG-1"));
+    }
+
+    @Test
+    void quotedLineBreaksAreRejected() {
+        // the import reads one line per record, so a quoted line break leaves the quote open
+        assertThrows(BadRequestException.class, () -> CsvLineParser.parse("\"Plot 4,"));
+        assertThrows(BadRequestException.class, () -> CsvLineParser.parse("Acme,\"unterminated"));
+    }
+}
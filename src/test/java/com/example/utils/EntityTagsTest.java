@@ -0,0 +1,59 @@
+package com.example.utils;
+
+import com.example.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityTagsTest {
+
+    private static final String ID = "65f1c2a9e4b0a1b2c3d4e501";
+
+    private static final Instant STORED = Instant.parse("2024-02-03T04:05:06.789Z");
+
+    @Test
+    void tagChangesWithTheVersionAndTheRepresentation() {
+        // in memory modifiedOn can be finer than the millisecond Mongo keeps
+        assertEquals(EntityTags.of(ID, STORED, null), EntityTags.of(ID, STORED.plusNanos(123_456), null));
+
+        assertNotEquals(EntityTags.of(ID, STORED, null), EntityTags.of(ID, STORED.plusMillis(1), null));
+        assertNotEquals(EntityTags.of(ID, STORED, null), EntityTags.of(ID, STORED, Set.of("id", "city")));
+        assertEquals(EntityTags.of(ID, STORED, Set.of("id", "city")), EntityTags.of(ID, STORED, Set.of("city", "id")));
+        assertNull(EntityTags.of(ID, null, null));
+    }
+
+    @Test
+    void ifMatchNamesTheVersionOfAnyRepresentation() {
+        Instant current = STORED.plusSeconds(60);
+
+        assertEquals(STORED, EntityTags.requiredVersion(EntityTags.of(ID, STORED, null), ID, () -> current));
+        assertEquals(STORED, EntityTags.requiredVersion(EntityTags.of(ID, STORED, Set.of("city")), ID, () -> current));
+        assertNull(EntityTags.requiredVersion("*", ID, () -> current));
+
+        // several versions listed: the current one, if present, applies
+        String both = EntityTags.of(ID, STORED, null) + ", " + EntityTags.of(ID, current, null);
+        assertEquals(current, EntityTags.requiredVersion(both, ID, () -> current));
+    }
+
+    @Test
+    void ifMatchWithoutAUsableTagFails() {
+        String tag = EntityTags.of(ID, STORED, null);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> EntityTags.requiredVersion("W/" + tag, ID, () -> STORED));
+        assertThrows(PreconditionFailedException.class,
+                () -> EntityTags.requiredVersion(tag, "65f1c2a9e4b0a1b2c3d4e502", () -> STORED));
+        assertThrows(PreconditionFailedException.class,
+                () -> EntityTags.requiredVersion("\"" + ID + ".zz\"", ID, () -> STORED));
+
+        String stale = EntityTags.of(ID, STORED, null) + "," + EntityTags.of(ID, STORED.plusMillis(1), null);
+        assertThrows(PreconditionFailedException.class,
+                () -> EntityTags.requiredVersion(stale, ID, () -> STORED.plusSeconds(1)));
+    }
+}
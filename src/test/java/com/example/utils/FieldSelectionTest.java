@@ -0,0 +1,77 @@
+package com.example.utils;
+
+import com.example.exception.BadRequestException;
+import com.example.model.Company;
+import com.example.model.Driver;
+import com.example.service.CompanyService;
+import com.example.service.DriverService;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldSelectionTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void blankSelectionMeansAllFields() {
+        assertNull(CompanyService.FIELDS.parse(null));
+        assertNull(CompanyService.FIELDS.parse(" "));
+    }
+
+    @Test
+    void selectionAlwaysIncludesTheId() {
+        assertEquals(List.of("id", "companyName", "city"), List.copyOf(CompanyService.FIELDS.parse(" companyName, ,city,companyName")));
+        assertEquals(Set.of("id"), CompanyService.FIELDS.parse("id"));
+    }
+
+    @Test
+    void unknownFieldsAreRejected() {
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> CompanyService.FIELDS.parse("companyName,companyNameKey"));
+        assertEquals("Invalid field 'companyNameKey'. Allowed fields are address1, address2, city, companyName, createdOn, "
+                + "establishedOn, id, isActive, modifiedOn, primaryContactEmail, primaryContactFirstName, primaryContactLastName, "
+                + "primaryContactMobile, registrationNumber, state, website, zipCode", ex.getMessage());
+
+        // names are matched exactly, as Mongo projections are
+        assertThrows(BadRequestException.class, () -> DriverService.FIELDS.parse("FirstName"));
+    }
+
+    @Test
+    void appliedSelectionKeepsTheFullResponseOrder() {
+        Company company = new Company();
+        company.setId("65f1c2a9e4b0a1b2c3d4e501");
+        company.setCompanyName("Acme Logistics");
+        company.setCity("Pune");
+
+        Map<String, Object> values = CompanyService.FIELDS.apply(company, CompanyService.FIELDS.parse("id,companyName,city"));
+
+        assertEquals(List.of("city", "companyName", "id"), List.copyOf(values.keySet()));
+        assertEquals("Pune", values.get("city"));
+    }
+
+    @Test
+    void whitelistsMatchTheSerializedEntities() {
+        assertMatchesJson(CompanyService.FIELDS, new Company());
+        assertMatchesJson(DriverService.FIELDS, new Driver());
+    }
+
+    /**
+     * Every property Jackson writes is selectable, and selecting all of them lists them in the
+     * same order as the full response.
+     */
+    private <T> void assertMatchesJson(FieldSelection<T> fields, T entity) {
+        List<String> properties = new ArrayList<>(jsonMapper.valueToTree(entity).propertyNames());
+
+        Set<String> all = fields.parse(String.join(",", properties));
+
+        assertEquals(properties, List.copyOf(fields.apply(entity, all).keySet()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.utils;
+
+import com.example.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+    private static final Instant MODIFIED_ON = Instant.parse("2024-02-03T04:05:06.789Z");
+
+    @Test
+    void encodedCursorDecodesToTheSameKey() {
+        SearchCursor cursor = new SearchCursor(MODIFIED_ON, "65f1c2a9e4b0a1b2c3d4e501");
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, SearchCursor.decode(token));
+        // URL-safe without padding, so it can be passed back as a query parameter unescaped
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+    }
+
+    @Test
+    void sortValueKeepsTheMillisecondMongoStores() {
+        SearchCursor cursor = new SearchCursor(MODIFIED_ON.plusNanos(123_456), "65f1c2a9e4b0a1b2c3d4e501");
+
+        assertEquals(new SearchCursor(MODIFIED_ON, "65f1c2a9e4b0a1b2c3d4e501"), SearchCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void onlyTheFirstSeparatorSplitsTheKey() {
+        SearchCursor cursor = new SearchCursor(MODIFIED_ON, "a:b");
+
+        assertEquals(cursor, SearchCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void malformedTokensAreABadRequest() {
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode(token("1706933106789")));
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode(token(":65f1c2a9e4b0a1b2c3d4e501")));
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode(token("1706933106789:")));
+        assertThrows(BadRequestException.class, () -> SearchCursor.decode(token("yesterday:65f1c2a9e4b0a1b2c3d4e501")));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.validation;
+
+import com.example.exception.ValidationException;
+import com.example.model.Driver;
+import com.example.utils.i11Utils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValidatorsTest {
+
+    private static final Pattern EMAIL = Pattern.compile(i11Utils.EMAIL_PATTERN);
+
+    private static final Pattern MOBILE = Pattern.compile(i11Utils.MOBILE_PATTERN);
+
+    private static List<String> emails() {
+        List<String> emails = new ArrayList<>(List.of(
+                "asha.patil@example.com", "a@b.co", "first_last+tag%x@sub-domain.example.in", "A-1@x.y.ZZ",
+                "", "@", "@example.com", "asha@", "asha@example", "asha@.com", "asha@example.c", "asha@example.c0m",
+                "asha@@example.com", "asha@exa@mple.com", "asha patil@example.com", "asha@example.com.",
+                "asha@example..com", "asha.@example.com", ".asha@example.com", "asha@-example.com",
+                "asha@example.com\n", "ásha@example.com", "asha@example.cóm", "a.b@c.d.e.fg", "a@b.c.d"));
+        emails.addAll(random("abz.@_%+-09AZ é", 5_000, 12, 1L));
+        return emails;
+    }
+
+    private static List<String> mobiles() {
+        List<String> mobiles = new ArrayList<>(List.of(
+                "9876543210", "6000000000", "5876543210", "987654321", "98765432100", "98765 43210",
+                " 9876543210", "987654321a", "", "９876543210"));
+        mobiles.addAll(random("0123456789 a", 5_000, 11, 2L));
+        return mobiles;
+    }
+
+    private static List<String> dates() {
+        List<String> dates = new ArrayList<>(List.of(
+                "2001-04-17", "2024-02-29", "2023-02-29", "2023-02-30", "2023-04-31", "2023-02-32", "2023-13-01",
+                "2023-00-10", "2023-01-00", "0000-01-01", "0001-01-01", "9999-12-31", "12345-01-01", "+12345-01-01",
+                "+2023-01-01", "-2023-01-01", "2023-1-01", "2023-01-1", "2023/01/01", "20230101", "2023-01-01T",
+                "", "２０２３-01-01"));
+        dates.addAll(random("0123456789-+", 5_000, 12, 3L));
+
+        // well-formed but possibly out of range
+        Random random = new Random(4L);
+        for (int i = 0; i < 5_000; i++) {
+            dates.add(String.format("%04d-%02d-%02d", random.nextInt(10_001), random.nextInt(14), random.nextInt(33)));
+        }
+        return dates;
+    }
+
+    @Test
+    void emailMatchesThePattern() {
+        for (String email : emails()) {
+            assertEquals(EMAIL.matcher(email).matches(), Validators.isEmail(email), email);
+        }
+    }
+
+    @Test
+    void mobileMatchesThePattern() {
+        for (String mobile : mobiles()) {
+            assertEquals(MOBILE.matcher(mobile).matches(), Validators.isMobile(mobile), mobile);
+        }
+    }
+
+    @Test
+    void dateParsesLikeTheFormatter() {
+        for (String date : dates()) {
+            LocalDate expected;
+            try {
+                expected = LocalDate.parse(date, i11Utils.DATE_FORMATTER);
+            } catch (DateTimeParseException ex) {
+                expected = null;
+            }
+            assertEquals(expected, Validators.parseDate(date), date);
+        }
+    }
+
+    @Test
+    void reportsEveryDriverErrorAtOnce() {
+        Driver driver = new Driver();
+        driver.setFirstName("Ravi");
+        driver.setLastName("Kumar");
+        driver.setEmail("not-an-email");
+        driver.setMobile("12345");
+        driver.setDateOfBirth("2099-01-01");
+        driver.setLicenseNumber("MH12-2020-0001");
+
+        ValidationException ex = assertThrows(ValidationException.class, () -> new DriverValidator().validateForCreate(driver));
+
+        assertEquals(List.of("Please provide a valid email address", "Please provide a valid mobile number",
+                "Date of birth cannot be a future date"), ex.getErrors());
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
+    /**
+     * Reproducible random strings over the alphabet, up to maxLength characters.
+     */
+    private static List<String> random(String alphabet, int count, int maxLength, long seed) {
+        Random random = new Random(seed);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = random.nextInt(maxLength + 1);
+            StringBuilder value = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            values.add(value.toString());
+        }
+        return values;
+    }
+}